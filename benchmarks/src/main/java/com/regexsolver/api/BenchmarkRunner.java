@@ -0,0 +1,124 @@
+package com.regexsolver.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Run the benchmarks, save their results as JSON and optionally compare them with the results of a previous run.
+ * <pre>
+ * java -jar target/benchmarks.jar [--output results.json] [--baseline previous.json] [--threshold 10] [regex...]
+ * </pre>
+ * With a baseline, the run fails if any benchmark regressed by more than the threshold, in percent.
+ */
+public final class BenchmarkRunner {
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        String output = "benchmark-results.json";
+        String baseline = null;
+        double threshold = 10;
+        List<String> includes = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--output":
+                    output = args[++i];
+                    break;
+                case "--baseline":
+                    baseline = args[++i];
+                    break;
+                case "--threshold":
+                    threshold = Double.parseDouble(args[++i]);
+                    break;
+                default:
+                    includes.add(args[i]);
+            }
+        }
+
+        OptionsBuilder options = new OptionsBuilder();
+        if (includes.isEmpty()) {
+            options.include(BenchmarkRunner.class.getPackageName() + ".*Benchmark");
+        } else {
+            includes.forEach(options::include);
+        }
+        options.resultFormat(ResultFormatType.JSON).result(output);
+        new Runner(options.build()).run();
+
+        if (baseline != null) {
+            int regressions = compare(readScores(new File(baseline)), readScores(new File(output)), threshold);
+            if (regressions > 0) {
+                System.err.printf("%d benchmarks regressed by more than %.1f%%.%n", regressions, threshold);
+                System.exit(1);
+            }
+        }
+    }
+
+    /**
+     * @return The number of benchmarks that regressed by more than the threshold.
+     */
+    private static int compare(Map<String, Score> baseline, Map<String, Score> current, double threshold) {
+        int regressions = 0;
+        System.out.printf("%n%-80s %14s %14s %9s%n", "Benchmark", "Baseline", "Current", "Change");
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score before = baseline.get(entry.getKey());
+            Score after = entry.getValue();
+            if (before == null || !before.unit.equals(after.unit)) {
+                System.out.printf("%-80s %14s %14.3f %9s%n", entry.getKey(), "-", after.value, "new");
+                continue;
+            }
+            // A positive improvement means faster, whether the mode measures a throughput or a time.
+            double change = (after.value - before.value) / before.value * 100;
+            double improvement = after.higherIsBetter ? change : -change;
+            boolean regressed = improvement < -threshold;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-80s %14.3f %14.3f %+8.1f%%%s%n", entry.getKey(), before.value, after.value, change,
+                    regressed ? "  REGRESSION" : "");
+        }
+        return regressions;
+    }
+
+    private static Map<String, Score> readScores(File file) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(result.get("benchmark").asText());
+            JsonNode params = result.get("params");
+            if (params != null) {
+                Iterator<Map.Entry<String, JsonNode>> fields = params.fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> field = fields.next();
+                    key.append(' ').append(field.getKey()).append('=').append(field.getValue().asText());
+                }
+            }
+            JsonNode metric = result.get("primaryMetric");
+            scores.put(key.toString(), new Score(metric.get("score").asDouble(), metric.get("scoreUnit").asText(),
+                    "thrpt".equals(result.get("mode").asText())));
+        }
+        return scores;
+    }
+
+    private static final class Score {
+        private final double value;
+        private final String unit;
+        private final boolean higherIsBetter;
+
+        private Score(double value, String unit, boolean higherIsBetter) {
+            this.value = value;
+            this.unit = unit;
+            this.higherIsBetter = higherIsBetter;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.regexsolver.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.regexsolver.api.Request.MultiTermsRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The JSON codec of the request and response bodies, comparing the streaming {@link JsonCodec} with the Jackson
+ * data binding and its polymorphic deserialization of {@link ResponseContent}, for small and multi-megabyte FAIRs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CodecBenchmark {
+    private static final String FAIR_ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+
+    @Param({"64", "4194304"})
+    public int fairLength;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private MultiTermsRequest request;
+    private byte[] response;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        Term first = Term.fair(randomFair(random, fairLength));
+        Term second = Term.fair(randomFair(random, fairLength));
+        request = new MultiTermsRequest(List.of(first, second));
+        response = ("{\"type\":\"fair\",\"value\":\"" + randomFair(random, fairLength) + "\"}")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] writeRequest() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        JsonCodec.write(request, outputStream);
+        return outputStream.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] writeRequestJackson() throws IOException {
+        return objectMapper.writeValueAsBytes(request);
+    }
+
+    @Benchmark
+    public ResponseContent readResponse() throws IOException {
+        return JsonCodec.read(new ByteArrayInputStream(response));
+    }
+
+    @Benchmark
+    public ResponseContent readResponseJackson() throws IOException {
+        return objectMapper.readValue(response, ResponseContent.class);
+    }
+
+    private static String randomFair(Random random, int length) {
+        char[] fair = new char[length];
+        for (int i = 0; i < length; i++) {
+            fair[i] = FAIR_ALPHABET.charAt(random.nextInt(FAIR_ALPHABET.length()));
+        }
+        return new String(fair);
+    }
+}
@@ -0,0 +1,110 @@
+package com.regexsolver.api;
+
+import com.regexsolver.api.exception.ApiError;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The throughput of whole operations through the OkHttp stack, against a local {@link MockWebServer} answering
+ * immediately, so that only the cost on the client side is measured.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EndToEndBenchmark {
+    private static final int ASYNC_BATCH_SIZE = 64;
+    private static final String UNION_RESPONSE = "{\"type\":\"regex\",\"value\":\"(abc|de|fghi)\"}";
+
+    @Param({"true", "false"})
+    public boolean streamingCodec;
+
+    private MockWebServer server;
+    private RegexSolverClient client;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse()
+                        .setHeader("Content-Type", "application/json")
+                        .setBody(UNION_RESPONSE);
+            }
+        });
+        server.start();
+
+        client = RegexSolverClient.builder()
+                .token("TOKEN")
+                .baseUrl(server.url("/").toString())
+                .maxRequests(ASYNC_BATCH_SIZE)
+                .maxRequestsPerHost(ASYNC_BATCH_SIZE)
+                .streamingCodec(streamingCodec)
+                .localEvaluation(false)
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        client.close();
+        server.shutdown();
+    }
+
+    /**
+     * Makes the operands of each operation unique, so that concurrent identical operations are not coalesced.
+     */
+    @State(Scope.Thread)
+    public static class Operands {
+        private long next = 0;
+
+        Term nextTerm() {
+            return Term.regex("abc" + Thread.currentThread().getId() + "_" + next++ + ".*");
+        }
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Term blocking(Operands operands) throws IOException, ApiError {
+        return client.union(operands.nextTerm(), Term.regex("de.*"));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ASYNC_BATCH_SIZE)
+    public List<Term> async(Operands operands) {
+        List<CompletableFuture<Term>> futures = new ArrayList<>(ASYNC_BATCH_SIZE);
+        for (int i = 0; i < ASYNC_BATCH_SIZE; i++) {
+            futures.add(client.unionAsync(operands.nextTerm(), Term.regex("de.*")));
+        }
+        List<Term> results = new ArrayList<>(ASYNC_BATCH_SIZE);
+        for (CompletableFuture<Term> future : futures) {
+            results.add(future.join());
+        }
+        return results;
+    }
+}
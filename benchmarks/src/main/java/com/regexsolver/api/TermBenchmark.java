@@ -0,0 +1,82 @@
+package com.regexsolver.api;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The hot paths of {@link Term}: construction, serialization and the {@code equals}/{@code hashCode} used by the
+ * caches. The serialized form is cached by each instance, so the cold benchmarks build a new term each time.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TermBenchmark {
+    @Param({"abc", "(abc|de){2}[0-9]{3,5}.*"})
+    public String pattern;
+
+    private Term.Regex regex;
+    private Term.Regex same;
+    private String serialized;
+
+    @Setup
+    public void setUp() {
+        regex = Term.regex(pattern);
+        same = Term.regex(pattern);
+        serialized = regex.serialize();
+    }
+
+    @Benchmark
+    public Term construct() {
+        return Term.regex(pattern);
+    }
+
+    @Benchmark
+    public String serializeCold() {
+        return Term.regex(pattern).serialize();
+    }
+
+    @Benchmark
+    public String serializeCached() {
+        return regex.serialize();
+    }
+
+    @Benchmark
+    public Optional<Term> deserialize() {
+        return Term.deserialize(serialized);
+    }
+
+    @Benchmark
+    public boolean equalsCold() {
+        return Term.regex(pattern).equals(same);
+    }
+
+    @Benchmark
+    public boolean equalsCached() {
+        return regex.equals(same);
+    }
+
+    @Benchmark
+    public int hashCodeCold() {
+        return Term.regex(pattern).hashCode();
+    }
+
+    @Benchmark
+    public int hashCodeCached() {
+        return regex.hashCode();
+    }
+}
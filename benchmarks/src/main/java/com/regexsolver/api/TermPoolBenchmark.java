@@ -0,0 +1,108 @@
+package com.regexsolver.api;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Plain against interned terms on a corpus of one million terms drawn from ten thousand distinct patterns:
+ * the time to build the corpus, its retained heap, and the throughput of a hash map counting the terms.
+ * <p>
+ * Run with {@code -prof gc} to see the allocation rates. The retained heap of each corpus is printed at setup.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class TermPoolBenchmark {
+    private static final int CORPUS_SIZE = 1_000_000;
+    private static final int DISTINCT_PATTERNS = 10_000;
+
+    private String[] patterns;
+    private List<Term> plainCorpus;
+    private List<Term> internedCorpus;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        patterns = new String[CORPUS_SIZE];
+        for (int i = 0; i < CORPUS_SIZE; i++) {
+            // Distinct strings, as if read from a file, so that only interning shares them.
+            patterns[i] = new String("(abc|de)[0-9]{2," + random.nextInt(DISTINCT_PATTERNS) + "}.*");
+        }
+
+        long before = usedHeap();
+        plainCorpus = buildPlainCorpus();
+        plainCorpus.forEach(Term::hashCode);
+        long plain = usedHeap() - before;
+
+        before = usedHeap();
+        internedCorpus = buildInternedCorpus();
+        long interned = usedHeap() - before;
+
+        System.out.printf("%nRetained heap of %d terms: %d MiB plain, %d MiB interned%n",
+                CORPUS_SIZE, plain >> 20, interned >> 20);
+    }
+
+    @Benchmark
+    public List<Term> buildPlainCorpus() {
+        List<Term> corpus = new ArrayList<>(CORPUS_SIZE);
+        for (String pattern : patterns) {
+            corpus.add(Term.regex(pattern));
+        }
+        return corpus;
+    }
+
+    @Benchmark
+    public List<Term> buildInternedCorpus() {
+        TermPool pool = new TermPool();
+        List<Term> corpus = new ArrayList<>(CORPUS_SIZE);
+        for (String pattern : patterns) {
+            corpus.add(pool.regex(pattern));
+        }
+        return corpus;
+    }
+
+    @Benchmark
+    public Map<Term, Integer> countPlain() {
+        return count(plainCorpus);
+    }
+
+    @Benchmark
+    public Map<Term, Integer> countInterned() {
+        return count(internedCorpus);
+    }
+
+    private static Map<Term, Integer> count(List<Term> corpus) {
+        Map<Term, Integer> counts = new HashMap<>();
+        for (Term term : corpus) {
+            counts.merge(term, 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
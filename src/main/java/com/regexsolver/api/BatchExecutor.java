@@ -0,0 +1,157 @@
+package com.regexsolver.api;
+
+import com.regexsolver.api.dto.BatchResult;
+import okhttp3.Dispatcher;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Execute large batches of asynchronous {@link Term} operations while keeping a bounded number of them in flight.
+ * <p>
+ * Operations are started as soon as a slot of the window is released, without waiting for the results to be consumed,
+ * so the throughput is bounded by the size of the window rather than by the round-trip latency.
+ * When the API server supports HTTP/2 the in-flight requests are multiplexed over a shared connection.
+ * </p>
+ * <p>
+ * The requests of the operations are also bounded by the dispatcher of their client, see
+ * {@link RegexSolverClient.Builder#maxRequests(int)} and {@link RegexSolverClient.Builder#maxRequestsPerHost(int)},
+ * so a window larger than these bounds is rejected.
+ * </p>
+ * <pre>{@code
+ * try (RegexSolverClient client = RegexSolverClient.builder()
+ *         .token("YOUR TOKEN HERE")
+ *         .maxRequests(256)
+ *         .maxRequestsPerHost(256)
+ *         .build()) {
+ *     BatchExecutor executor = new BatchExecutor(client, 256);
+ *     List<Supplier<CompletableFuture<Boolean>>> operations = new ArrayList<>();
+ *     for (Term rule : rules) {
+ *         operations.add(() -> client.isSubsetOfAsync(rule, policy));
+ *     }
+ *     try (Stream<BatchResult<Boolean>> results = executor.execute(operations)) {
+ *         results.forEach(System.out::println);
+ *     }
+ * }
+ * }</pre>
+ */
+public final class BatchExecutor {
+    private final int maxInFlight;
+
+    /**
+     * Create a new instance for operations using the default client.
+     *
+     * @param maxInFlight The maximum number of operations in flight at the same time.
+     * @throws IllegalArgumentException If it exceeds the number of requests the default client runs concurrently.
+     */
+    public BatchExecutor(int maxInFlight) {
+        this(null, maxInFlight);
+    }
+
+    /**
+     * Create a new instance.
+     *
+     * @param client      The client used by the operations, or {@code null} for the default client.
+     * @param maxInFlight The maximum number of operations in flight at the same time.
+     * @throws IllegalArgumentException If it exceeds the number of requests the client runs concurrently.
+     */
+    public BatchExecutor(RegexSolverClient client, int maxInFlight) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("The maximum number of operations in flight must be positive.");
+        }
+        RegexSolverApiWrapper wrapper = client != null ? client.getWrapper() : RegexSolverApiWrapper.getInstance();
+        Dispatcher dispatcher = wrapper.getDispatcher();
+        int maxRequests = Math.min(dispatcher.getMaxRequests(), dispatcher.getMaxRequestsPerHost());
+        if (maxInFlight > maxRequests) {
+            throw new IllegalArgumentException(String.format(
+                    "The maximum number of operations in flight, %d, exceeds the %d requests run by the client.",
+                    maxInFlight, maxRequests));
+        }
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Start executing the given operations, such as {@code () -> rule.isSubsetOfAsync(policy)}.
+     * <p>
+     * The returned stream yields one result per operation, in completion order, and blocks while waiting for the next
+     * one. An operation that fails does not interrupt the batch, its error is held by its {@link BatchResult}.
+     * Closing the stream cancels the operations not yet completed.
+     * </p>
+     *
+     * @param operations The operations to execute.
+     * @param <T>        The type of the results.
+     * @return A stream of the results in completion order.
+     */
+    public <T> Stream<BatchResult<T>> execute(Collection<? extends Supplier<CompletableFuture<T>>> operations) {
+        Batch<T> batch = new Batch<>(new ArrayList<>(operations), maxInFlight);
+        batch.start();
+
+        Spliterator<BatchResult<T>> spliterator = Spliterators.spliterator(batch, operations.size(),
+                Spliterator.NONNULL | Spliterator.SIZED);
+        return StreamSupport.stream(spliterator, false).onClose(batch::cancel);
+    }
+
+    private static final class Batch<T> implements Iterator<BatchResult<T>> {
+        private final List<Supplier<CompletableFuture<T>>> operations;
+        private final RequestWindow window;
+
+        private final BlockingQueue<BatchResult<T>> results = new LinkedBlockingQueue<>();
+
+        private int consumed = 0;
+
+        private Batch(List<Supplier<CompletableFuture<T>>> operations, int maxInFlight) {
+            this.operations = operations;
+            this.window = new RequestWindow(maxInFlight);
+        }
+
+        private void start() {
+            for (int i = 0; i < operations.size(); i++) {
+                int index = i;
+                window.launch(operations.get(index)).whenComplete((value, throwable) -> {
+                    if (throwable != null) {
+                        results.add(BatchResult.failure(index, throwable));
+                    } else {
+                        results.add(BatchResult.success(index, value));
+                    }
+                });
+            }
+        }
+
+        private void cancel() {
+            window.cancel();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return consumed < operations.size();
+        }
+
+        @Override
+        public BatchResult<T> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            try {
+                BatchResult<T> result = results.take();
+                consumed++;
+                return result;
+            } catch (InterruptedException e) {
+                cancel();
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,519 @@
+package com.regexsolver.api;
+
+import com.regexsolver.api.dto.Cardinality;
+import com.regexsolver.api.dto.Details;
+import com.regexsolver.api.dto.Length;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A compact binary format for {@link Term}, {@link Details}, {@link Cardinality} and {@link Length}, read and written
+ * directly against {@link ByteBuffer}, including direct and memory-mapped ones.
+ * <p>
+ * Each value starts with a one-byte type tag, lengths and counts are unsigned variable-length integers (LEB128) and
+ * strings are encoded in UTF-8. Collections of terms written by {@link #writeTerms(ByteBuffer, Collection)} start
+ * with a header made of the magic bytes {@code RSBC} and the version of the format, checked when they are read.
+ * </p>
+ * <pre>{@code
+ * ByteBuffer buffer = ByteBuffer.allocateDirect(BinaryCodec.sizeOfTerms(terms));
+ * BinaryCodec.writeTerms(buffer, terms);
+ * buffer.flip();
+ * List<Term> loaded = BinaryCodec.readTerms(buffer);
+ * }</pre>
+ * The write methods throw a {@link java.nio.BufferOverflowException} if the buffer is too small, and the read methods
+ * an {@link IOException} if the data is truncated or invalid. The position of the buffer is advanced past the value
+ * read or written.
+ */
+public final class BinaryCodec {
+    /**
+     * The version of the format.
+     */
+    public static final int VERSION = 1;
+
+    private static final byte[] MAGIC = {'R', 'S', 'B', 'C'};
+    private static final int HEADER_SIZE = MAGIC.length + 1;
+
+    private static final byte TERM_REGEX = 'R';
+    private static final byte TERM_FAIR = 'F';
+    private static final byte DETAILS = 'D';
+    private static final byte BOOLEAN_FALSE = 'f';
+    private static final byte BOOLEAN_TRUE = 't';
+
+    private static final byte CARDINALITY_INFINITE = 'N';
+    private static final byte CARDINALITY_BIG_INTEGER = 'B';
+    private static final byte CARDINALITY_INTEGER = 'I';
+
+    private static final int LENGTH_MINIMUM = 1;
+    private static final int LENGTH_MAXIMUM = 1 << 1;
+    private static final int DETAILS_EMPTY = 1;
+    private static final int DETAILS_TOTAL = 1 << 1;
+
+    private BinaryCodec() {
+    }
+
+    /**
+     * @param term A regular expression or a FAIR.
+     * @return The number of bytes written by {@link #writeTerm(ByteBuffer, Term)}.
+     */
+    public static int sizeOfTerm(Term term) {
+        return 1 + sizeOfString(termValue(term));
+    }
+
+    /**
+     * @param buffer The buffer to write to.
+     * @param term   A regular expression or a FAIR.
+     */
+    public static void writeTerm(ByteBuffer buffer, Term term) {
+        buffer.put(termTag(term));
+        writeString(buffer, termValue(term));
+    }
+
+    /**
+     * @param buffer The buffer to read from.
+     * @return The term read.
+     * @throws IOException If the data is truncated or invalid.
+     */
+    public static Term readTerm(ByteBuffer buffer) throws IOException {
+        return readTerm(buffer, null);
+    }
+
+    /**
+     * @param buffer The buffer to read from.
+     * @param pool   The pool to intern the term in, or null.
+     * @return The term read, canonical in the given pool if any.
+     * @throws IOException If the data is truncated or invalid.
+     */
+    public static Term readTerm(ByteBuffer buffer, TermPool pool) throws IOException {
+        try {
+            byte tag = buffer.get();
+            if (tag != TERM_REGEX && tag != TERM_FAIR) {
+                throw new IOException("Unknown term type: " + tag);
+            }
+            return readTerm(buffer, tag, pool);
+        } catch (BufferUnderflowException e) {
+            throw truncated();
+        }
+    }
+
+    /**
+     * @param terms Regular expressions or FAIRs.
+     * @return The number of bytes written by {@link #writeTerms(ByteBuffer, Collection)}.
+     */
+    public static int sizeOfTerms(Collection<? extends Term> terms) {
+        long size = HEADER_SIZE + sizeOfVarLong(terms.size());
+        for (Term term : terms) {
+            size += sizeOfTerm(term);
+        }
+        return Math.toIntExact(size);
+    }
+
+    /**
+     * Write a header followed by the given terms.
+     *
+     * @param buffer The buffer to write to.
+     * @param terms  Regular expressions or FAIRs.
+     */
+    public static void writeTerms(ByteBuffer buffer, Collection<? extends Term> terms) {
+        buffer.put(MAGIC).put((byte) VERSION);
+        writeVarLong(buffer, terms.size());
+        for (Term term : terms) {
+            writeTerm(buffer, term);
+        }
+    }
+
+    /**
+     * @param buffer The buffer to read from.
+     * @return The terms read.
+     * @throws IOException If the data is truncated, invalid, or of an unsupported version.
+     */
+    public static List<Term> readTerms(ByteBuffer buffer) throws IOException {
+        return readTerms(buffer, null);
+    }
+
+    /**
+     * @param buffer The buffer to read from.
+     * @param pool   The pool to intern the terms in, or null.
+     * @return The terms read, canonical in the given pool if any.
+     * @throws IOException If the data is truncated, invalid, or of an unsupported version.
+     */
+    public static List<Term> readTerms(ByteBuffer buffer, TermPool pool) throws IOException {
+        try {
+            for (byte expected : MAGIC) {
+                if (buffer.get() != expected) {
+                    throw new IOException("Not a collection of terms.");
+                }
+            }
+            int version = buffer.get();
+            if (version != VERSION) {
+                throw new IOException("Unsupported version: " + version);
+            }
+            long count = readVarLong(buffer);
+            if (count > buffer.remaining() / 2) {
+                // Each term takes at least two bytes.
+                throw truncated();
+            }
+            List<Term> terms = new ArrayList<>((int) count);
+            for (long i = 0; i < count; i++) {
+                terms.add(readTerm(buffer, pool));
+            }
+            return terms;
+        } catch (BufferUnderflowException e) {
+            throw truncated();
+        }
+    }
+
+    /**
+     * @param details The details.
+     * @return The number of bytes written by {@link #writeDetails(ByteBuffer, Details)}.
+     */
+    public static int sizeOfDetails(Details details) {
+        return 2 + sizeOfCardinality(details.getCardinality()) + sizeOfLength(details.getLength());
+    }
+
+    /**
+     * @param buffer  The buffer to write to.
+     * @param details The details.
+     */
+    public static void writeDetails(ByteBuffer buffer, Details details) {
+        buffer.put(DETAILS);
+        writeCardinality(buffer, details.getCardinality());
+        writeLength(buffer, details.getLength());
+        buffer.put((byte) ((details.isEmpty() ? DETAILS_EMPTY : 0) | (details.isTotal() ? DETAILS_TOTAL : 0)));
+    }
+
+    /**
+     * @param buffer The buffer to read from.
+     * @return The details read.
+     * @throws IOException If the data is truncated or invalid.
+     */
+    public static Details readDetails(ByteBuffer buffer) throws IOException {
+        try {
+            byte tag = buffer.get();
+            if (tag != DETAILS) {
+                throw new IOException("Not details: " + tag);
+            }
+            return readDetailsContent(buffer);
+        } catch (BufferUnderflowException e) {
+            throw truncated();
+        }
+    }
+
+    /**
+     * @param cardinality The cardinality.
+     * @return The number of bytes written by {@link #writeCardinality(ByteBuffer, Cardinality)}.
+     * @throws IllegalArgumentException If the cardinality is null or of an unknown type.
+     */
+    public static int sizeOfCardinality(Cardinality cardinality) {
+        if (cardinality instanceof Cardinality.Integer) {
+            return 1 + sizeOfVarLong(((Cardinality.Integer) cardinality).getCount());
+        } else if (cardinality instanceof Cardinality.BigInteger || cardinality instanceof Cardinality.Infinite) {
+            return 1;
+        }
+        throw unsupportedCardinality(cardinality);
+    }
+
+    /**
+     * @param buffer      The buffer to write to.
+     * @param cardinality The cardinality.
+     * @throws IllegalArgumentException If the cardinality is null or of an unknown type.
+     */
+    public static void writeCardinality(ByteBuffer buffer, Cardinality cardinality) {
+        if (cardinality instanceof Cardinality.Integer) {
+            buffer.put(CARDINALITY_INTEGER);
+            writeVarLong(buffer, ((Cardinality.Integer) cardinality).getCount());
+        } else if (cardinality instanceof Cardinality.BigInteger) {
+            buffer.put(CARDINALITY_BIG_INTEGER);
+        } else if (cardinality instanceof Cardinality.Infinite) {
+            buffer.put(CARDINALITY_INFINITE);
+        } else {
+            throw unsupportedCardinality(cardinality);
+        }
+    }
+
+    private static IllegalArgumentException unsupportedCardinality(Cardinality cardinality) {
+        return new IllegalArgumentException("Unsupported cardinality: " + cardinality);
+    }
+
+    /**
+     * @param buffer The buffer to read from.
+     * @return The cardinality read.
+     * @throws IOException If the data is truncated or invalid.
+     */
+    public static Cardinality readCardinality(ByteBuffer buffer) throws IOException {
+        try {
+            byte tag = buffer.get();
+            switch (tag) {
+                case CARDINALITY_INTEGER:
+                    return new Cardinality.Integer(readVarLong(buffer));
+                case CARDINALITY_BIG_INTEGER:
+                    return Cardinality.BigInteger.INSTANCE;
+                case CARDINALITY_INFINITE:
+                    return Cardinality.Infinite.INSTANCE;
+                default:
+                    throw new IOException("Unknown cardinality type: " + tag);
+            }
+        } catch (BufferUnderflowException e) {
+            throw truncated();
+        }
+    }
+
+    /**
+     * @param length The length.
+     * @return The number of bytes written by {@link #writeLength(ByteBuffer, Length)}.
+     * @throws IllegalArgumentException If the length is null.
+     */
+    public static int sizeOfLength(Length length) {
+        requireLength(length);
+        int size = 1;
+        if (length.getMinimum().isPresent()) {
+            size += sizeOfVarLong(length.getMinimum().getAsLong());
+        }
+        if (length.getMaximum().isPresent()) {
+            size += sizeOfVarLong(length.getMaximum().getAsLong());
+        }
+        return size;
+    }
+
+    /**
+     * @param buffer The buffer to write to.
+     * @param length The length.
+     * @throws IllegalArgumentException If the length is null.
+     */
+    public static void writeLength(ByteBuffer buffer, Length length) {
+        requireLength(length);
+        boolean hasMinimum = length.getMinimum().isPresent();
+        boolean hasMaximum = length.getMaximum().isPresent();
+        buffer.put((byte) ((hasMinimum ? LENGTH_MINIMUM : 0) | (hasMaximum ? LENGTH_MAXIMUM : 0)));
+        if (hasMinimum) {
+            writeVarLong(buffer, length.getMinimum().getAsLong());
+        }
+        if (hasMaximum) {
+            writeVarLong(buffer, length.getMaximum().getAsLong());
+        }
+    }
+
+    private static void requireLength(Length length) {
+        if (length == null) {
+            throw new IllegalArgumentException("Unsupported length: null");
+        }
+    }
+
+    /**
+     * @param buffer The buffer to read from.
+     * @return The length read.
+     * @throws IOException If the data is truncated or invalid.
+     */
+    public static Length readLength(ByteBuffer buffer) throws IOException {
+        try {
+            byte flags = buffer.get();
+            if ((flags & ~(LENGTH_MINIMUM | LENGTH_MAXIMUM)) != 0) {
+                throw new IOException("Invalid length flags: " + flags);
+            }
+            Long minimum = (flags & LENGTH_MINIMUM) != 0 ? readVarLong(buffer) : null;
+            Long maximum = (flags & LENGTH_MAXIMUM) != 0 ? readVarLong(buffer) : null;
+            return Length.of(minimum, maximum);
+        } catch (BufferUnderflowException e) {
+            throw truncated();
+        }
+    }
+
+    /**
+     * @return The number of bytes written by {@link #write(ByteBuffer, Object)} for the given operation result.
+     */
+    static int sizeOf(Object result) {
+        if (result instanceof Term) {
+            return sizeOfTerm((Term) result);
+        } else if (result instanceof Details) {
+            return sizeOfDetails((Details) result);
+        } else if (result instanceof Boolean) {
+            return 1;
+        }
+        throw new IllegalArgumentException("Unsupported result type: " + result.getClass());
+    }
+
+    /**
+     * Write the result of an operation: a term, details or a boolean.
+     */
+    static void write(ByteBuffer buffer, Object result) {
+        if (result instanceof Term) {
+            writeTerm(buffer, (Term) result);
+        } else if (result instanceof Details) {
+            writeDetails(buffer, (Details) result);
+        } else if (result instanceof Boolean) {
+            buffer.put((Boolean) result ? BOOLEAN_TRUE : BOOLEAN_FALSE);
+        } else {
+            throw new IllegalArgumentException("Unsupported result type: " + result.getClass());
+        }
+    }
+
+    /**
+     * Read the result of an operation written by {@link #write(ByteBuffer, Object)}.
+     */
+    static Object read(ByteBuffer buffer) throws IOException {
+        try {
+            byte tag = buffer.get();
+            switch (tag) {
+                case TERM_REGEX:
+                case TERM_FAIR:
+                    return readTerm(buffer, tag, null);
+                case DETAILS:
+                    return readDetailsContent(buffer);
+                case BOOLEAN_TRUE:
+                    return true;
+                case BOOLEAN_FALSE:
+                    return false;
+                default:
+                    throw new IOException("Unknown result type: " + tag);
+            }
+        } catch (BufferUnderflowException e) {
+            throw truncated();
+        }
+    }
+
+    private static Term readTerm(ByteBuffer buffer, byte tag, TermPool pool) throws IOException {
+        String value = readString(buffer);
+        if (tag == TERM_REGEX) {
+            return pool != null ? pool.regex(value) : Term.regex(value);
+        }
+        return pool != null ? pool.fair(value) : Term.fair(value);
+    }
+
+    private static Details readDetailsContent(ByteBuffer buffer) throws IOException {
+        Cardinality cardinality = readCardinality(buffer);
+        Length length = readLength(buffer);
+        byte flags = buffer.get();
+        return new Details(cardinality, length, (flags & DETAILS_EMPTY) != 0, (flags & DETAILS_TOTAL) != 0);
+    }
+
+    private static byte termTag(Term term) {
+        if (term instanceof Term.Regex) {
+            return TERM_REGEX;
+        } else if (term instanceof Term.Fair) {
+            return TERM_FAIR;
+        }
+        throw new IllegalArgumentException("Unsupported term type: " + term.getClass());
+    }
+
+    private static String termValue(Term term) {
+        if (term instanceof Term.Regex) {
+            return ((Term.Regex) term).getPattern();
+        } else if (term instanceof Term.Fair) {
+            return ((Term.Fair) term).getFair();
+        }
+        throw new IllegalArgumentException("Unsupported term type: " + term.getClass());
+    }
+
+    private static int sizeOfString(String string) {
+        int length = utf8Length(string);
+        return sizeOfVarLong(length) + length;
+    }
+
+    /**
+     * Encode the given string in UTF-8 straight into the buffer, without an intermediate array.
+     */
+    private static void writeString(ByteBuffer buffer, String string) {
+        writeVarLong(buffer, utf8Length(string));
+        for (int i = 0; i < string.length(); i++) {
+            char c = string.charAt(i);
+            if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | (c >>> 6)))
+                        .put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < string.length()
+                    && Character.isLowSurrogate(string.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, string.charAt(++i));
+                buffer.put((byte) (0xF0 | (codePoint >>> 18)))
+                        .put((byte) (0x80 | ((codePoint >>> 12) & 0x3F)))
+                        .put((byte) (0x80 | ((codePoint >>> 6) & 0x3F)))
+                        .put((byte) (0x80 | (codePoint & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                // Unpaired surrogate, replaced like String#getBytes does.
+                buffer.put((byte) '?');
+            } else {
+                buffer.put((byte) (0xE0 | (c >>> 12)))
+                        .put((byte) (0x80 | ((c >>> 6) & 0x3F)))
+                        .put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+
+    private static int utf8Length(String string) {
+        int length = 0;
+        for (int i = 0; i < string.length(); i++) {
+            char c = string.charAt(i);
+            if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < string.length()
+                    && Character.isLowSurrogate(string.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                length += 1;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    private static String readString(ByteBuffer buffer) throws IOException {
+        long length = readVarLong(buffer);
+        if (length > buffer.remaining()) {
+            throw truncated();
+        }
+        int size = (int) length;
+        String string;
+        if (buffer.hasArray()) {
+            string = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), size, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + size);
+        } else {
+            byte[] bytes = new byte[size];
+            buffer.get(bytes);
+            string = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return string;
+    }
+
+    static int sizeOfVarLong(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    static void writeVarLong(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    static long readVarLong(ByteBuffer buffer) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Invalid variable-length integer.");
+    }
+
+    private static EOFException truncated() {
+        return new EOFException("The data is truncated.");
+    }
+}
@@ -0,0 +1,88 @@
+package com.regexsolver.api;
+
+import java.util.function.LongSupplier;
+
+/**
+ * The circuit breaker of an endpoint, see {@link ResiliencePolicy}.
+ */
+final class CircuitBreaker {
+    private enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openDurationNanos;
+    private final LongSupplier nanoTime;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures = 0;
+    private long openedAt;
+    private boolean probing = false;
+
+    CircuitBreaker(ResiliencePolicy policy) {
+        this(policy, System::nanoTime);
+    }
+
+    CircuitBreaker(ResiliencePolicy policy, LongSupplier nanoTime) {
+        this.failureThreshold = policy.getFailureThreshold();
+        this.openDurationNanos = policy.getOpenDurationNanos();
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * @return true if a request may be sent, false if it has to fail fast. A request that was let through has to
+     * report its outcome with {@link #onSuccess()}, {@link #onFailure()} or {@link #onCancel()}.
+     */
+    synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (nanoTime.getAsLong() - openedAt < openDurationNanos) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                probing = false;
+                return tryProbe();
+            default:
+                return tryProbe();
+        }
+    }
+
+    /**
+     * @return true if no probe of the half-open circuit breaker is in flight, in which case this request is the probe.
+     */
+    private boolean tryProbe() {
+        if (probing) {
+            return false;
+        }
+        probing = true;
+        return true;
+    }
+
+    synchronized void onSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        probing = false;
+    }
+
+    synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || (failureThreshold > 0 && consecutiveFailures >= failureThreshold)) {
+            state = State.OPEN;
+            openedAt = nanoTime.getAsLong();
+        }
+        probing = false;
+    }
+
+    /**
+     * Release the probe of a half-open circuit breaker whose request was cancelled.
+     */
+    synchronized void onCancel() {
+        probing = false;
+    }
+
+    synchronized boolean isOpen() {
+        return state == State.OPEN;
+    }
+}
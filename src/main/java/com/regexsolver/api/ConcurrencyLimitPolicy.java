@@ -0,0 +1,159 @@
+package com.regexsolver.api;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * How many requests can be in flight against the API, adapting to how loaded it is.
+ * <p>
+ * The limit grows by one for each limit's worth of successful requests sent while at least half of the limit is in
+ * use. It is multiplied by the backoff ratio when a request is rejected by the API, times out, or takes more than the
+ * latency tolerance times the latency of the API when it is not loaded, at most once per round trip. The requests over
+ * the limit wait for a slot, up to the maximum wait after which they fail with a
+ * {@link com.regexsolver.api.exception.ConcurrencyLimitException}.
+ * </p>
+ * <pre>{@code
+ * RegexSolver.setConcurrencyLimitPolicy(ConcurrencyLimitPolicy.builder()
+ *         .initialLimit(10)
+ *         .maxLimit(100)
+ *         .build());
+ * }</pre>
+ */
+public final class ConcurrencyLimitPolicy {
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double latencyTolerance;
+    private final long maxWaitNanos;
+
+    private ConcurrencyLimitPolicy(Builder builder) {
+        this.initialLimit = builder.initialLimit;
+        this.minLimit = builder.minLimit;
+        this.maxLimit = builder.maxLimit;
+        this.backoffRatio = builder.backoffRatio;
+        this.latencyTolerance = builder.latencyTolerance;
+        this.maxWaitNanos = builder.maxWait.toNanos();
+    }
+
+    /**
+     * @return A new builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    int getInitialLimit() {
+        return initialLimit;
+    }
+
+    int getMinLimit() {
+        return minLimit;
+    }
+
+    int getMaxLimit() {
+        return maxLimit;
+    }
+
+    double getBackoffRatio() {
+        return backoffRatio;
+    }
+
+    double getLatencyTolerance() {
+        return latencyTolerance;
+    }
+
+    long getMaxWaitNanos() {
+        return maxWaitNanos;
+    }
+
+    /**
+     * Builder of {@link ConcurrencyLimitPolicy}.
+     */
+    public static final class Builder {
+        private int initialLimit = 20;
+        private int minLimit = 1;
+        private int maxLimit = 200;
+        private double backoffRatio = 0.9;
+        private double latencyTolerance = 2;
+        private Duration maxWait = Duration.ofSeconds(30);
+
+        private Builder() {
+        }
+
+        /**
+         * @param initialLimit The number of requests allowed in flight before any latency is observed. 20 by default.
+         * @return This builder.
+         */
+        public Builder initialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+            return this;
+        }
+
+        /**
+         * @param minLimit The minimum number of requests allowed in flight. 1 by default.
+         * @return This builder.
+         */
+        public Builder minLimit(int minLimit) {
+            this.minLimit = minLimit;
+            return this;
+        }
+
+        /**
+         * @param maxLimit The maximum number of requests allowed in flight. 200 by default.
+         * @return This builder.
+         */
+        public Builder maxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+            return this;
+        }
+
+        /**
+         * @param backoffRatio The ratio the limit is multiplied by when the API is overloaded, between 0 and 1.
+         *                     0.9 by default.
+         * @return This builder.
+         */
+        public Builder backoffRatio(double backoffRatio) {
+            if (!(backoffRatio > 0 && backoffRatio < 1)) {
+                throw new IllegalArgumentException("The backoff ratio must be between 0 and 1.");
+            }
+            this.backoffRatio = backoffRatio;
+            return this;
+        }
+
+        /**
+         * @param latencyTolerance How many times slower than when it is not loaded the API can be before being
+         *                         considered overloaded, at least 1. 2 by default.
+         * @return This builder.
+         */
+        public Builder latencyTolerance(double latencyTolerance) {
+            if (!(latencyTolerance >= 1)) {
+                throw new IllegalArgumentException("The latency tolerance must be at least 1.");
+            }
+            this.latencyTolerance = latencyTolerance;
+            return this;
+        }
+
+        /**
+         * @param maxWait The maximum time a request waits for the limit to let it through. 30 seconds by default.
+         * @return This builder.
+         */
+        public Builder maxWait(Duration maxWait) {
+            this.maxWait = Objects.requireNonNull(maxWait);
+            return this;
+        }
+
+        /**
+         * @return The policy.
+         */
+        public ConcurrencyLimitPolicy build() {
+            if (minLimit < 1 || minLimit > maxLimit) {
+                throw new IllegalArgumentException("The minimum limit must be between 1 and the maximum limit.");
+            }
+            if (initialLimit < minLimit || initialLimit > maxLimit) {
+                throw new IllegalArgumentException("The initial limit must be between the minimum and maximum limits.");
+            }
+            return new ConcurrencyLimitPolicy(this);
+        }
+    }
+}
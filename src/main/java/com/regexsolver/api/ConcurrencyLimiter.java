@@ -0,0 +1,309 @@
+package com.regexsolver.api;
+
+import com.regexsolver.api.exception.ConcurrencyLimitException;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Limit the number of requests in flight against the API according to a {@link ConcurrencyLimitPolicy},
+ * growing the limit additively while the API is healthy and shrinking it multiplicatively when it is overloaded.
+ * <p>
+ * The latency of the API when it is not loaded is estimated as the minimum observed latency, slowly drifting upwards
+ * so that it follows lasting changes.
+ * </p>
+ * <p>
+ * A synchronous call waits for the limit on the calling thread, see {@link #execute(Call)}. An asynchronous call is
+ * only handed to the HTTP client once the limit lets it through, see {@link #enqueue(Call, Callback)}, so that it does
+ * not hold a thread of the dispatcher while waiting.
+ * </p>
+ */
+final class ConcurrencyLimiter {
+    /**
+     * How often a waiting request checks whether its call was cancelled.
+     */
+    private static final long CANCEL_CHECK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final double BASELINE_DRIFT = 0.01;
+
+    private final ConcurrencyLimitPolicy policy;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private final Queue<CompletableFuture<Void>> waiting = new ArrayDeque<>();
+
+    private double limit;
+    private int inFlight = 0;
+    private double baselineNanos = -1;
+    private long lastDecreaseNanos = Long.MIN_VALUE;
+
+    ConcurrencyLimiter(ConcurrencyLimitPolicy policy) {
+        this.policy = policy;
+        this.limit = policy.getInitialLimit();
+    }
+
+    /**
+     * Execute the given call on the calling thread once the limit lets it through.
+     */
+    <T> Response<T> execute(Call<T> call) throws IOException {
+        acquire(call::isCanceled);
+        long start = System.nanoTime();
+        Response<T> response = null;
+        try {
+            response = call.execute();
+            return response;
+        } finally {
+            release(call, start, response);
+        }
+    }
+
+    /**
+     * Enqueue the given call once the limit lets it through, without blocking any thread while waiting.
+     * The callback is notified of a {@link ConcurrencyLimitException} if the call waits too long.
+     */
+    <T> void enqueue(Call<T> call, Callback<T> callback) {
+        acquireAsync().whenComplete((ignored, throwable) -> {
+            if (throwable != null) {
+                callback.onFailure(call, throwable);
+                return;
+            }
+            if (call.isCanceled()) {
+                release();
+                callback.onFailure(call, new IOException("Canceled"));
+                return;
+            }
+            long start = System.nanoTime();
+            call.enqueue(new Callback<>() {
+                @Override
+                public void onResponse(Call<T> call, Response<T> response) {
+                    release(call, start, response);
+                    callback.onResponse(call, response);
+                }
+
+                @Override
+                public void onFailure(Call<T> call, Throwable throwable) {
+                    release(call, start, null);
+                    callback.onFailure(call, throwable);
+                }
+            });
+        });
+    }
+
+    int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Wait for the limit to let a new request through.
+     *
+     * @param canceled Whether the request was cancelled while waiting.
+     */
+    void acquire(BooleanSupplier canceled) throws IOException {
+        long deadline = System.nanoTime() + policy.getMaxWaitNanos();
+        lock.lock();
+        try {
+            // The asynchronous calls already waiting go first.
+            while (inFlight >= (int) limit || !waiting.isEmpty()) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new ConcurrencyLimitException((int) limit);
+                }
+                if (canceled.getAsBoolean()) {
+                    throw new IOException("Canceled");
+                }
+                released.awaitNanos(Math.min(remaining, CANCEL_CHECK_NANOS));
+            }
+            inFlight++;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the concurrency limit.");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return A future completed once the limit lets a new request through, or failed with a
+     * {@link ConcurrencyLimitException} if it waits too long.
+     */
+    CompletableFuture<Void> acquireAsync() {
+        CompletableFuture<Void> permit = new CompletableFuture<>();
+        lock.lock();
+        try {
+            if (waiting.isEmpty() && inFlight < (int) limit) {
+                inFlight++;
+                permit.complete(null);
+                return permit;
+            }
+            waiting.add(permit);
+        } finally {
+            lock.unlock();
+        }
+        permit.whenComplete((ignored, throwable) -> {
+            if (permit.isCancelled()) {
+                lock.lock();
+                try {
+                    waiting.remove(permit);
+                    released.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        });
+        CompletableFuture.delayedExecutor(policy.getMaxWaitNanos(), TimeUnit.NANOSECONDS).execute(() -> {
+            int currentLimit;
+            lock.lock();
+            try {
+                if (!waiting.remove(permit)) {
+                    return;
+                }
+                currentLimit = (int) limit;
+                released.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            permit.completeExceptionally(new ConcurrencyLimitException(currentLimit));
+        });
+        return permit;
+    }
+
+    /**
+     * Release a slot without adapting the limit, the request having been cancelled.
+     */
+    void release() {
+        List<CompletableFuture<Void>> granted;
+        lock.lock();
+        try {
+            inFlight--;
+            granted = grant();
+            released.signal();
+        } finally {
+            lock.unlock();
+        }
+        complete(granted);
+    }
+
+    /**
+     * Hand the free slots to the asynchronous calls waiting, in order.
+     *
+     * @return The permits to complete once the lock is released.
+     */
+    private List<CompletableFuture<Void>> grant() {
+        List<CompletableFuture<Void>> granted = new ArrayList<>();
+        while (inFlight < (int) limit && !waiting.isEmpty()) {
+            CompletableFuture<Void> permit = waiting.poll();
+            if (!permit.isDone()) {
+                inFlight++;
+                granted.add(permit);
+            }
+        }
+        return granted;
+    }
+
+    private void complete(List<CompletableFuture<Void>> granted) {
+        for (CompletableFuture<Void> permit : granted) {
+            // A permit cancelled in the meantime gives its slot back.
+            if (!permit.complete(null)) {
+                release();
+            }
+        }
+    }
+
+    /**
+     * Release the slot of the given call once it completed.
+     * <p>
+     * The latency is the one of the HTTP exchange, as recorded by the HTTP client, so that neither the time spent
+     * waiting for a thread of the dispatcher nor the one spent decoding the response body is counted.
+     * </p>
+     *
+     * @param startNanos The time the call was handed to the HTTP client.
+     * @param response   The response, or null if the call failed.
+     */
+    private void release(Call<?> call, long startNanos, Response<?> response) {
+        if (call.isCanceled()) {
+            release();
+            return;
+        }
+        long endNanos = System.nanoTime();
+        if (response == null) {
+            release(startNanos, endNanos, true);
+            return;
+        }
+        okhttp3.Response raw = response.raw();
+        // The HTTP client records the exchange in milliseconds, a faster exchange counts as one millisecond.
+        long latencyNanos = TimeUnit.MILLISECONDS.toNanos(
+                Math.max(1, raw.receivedResponseAtMillis() - raw.sentRequestAtMillis()));
+        release(Math.max(startNanos, endNanos - latencyNanos), endNanos, isOverloaded(response.code()));
+    }
+
+    /**
+     * Release a slot and adapt the limit to the outcome of the request.
+     *
+     * @param startNanos The time the request was sent.
+     * @param endNanos   The time the response headers were received, or the request failed.
+     * @param overloaded true if the API rejected the request, or if the request failed.
+     */
+    void release(long startNanos, long endNanos, boolean overloaded) {
+        long latencyNanos = endNanos - startNanos;
+        List<CompletableFuture<Void>> granted;
+        lock.lock();
+        try {
+            int previousInFlight = inFlight--;
+            if (!overloaded) {
+                if (baselineNanos < 0 || latencyNanos < baselineNanos) {
+                    baselineNanos = latencyNanos;
+                } else {
+                    baselineNanos += (latencyNanos - baselineNanos) * BASELINE_DRIFT;
+                }
+                overloaded = latencyNanos > baselineNanos * policy.getLatencyTolerance();
+            }
+
+            if (overloaded) {
+                // The requests sent before the last decrease do not reflect the current limit.
+                if (startNanos - lastDecreaseNanos >= 0 || lastDecreaseNanos == Long.MIN_VALUE) {
+                    limit = Math.max(policy.getMinLimit(), limit * policy.getBackoffRatio());
+                    lastDecreaseNanos = endNanos;
+                }
+            } else if (previousInFlight * 2 >= limit) {
+                // Grow by one for each limit's worth of successful requests, and only when the limit is actually used.
+                limit = Math.min(policy.getMaxLimit(), limit + 1 / limit);
+            }
+            granted = grant();
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        complete(granted);
+    }
+
+    /**
+     * @return true if the given status code means that the API is overloaded.
+     */
+    private static boolean isOverloaded(int statusCode) {
+        return statusCode == 408 || statusCode == 429 || statusCode == 503 || statusCode == 504;
+    }
+}
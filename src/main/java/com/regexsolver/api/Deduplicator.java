@@ -0,0 +1,254 @@
+package com.regexsolver.api;
+
+import com.regexsolver.api.Request.MultiTermsRequest;
+import com.regexsolver.api.dto.Cardinality;
+import com.regexsolver.api.dto.Details;
+import com.regexsolver.api.dto.EquivalenceClass;
+import com.regexsolver.api.exception.ApiError;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+/**
+ * Group many {@link Term} into classes of terms matching the same set of strings.
+ * <p>
+ * The terms are first bucketed by their {@link Details}, along with the strings they match when there are only a few
+ * of them: terms in different buckets cannot be equivalent. Within a bucket, the first remaining term is compared with
+ * all the others at once, the ones equivalent to it forming its class, so a bucket takes one round trip per class it
+ * holds rather than one per term. The buckets are processed concurrently with a bounded number of requests in flight.
+ * A catalogue made of many small buckets thus takes about one request per term instead of one per pair of terms.
+ * </p>
+ * <pre>{@code
+ * for (EquivalenceClass equivalenceClass : new Deduplicator(32).deduplicate(catalogue)) {
+ *     System.out.println(equivalenceClass.getRepresentative() + " replaces " + equivalenceClass.getTerms());
+ * }
+ * }</pre>
+ */
+public final class Deduplicator {
+    /**
+     * The maximum number of strings matched by a term for them to be generated and used to bucket it: such a term is
+     * only equivalent to the terms generating the same strings.
+     */
+    static final int ENUMERATION_LIMIT = 32;
+
+    private final RegexSolverClient client;
+    private final Executor executor;
+    private final int maxInFlight;
+
+    /**
+     * Create a new instance using the default client.
+     *
+     * @param maxInFlight The maximum number of requests in flight at the same time.
+     */
+    public Deduplicator(int maxInFlight) {
+        this(null, ForkJoinPool.commonPool(), maxInFlight);
+    }
+
+    /**
+     * Create a new instance.
+     *
+     * @param client      The client to use, or {@code null} to use the default client.
+     * @param executor    The executor bucketing the terms once their details are known.
+     * @param maxInFlight The maximum number of requests in flight at the same time.
+     */
+    public Deduplicator(RegexSolverClient client, Executor executor, int maxInFlight) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("The maximum number of requests in flight must be positive.");
+        }
+        this.client = client;
+        this.executor = Objects.requireNonNull(executor);
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Group the given terms into equivalence classes, blocking until all of them are compared.
+     *
+     * @param terms The terms to group.
+     * @return The equivalence classes, in the order their first term appears in the given terms. The representative of
+     * each class is its term with the shortest serialized form.
+     * @throws IOException In case of issues requesting the API server.
+     * @throws ApiError    In case of error returned by the API.
+     */
+    public List<EquivalenceClass> deduplicate(Collection<? extends Term> terms) throws IOException, ApiError {
+        CompletableFuture<List<EquivalenceClass>> future = deduplicateAsync(terms);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while deduplicating the terms.");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof ApiError) {
+                throw (ApiError) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Group the given terms into equivalence classes without blocking the calling thread.
+     * Cancelling the returned future cancels the requests not yet completed.
+     *
+     * @param terms The terms to group.
+     * @return A future completed with the equivalence classes, in the order their first term appears in the given
+     * terms, or with the first error encountered. The representative of each class is its term with the shortest
+     * serialized form.
+     */
+    public CompletableFuture<List<EquivalenceClass>> deduplicateAsync(Collection<? extends Term> terms) {
+        RegexSolverApiWrapper wrapper = client != null ? client.getWrapper() : RegexSolverApiWrapper.getInstance();
+        RequestWindow window = new RequestWindow(maxInFlight);
+        List<Term> distinct = new ArrayList<>(new LinkedHashSet<>(terms));
+        CompletableFuture<List<EquivalenceClass>> result = new CompletableFuture<>();
+        List<CompletableFuture<Fingerprint>> fingerprints = new ArrayList<>(distinct.size());
+        for (Term term : distinct) {
+            fingerprints.add(failFast(fingerprint(wrapper, window, term), result));
+        }
+
+        CompletableFuture.allOf(fingerprints.toArray(CompletableFuture<?>[]::new)).thenRunAsync(() -> {
+            Map<Fingerprint, List<Term>> buckets = new LinkedHashMap<>();
+            for (int i = 0; i < distinct.size(); i++) {
+                buckets.computeIfAbsent(fingerprints.get(i).join(), key -> new ArrayList<>()).add(distinct.get(i));
+            }
+            List<CompletableFuture<List<List<Term>>>> partitions = new ArrayList<>(buckets.size());
+            buckets.forEach((fingerprint, bucket) -> partitions.add(fingerprint.isExact()
+                    ? CompletableFuture.completedFuture(List.of(bucket))
+                    : failFast(partition(wrapper, window, bucket, new ArrayList<>()), result)));
+            CompletableFuture.allOf(partitions.toArray(CompletableFuture<?>[]::new))
+                    .thenRun(() -> result.complete(toClasses(distinct, partitions)));
+        }, executor).whenComplete((ignored, throwable) -> {
+            if (throwable != null) {
+                result.completeExceptionally(RequestWindow.unwrap(throwable));
+            }
+        });
+        result.whenComplete((value, throwable) -> {
+            if (throwable != null) {
+                window.cancel();
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Fail the given result as soon as the given step fails, without waiting for the other steps to complete.
+     */
+    private static <T> CompletableFuture<T> failFast(CompletableFuture<T> step, CompletableFuture<?> result) {
+        step.whenComplete((value, throwable) -> {
+            if (throwable != null) {
+                result.completeExceptionally(RequestWindow.unwrap(throwable));
+            }
+        });
+        return step;
+    }
+
+    private static CompletableFuture<Fingerprint> fingerprint(RegexSolverApiWrapper wrapper, RequestWindow window, Term term) {
+        return window.launch(() -> term.getDetailsAsync(wrapper)).thenCompose(details -> {
+            Cardinality cardinality = details.getCardinality();
+            if (!details.isEmpty() && cardinality instanceof Cardinality.Integer
+                    && ((Cardinality.Integer) cardinality).getCount() <= ENUMERATION_LIMIT) {
+                int count = (int) ((Cardinality.Integer) cardinality).getCount();
+                return window.launch(() -> wrapper.generateStringsAsync(term, count))
+                        .thenApply(strings -> new Fingerprint(details, new TreeSet<>(strings)));
+            }
+            return CompletableFuture.completedFuture(new Fingerprint(details, null));
+        });
+    }
+
+    /**
+     * Split the remaining terms of a bucket into equivalence classes, comparing the first of them with all the others
+     * concurrently: the terms equivalent to it form its class and the others are split the same way afterward.
+     */
+    private static CompletableFuture<List<List<Term>>> partition(RegexSolverApiWrapper wrapper, RequestWindow window,
+                                                                 List<Term> remaining, List<List<Term>> classes) {
+        if (remaining.isEmpty()) {
+            return CompletableFuture.completedFuture(classes);
+        }
+        Term first = remaining.get(0);
+        List<CompletableFuture<Boolean>> comparisons = new ArrayList<>(remaining.size() - 1);
+        for (Term term : remaining.subList(1, remaining.size())) {
+            MultiTermsRequest request = new MultiTermsRequest(List.of(first, term));
+            comparisons.add(window.launch(() -> wrapper.equivalenceAsync(request)));
+        }
+        return CompletableFuture.allOf(comparisons.toArray(CompletableFuture<?>[]::new)).thenCompose(ignored -> {
+            List<Term> equivalenceClass = new ArrayList<>(List.of(first));
+            List<Term> others = new ArrayList<>();
+            for (int i = 0; i < comparisons.size(); i++) {
+                if (comparisons.get(i).join()) {
+                    equivalenceClass.add(remaining.get(i + 1));
+                } else {
+                    others.add(remaining.get(i + 1));
+                }
+            }
+            classes.add(equivalenceClass);
+            return partition(wrapper, window, others, classes);
+        });
+    }
+
+    private static List<EquivalenceClass> toClasses(List<Term> distinct, List<CompletableFuture<List<List<Term>>>> partitions) {
+        Map<Term, Integer> order = new HashMap<>();
+        for (int i = 0; i < distinct.size(); i++) {
+            order.put(distinct.get(i), i);
+        }
+        List<EquivalenceClass> classes = partitions.stream()
+                .flatMap(partition -> partition.join().stream())
+                .sorted(Comparator.comparing(equivalenceClass -> order.get(equivalenceClass.get(0))))
+                .map(equivalenceClass -> new EquivalenceClass(equivalenceClass.stream()
+                        .min(Comparator.comparingInt(term -> term.serialize().length()))
+                        .orElseThrow(), equivalenceClass))
+                .collect(Collectors.toList());
+        return Collections.unmodifiableList(classes);
+    }
+
+    /**
+     * Terms with different fingerprints cannot be equivalent. The fingerprint is exact, all the terms sharing it being
+     * equivalent, when it holds every string matched, or when the terms match nothing or everything.
+     */
+    private static final class Fingerprint {
+        private final Details details;
+        private final Set<String> strings;
+
+        private Fingerprint(Details details, Set<String> strings) {
+            this.details = details;
+            this.strings = strings;
+        }
+
+        private boolean isExact() {
+            return strings != null || details.isEmpty() || details.isTotal();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) return true;
+            if (obj == null || obj.getClass() != this.getClass()) return false;
+            var that = (Fingerprint) obj;
+            return Objects.equals(this.details, that.details) &&
+                    Objects.equals(this.strings, that.strings);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(details, strings);
+        }
+    }
+}
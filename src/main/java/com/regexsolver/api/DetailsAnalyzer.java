@@ -0,0 +1,46 @@
+package com.regexsolver.api;
+
+import com.regexsolver.api.dto.Cardinality;
+import com.regexsolver.api.dto.Details;
+import com.regexsolver.api.dto.Length;
+
+/**
+ * Compute the {@link Details} of {@link SimpleRegex} in-process.
+ * <p>
+ * The number of matched strings is counted on the deterministic automaton of the expression, so that ambiguous
+ * patterns such as {@code a?a} are counted exactly.
+ * {@link #analyze(Term)} returns {@code null} for any other term, and when the result is too large to be computed
+ * locally, in which case the details have to be requested from the API.
+ * </p>
+ */
+final class DetailsAnalyzer {
+    private DetailsAnalyzer() {
+    }
+
+    /**
+     * @return The details of the given term, or {@code null} if they cannot be computed locally.
+     */
+    static Details analyze(Term term) {
+        SimpleRegex regex = SimpleRegex.of(term);
+        if (regex == null) {
+            return null;
+        }
+        long minimum = regex.getMinimumLength();
+        long maximum = regex.getMaximumLength();
+        if (maximum < 0) {
+            return new Details(Cardinality.Infinite.INSTANCE, Length.of(minimum, null), false, false);
+        }
+
+        SimpleRegex.Automaton automaton = regex.automaton(0);
+        if (automaton == null) {
+            return null;
+        }
+        long count;
+        try {
+            count = automaton.count();
+        } catch (ArithmeticException | IllegalStateException e) {
+            return null;
+        }
+        return new Details(new Cardinality.Integer(count), Length.of(minimum, maximum), false, false);
+    }
+}
@@ -0,0 +1,155 @@
+package com.regexsolver.api;
+
+import com.regexsolver.api.dto.Cardinality;
+import com.regexsolver.api.dto.Details;
+import com.regexsolver.api.dto.Length;
+import com.regexsolver.api.dto.PrecheckStats;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Decide subset and equivalence operations from the details already known of their operands, without requesting the
+ * API. Only definite answers are given, everything else is left to the API.
+ */
+final class DetailsPrecheck {
+    private final AtomicLong subsetHitCount = new AtomicLong();
+    private final AtomicLong subsetMissCount = new AtomicLong();
+    private final AtomicLong equivalenceHitCount = new AtomicLong();
+    private final AtomicLong equivalenceMissCount = new AtomicLong();
+
+    /**
+     * @param terms        The operands of the subset operation.
+     * @param knownDetails Return the details of a term if they are known, {@code null} otherwise.
+     * @return Whether the first term is a subset of the second one, or {@code null} if it cannot be decided locally.
+     */
+    Boolean subset(List<Term> terms, Function<Term, Details> knownDetails) {
+        Boolean result = null;
+        if (terms.size() == 2) {
+            result = subset(knownDetails.apply(terms.get(0)), knownDetails.apply(terms.get(1)));
+        }
+        (result != null ? subsetHitCount : subsetMissCount).incrementAndGet();
+        return result;
+    }
+
+    /**
+     * @param terms        The operands of the equivalence operation.
+     * @param knownDetails Return the details of a term if they are known, {@code null} otherwise.
+     * @return Whether all the terms are equivalent, or {@code null} if it cannot be decided locally.
+     */
+    Boolean equivalence(List<Term> terms, Function<Term, Details> knownDetails) {
+        List<Details> known = new ArrayList<>(terms.size());
+        for (Term term : terms) {
+            Details details = knownDetails.apply(term);
+            if (details != null) {
+                known.add(details);
+            }
+        }
+        Boolean result = equivalence(known, known.size() == terms.size());
+        (result != null ? equivalenceHitCount : equivalenceMissCount).incrementAndGet();
+        return result;
+    }
+
+    PrecheckStats getStats() {
+        return new PrecheckStats(subsetHitCount.get(), subsetMissCount.get(),
+                equivalenceHitCount.get(), equivalenceMissCount.get());
+    }
+
+    /**
+     * @param left  The details of the candidate subset, or {@code null} if unknown.
+     * @param right The details of the candidate superset, or {@code null} if unknown.
+     * @return Whether the left term is a subset of the right one, or {@code null} if it cannot be decided.
+     */
+    static Boolean subset(Details left, Details right) {
+        if (left != null && left.isEmpty() || right != null && right.isTotal()) {
+            return true;
+        }
+        if (left == null || right == null) {
+            return null;
+        }
+        // From here the left term matches at least one string the right term does not necessarily match.
+        if (right.isEmpty() || left.isTotal()) {
+            return false;
+        }
+        Length leftLength = left.getLength();
+        Length rightLength = right.getLength();
+        if (leftLength != null && rightLength != null) {
+            if (leftLength.getMinimum().isPresent() && rightLength.getMinimum().isPresent()
+                    && leftLength.getMinimum().getAsLong() < rightLength.getMinimum().getAsLong()) {
+                return false;
+            }
+            OptionalLong rightMaximum = rightLength.getMaximum();
+            OptionalLong leftMaximum = leftLength.getMaximum();
+            if (rightMaximum.isPresent() && (leftMaximum.isEmpty() || leftMaximum.getAsLong() > rightMaximum.getAsLong())) {
+                return false;
+            }
+        }
+        if (compare(left.getCardinality(), right.getCardinality()) > 0) {
+            return false;
+        }
+        return null;
+    }
+
+    /**
+     * @param known    The details known of the operands.
+     * @param complete Whether the details of all the operands are known.
+     * @return Whether the terms are equivalent, or {@code null} if it cannot be decided.
+     */
+    static Boolean equivalence(List<Details> known, boolean complete) {
+        for (int i = 0; i < known.size(); i++) {
+            for (int j = i + 1; j < known.size(); j++) {
+                if (distinguishable(known.get(i), known.get(j))) {
+                    return false;
+                }
+            }
+        }
+        if (complete && !known.isEmpty()
+                && (known.stream().allMatch(Details::isEmpty) || known.stream().allMatch(Details::isTotal))) {
+            return true;
+        }
+        return null;
+    }
+
+    /**
+     * @return true if terms with the given details cannot be equivalent.
+     */
+    private static boolean distinguishable(Details left, Details right) {
+        if (left.isEmpty() != right.isEmpty() || left.isTotal() != right.isTotal()) {
+            return true;
+        }
+        if (left.isEmpty()) {
+            return false;
+        }
+        if (left.getLength() != null && right.getLength() != null && !left.getLength().equals(right.getLength())) {
+            return true;
+        }
+        int comparison = compare(left.getCardinality(), right.getCardinality());
+        return comparison != 0 && comparison != Integer.MIN_VALUE;
+    }
+
+    /**
+     * Compare two cardinalities when their order is known.
+     *
+     * @return A negative number, zero or a positive number if the left cardinality is lower, equal or greater than
+     * the right one, {@link Integer#MIN_VALUE} if their order is unknown.
+     */
+    private static int compare(Cardinality left, Cardinality right) {
+        if (left == null || right == null) {
+            return Integer.MIN_VALUE;
+        }
+        if (left instanceof Cardinality.Integer && right instanceof Cardinality.Integer) {
+            return Long.compare(((Cardinality.Integer) left).getCount(), ((Cardinality.Integer) right).getCount());
+        }
+        if (left.isFinite() != right.isFinite()) {
+            return left.isFinite() ? -1 : 1;
+        }
+        if (left instanceof Cardinality.Infinite && right instanceof Cardinality.Infinite) {
+            return 0;
+        }
+        return Integer.MIN_VALUE;
+    }
+}
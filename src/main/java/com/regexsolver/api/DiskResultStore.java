@@ -0,0 +1,339 @@
+package com.regexsolver.api;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * A persistent store of operation results, so that a restarted process can answer previously seen queries locally.
+ * <p>
+ * Once set with {@link RegexSolver#setDiskResultStore(DiskResultStore)}, the results of intersection, union,
+ * subtraction, equivalence, subset and details operations are looked up in this store before requesting the API,
+ * after the {@link ResultCache} if any.
+ * </p>
+ * <p>
+ * Results are appended to a single memory-mapped file. The mapping is grown by doubling its size up to the maximum
+ * size of the file, the space after the last record being filled with zeros. The file is indexed lazily on first
+ * access. Each record is protected by a checksum: a truncated or corrupted tail, for example after a crash, is
+ * dropped when the file is indexed. When the file would exceed its maximum size, it is compacted in place by keeping
+ * only the most recent records.
+ * </p>
+ */
+public final class DiskResultStore implements Closeable {
+    private static final int MAGIC = 0x52534443;
+    private static final int VERSION = 2;
+    private static final int FILE_HEADER_SIZE = 8;
+    private static final int RECORD_HEADER_SIZE = 12;
+
+    private final Path path;
+    private final long maximumSize;
+
+    private FileChannel channel;
+    private MappedByteBuffer mapped;
+    private long size;
+    private int recordCount;
+    private Map<Integer, long[]> index;
+
+    /**
+     * Create a new instance, the file is only opened on first access.
+     *
+     * @param path        The file in which the results are stored, created if it does not exist.
+     * @param maximumSize The maximum size of the file in bytes, at most {@link Integer#MAX_VALUE}.
+     */
+    public DiskResultStore(Path path, long maximumSize) {
+        if (maximumSize <= FILE_HEADER_SIZE || maximumSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("The maximum size must be between " + (FILE_HEADER_SIZE + 1)
+                    + " and " + Integer.MAX_VALUE + " bytes.");
+        }
+        this.path = path;
+        this.maximumSize = maximumSize;
+    }
+
+    synchronized Object get(OperationKey key) throws IOException {
+        ensureLoaded();
+        byte[] keyBytes = encodeKey(key);
+        long position = find(keyBytes);
+        if (position < 0) {
+            return null;
+        }
+        ByteBuffer record = mapped.duplicate();
+        int keyLength = record.getInt((int) position);
+        int valueLength = record.getInt((int) position + 4);
+        int valuePosition = (int) position + RECORD_HEADER_SIZE + keyLength;
+        record.position(valuePosition).limit(valuePosition + valueLength);
+        return BinaryCodec.read(record);
+    }
+
+    synchronized void put(OperationKey key, Object value) throws IOException {
+        ensureLoaded();
+        byte[] keyBytes = encodeKey(key);
+        if (find(keyBytes) >= 0) {
+            return;
+        }
+        byte[] valueBytes = encodeValue(value);
+        long recordSize = RECORD_HEADER_SIZE + (long) keyBytes.length + valueBytes.length;
+        if (FILE_HEADER_SIZE + recordSize > maximumSize / 2) {
+            // Would not survive a compaction.
+            return;
+        }
+        if (size + recordSize > maximumSize) {
+            compact(maximumSize / 2 - recordSize);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(keyBytes);
+        crc.update(valueBytes);
+
+        ensureCapacity(size + recordSize);
+        long position = size;
+        mapped.duplicate()
+                .position((int) position)
+                .putInt(keyBytes.length)
+                .putInt(valueBytes.length)
+                .putInt((int) crc.getValue())
+                .put(keyBytes)
+                .put(valueBytes);
+        size += recordSize;
+        addToIndex(keyBytes, position);
+    }
+
+    /**
+     * @return The number of results stored.
+     * @throws IOException In case of issues reading the file.
+     */
+    public synchronized int size() throws IOException {
+        ensureLoaded();
+        return recordCount;
+    }
+
+    /**
+     * Close the underlying file, it is opened again on next access.
+     *
+     * @throws IOException In case of issues closing the file.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+        channel = null;
+        mapped = null;
+        index = null;
+    }
+
+    private void ensureLoaded() throws IOException {
+        if (index != null) {
+            return;
+        }
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long fileSize = channel.size();
+
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+        if (fileSize < FILE_HEADER_SIZE || channel.read(header, 0) != FILE_HEADER_SIZE
+                || header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+            reset();
+            return;
+        }
+
+        mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+        size = fileSize;
+        indexRecords();
+        if (!isClear(size, Math.min(fileSize, size + RECORD_HEADER_SIZE))) {
+            // Drop everything from the first invalid record, it is most likely a partial write.
+            clear(size, fileSize);
+        }
+    }
+
+    /**
+     * Index the records up to the first invalid one, which becomes the end of the file.
+     */
+    private void indexRecords() {
+        index = new HashMap<>();
+        recordCount = 0;
+        long position = FILE_HEADER_SIZE;
+        while (position < size) {
+            long recordSize = validateRecord(position);
+            if (recordSize < 0) {
+                break;
+            }
+            byte[] keyBytes = new byte[mapped.getInt((int) position)];
+            mapped.duplicate().position((int) position + RECORD_HEADER_SIZE).get(keyBytes);
+            addToIndex(keyBytes, position);
+            position += recordSize;
+        }
+        size = position;
+    }
+
+    private void reset() throws IOException {
+        channel.truncate(0);
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE).putInt(MAGIC).putInt(VERSION).flip();
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+        size = FILE_HEADER_SIZE;
+        mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        index = new HashMap<>();
+        recordCount = 0;
+    }
+
+    /**
+     * @return The size of the record at the given position, or -1 if it is truncated or corrupted.
+     */
+    private long validateRecord(long position) {
+        if (size - position < RECORD_HEADER_SIZE) {
+            return -1;
+        }
+        int keyLength = mapped.getInt((int) position);
+        int valueLength = mapped.getInt((int) position + 4);
+        int checksum = mapped.getInt((int) position + 8);
+        if (keyLength <= 0 || valueLength < 0) {
+            return -1;
+        }
+        long recordSize = RECORD_HEADER_SIZE + (long) keyLength + valueLength;
+        if (size - position < recordSize) {
+            return -1;
+        }
+        ByteBuffer payload = mapped.duplicate();
+        payload.position((int) position + RECORD_HEADER_SIZE).limit((int) (position + recordSize));
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue() == checksum ? recordSize : -1;
+    }
+
+    private long find(byte[] keyBytes) {
+        long[] positions = index.get(Arrays.hashCode(keyBytes));
+        if (positions == null) {
+            return -1;
+        }
+        for (long position : positions) {
+            if (mapped.getInt((int) position) != keyBytes.length) {
+                continue;
+            }
+            ByteBuffer storedKey = mapped.duplicate();
+            storedKey.position((int) position + RECORD_HEADER_SIZE).limit((int) position + RECORD_HEADER_SIZE + keyBytes.length);
+            if (storedKey.equals(ByteBuffer.wrap(keyBytes))) {
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    private void addToIndex(byte[] keyBytes, long position) {
+        index.merge(Arrays.hashCode(keyBytes), new long[]{position}, (existing, added) -> {
+            long[] merged = Arrays.copyOf(existing, existing.length + 1);
+            merged[existing.length] = position;
+            return merged;
+        });
+        recordCount++;
+    }
+
+    /**
+     * Grow the mapping, and the file with it, if it cannot hold the given number of bytes.
+     * Its size is doubled so that appending records only remaps the file a logarithmic number of times.
+     */
+    private void ensureCapacity(long required) throws IOException {
+        if (required <= mapped.capacity()) {
+            return;
+        }
+        long capacity = Math.min(maximumSize, Math.max(required, 2L * mapped.capacity()));
+        mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+
+    private boolean isClear(long from, long to) {
+        for (long position = from; position < to; position++) {
+            if (mapped.get((int) position) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Fill the given range of the file with zeros, so that it is not read as records once the file is indexed again.
+     */
+    private void clear(long from, long to) {
+        ByteBuffer region = mapped.duplicate();
+        region.position((int) from).limit((int) to);
+        byte[] zeros = new byte[(int) Math.min(to - from, 8192)];
+        while (region.hasRemaining()) {
+            region.put(zeros, 0, Math.min(zeros.length, region.remaining()));
+        }
+    }
+
+    /**
+     * Rewrite the file in place keeping only the most recent records that fit in the given number of bytes.
+     * Records are only moved towards the start of the file, so an interrupted compaction leaves the records already
+     * moved followed by a tail that is dropped from its first invalid record, like a partial write.
+     */
+    private void compact(long targetSize) {
+        List<Long> positions = new ArrayList<>(recordCount);
+        for (long[] bucket : index.values()) {
+            for (long position : bucket) {
+                positions.add(position);
+            }
+        }
+        positions.sort((a, b) -> Long.compare(b, a));
+
+        List<Long> kept = new ArrayList<>();
+        long keptSize = FILE_HEADER_SIZE;
+        for (long position : positions) {
+            long recordSize = RECORD_HEADER_SIZE + (long) mapped.getInt((int) position) + mapped.getInt((int) position + 4);
+            if (keptSize + recordSize > targetSize) {
+                break;
+            }
+            kept.add(position);
+            keptSize += recordSize;
+        }
+        kept.sort(Long::compare);
+
+        long destination = FILE_HEADER_SIZE;
+        for (long position : kept) {
+            long recordSize = RECORD_HEADER_SIZE + (long) mapped.getInt((int) position) + mapped.getInt((int) position + 4);
+            if (position != destination) {
+                byte[] record = new byte[(int) recordSize];
+                mapped.duplicate().position((int) position).get(record);
+                mapped.duplicate().position((int) destination).put(record);
+            }
+            destination += recordSize;
+        }
+        clear(destination, size);
+        size = destination;
+        indexRecords();
+    }
+
+    private static byte[] encodeKey(OperationKey key) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        writeString(output, key.getOperation());
+        output.writeInt(key.getOperands().size());
+        for (String operand : key.getOperands()) {
+            writeString(output, operand);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] encodeValue(Object value) {
+        ByteBuffer buffer = ByteBuffer.allocate(BinaryCodec.sizeOf(value));
+        BinaryCodec.write(buffer, value);
+        return buffer.array();
+    }
+
+    private static void writeString(DataOutputStream output, String string) throws IOException {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+}
@@ -0,0 +1,194 @@
+package com.regexsolver.api;
+
+import com.regexsolver.api.TermExpression.Operator;
+import com.regexsolver.api.exception.ApiError;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+/**
+ * Evaluate many {@link TermExpression} at once as a single graph of operations.
+ * <p>
+ * Structurally identical sub-expressions, compared by their cached hash code and then their operands, are evaluated
+ * only once and shared by every expression that uses them. Independent branches are evaluated concurrently with a
+ * bounded number of requests in flight, so the evaluation takes about the latency of the longest chain of dependent
+ * operations.
+ * </p>
+ * <pre>{@code
+ * TermExpression allowed = Term.expr(allowlist).minus(denylist);
+ * List<TermExpression> policies = List.of(allowed.and(internal), allowed.and(external), allowed.or(admin));
+ * Map<TermExpression, Term> results = new ExpressionEvaluator(32).evaluate(policies);
+ * }</pre>
+ */
+public final class ExpressionEvaluator {
+    private final RegexSolverClient client;
+    private final Executor executor;
+    private final int maxInFlight;
+
+    /**
+     * Create a new instance using the default client.
+     *
+     * @param maxInFlight The maximum number of requests in flight at the same time.
+     */
+    public ExpressionEvaluator(int maxInFlight) {
+        this(null, ForkJoinPool.commonPool(), maxInFlight);
+    }
+
+    /**
+     * Create a new instance.
+     *
+     * @param client      The client to use, or {@code null} to use the default client.
+     * @param executor    The executor running the evaluation of the nodes once their operands are available.
+     * @param maxInFlight The maximum number of requests in flight at the same time.
+     */
+    public ExpressionEvaluator(RegexSolverClient client, Executor executor, int maxInFlight) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("The maximum number of requests in flight must be positive.");
+        }
+        this.client = client;
+        this.executor = Objects.requireNonNull(executor);
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Evaluate the given expressions, blocking until all of them are evaluated.
+     *
+     * @param expressions The expressions to evaluate.
+     * @return The resulting term of each expression, in the iteration order of the given expressions.
+     * @throws IOException In case of issues requesting the API server.
+     * @throws ApiError    In case of error returned by the API.
+     */
+    public Map<TermExpression, Term> evaluate(Collection<TermExpression> expressions) throws IOException, ApiError {
+        CompletableFuture<Map<TermExpression, Term>> future = evaluateAsync(expressions);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while evaluating the expressions.");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof ApiError) {
+                throw (ApiError) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Evaluate the given expressions without blocking the calling thread.
+     * The first error fails the evaluation right away and cancels the requests not yet completed, as does cancelling
+     * the returned future.
+     *
+     * @param expressions The expressions to evaluate.
+     * @return A future completed with the resulting term of each expression, in the iteration order of the given
+     * expressions, or with the first error encountered.
+     */
+    public CompletableFuture<Map<TermExpression, Term>> evaluateAsync(Collection<TermExpression> expressions) {
+        RegexSolverApiWrapper wrapper = client != null ? client.getWrapper() : RegexSolverApiWrapper.getInstance();
+        CompletableFuture<Map<TermExpression, Term>> result = new CompletableFuture<>();
+        Evaluation evaluation = new Evaluation(wrapper, result);
+        Map<TermExpression, CompletableFuture<Term>> roots = new LinkedHashMap<>();
+        for (TermExpression expression : expressions) {
+            roots.put(expression, evaluation.node(expression));
+        }
+
+        result.whenComplete((value, throwable) -> {
+            if (throwable != null) {
+                evaluation.cancel();
+            }
+        });
+        // Only completes the result once every root succeeded, a failing node completes it beforehand.
+        CompletableFuture.allOf(roots.values().toArray(CompletableFuture<?>[]::new)).thenRun(() -> {
+            Map<TermExpression, Term> terms = new LinkedHashMap<>();
+            roots.forEach((expression, future) -> terms.put(expression, future.join()));
+            result.complete(Collections.unmodifiableMap(terms));
+        });
+        return result;
+    }
+
+    /**
+     * @param expressions The expressions to evaluate.
+     * @return The number of requests needed to evaluate the given expressions together, identical sub-expressions
+     * being evaluated once.
+     */
+    public static int getRequestCount(Collection<TermExpression> expressions) {
+        Set<TermExpression> visited = new HashSet<>();
+        int count = 0;
+        List<TermExpression> stack = new ArrayList<>(expressions);
+        while (!stack.isEmpty()) {
+            TermExpression expression = stack.remove(stack.size() - 1);
+            if (expression.getOperator() == Operator.TERM || !visited.add(expression)) {
+                continue;
+            }
+            count += expression.getOwnRequestCount();
+            stack.addAll(expression.getOperands());
+        }
+        return count;
+    }
+
+    private final class Evaluation {
+        private final RegexSolverApiWrapper wrapper;
+        private final CompletableFuture<?> result;
+        private final Map<TermExpression, CompletableFuture<Term>> nodes = new HashMap<>();
+
+        private final RequestWindow window = new RequestWindow(maxInFlight);
+
+        private Evaluation(RegexSolverApiWrapper wrapper, CompletableFuture<?> result) {
+            this.wrapper = wrapper;
+            this.result = result;
+        }
+
+        /**
+         * Return the future of the given node, creating it along with the futures of its operands if it is not
+         * already part of the graph.
+         */
+        private CompletableFuture<Term> node(TermExpression expression) {
+            if (expression.getOperator() == Operator.TERM) {
+                return CompletableFuture.completedFuture(expression.getTerm());
+            }
+            CompletableFuture<Term> existing = nodes.get(expression);
+            if (existing != null) {
+                return existing;
+            }
+            List<CompletableFuture<Term>> operands = new ArrayList<>(expression.getOperands().size());
+            for (TermExpression operand : expression.getOperands()) {
+                operands.add(node(operand));
+            }
+            CompletableFuture<Term> future = CompletableFuture.allOf(operands.toArray(CompletableFuture<?>[]::new))
+                    .thenComposeAsync(ignored -> TermExpression.applyAsync(wrapper, expression.getOperator(),
+                            operands.stream().map(CompletableFuture::join).collect(Collectors.toList()),
+                            window::launch), executor);
+            future.whenComplete((value, throwable) -> {
+                if (throwable != null) {
+                    result.completeExceptionally(RequestWindow.unwrap(throwable));
+                }
+            });
+            nodes.put(expression, future);
+            return future;
+        }
+
+        private void cancel() {
+            window.cancel();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.regexsolver.api;
+
+import com.regexsolver.api.exception.ApiError;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Iterator;
+
+/**
+ * Iterate over the unique strings generated for a term, whether they come from the API or are generated locally.
+ */
+interface GeneratedStrings extends Iterator<String>, Closeable {
+    /**
+     * @return The next string, or null once all the strings have been returned.
+     */
+    String nextString() throws IOException, ApiError;
+}
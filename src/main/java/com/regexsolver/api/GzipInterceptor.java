@@ -0,0 +1,119 @@
+package com.regexsolver.api;
+
+import com.regexsolver.api.dto.CompressionStats;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.ForwardingSource;
+import okio.GzipSink;
+import okio.GzipSource;
+import okio.Okio;
+import okio.Source;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compress request bodies above a size threshold and decompress gzip-encoded responses,
+ * keeping track of the compression ratios.
+ * <p>
+ * Setting {@code Accept-Encoding} here disables the transparent decompression of OkHttp,
+ * so that the size of the response bodies can be measured before and after decompression.
+ * </p>
+ */
+final class GzipInterceptor implements Interceptor {
+    private static final String GZIP = "gzip";
+
+    private volatile int requestThreshold = -1;
+
+    private final LongAdder compressedRequestCount = new LongAdder();
+    private final LongAdder requestBytes = new LongAdder();
+    private final LongAdder compressedRequestBytes = new LongAdder();
+    private final LongAdder compressedResponseCount = new LongAdder();
+    private final LongAdder responseBytes = new LongAdder();
+    private final LongAdder compressedResponseBytes = new LongAdder();
+
+    /**
+     * @param requestThreshold The minimum size of the request bodies to compress, negative to never compress them.
+     */
+    void setRequestThreshold(int requestThreshold) {
+        this.requestThreshold = requestThreshold;
+    }
+
+    CompressionStats getStats() {
+        return new CompressionStats(
+                compressedRequestCount.sum(),
+                requestBytes.sum(),
+                compressedRequestBytes.sum(),
+                compressedResponseCount.sum(),
+                responseBytes.sum(),
+                compressedResponseBytes.sum()
+        );
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        Request.Builder requestBuilder = request.newBuilder()
+                .header("Accept-Encoding", GZIP);
+
+        RequestBody body = request.body();
+        int threshold = requestThreshold;
+        if (threshold >= 0 && body != null && request.header("Content-Encoding") == null
+                && body.contentLength() >= threshold) {
+            requestBuilder.header("Content-Encoding", GZIP)
+                    .method(request.method(), gzip(body));
+        }
+
+        Response response = chain.proceed(requestBuilder.build());
+        if (!GZIP.equalsIgnoreCase(response.header("Content-Encoding")) || response.body() == null) {
+            return response;
+        }
+
+        compressedResponseCount.increment();
+        ResponseBody compressed = response.body();
+        Source wire = new CountingSource(compressed.source(), compressedResponseBytes);
+        Source decompressed = new CountingSource(new GzipSource(wire), responseBytes);
+        return response.newBuilder()
+                .removeHeader("Content-Encoding")
+                .removeHeader("Content-Length")
+                .body(ResponseBody.create(compressed.contentType(), -1L, Okio.buffer(decompressed)))
+                .build();
+    }
+
+    /**
+     * Compress the body upfront, so that the request keeps a known content length.
+     */
+    private RequestBody gzip(RequestBody body) throws IOException {
+        Buffer compressed = new Buffer();
+        try (BufferedSink sink = Okio.buffer(new GzipSink(compressed))) {
+            body.writeTo(sink);
+        }
+        compressedRequestCount.increment();
+        requestBytes.add(body.contentLength());
+        compressedRequestBytes.add(compressed.size());
+        return RequestBody.create(body.contentType(), compressed.readByteString());
+    }
+
+    private static final class CountingSource extends ForwardingSource {
+        private final LongAdder counter;
+
+        private CountingSource(Source delegate, LongAdder counter) {
+            super(delegate);
+            this.counter = counter;
+        }
+
+        @Override
+        public long read(Buffer sink, long byteCount) throws IOException {
+            long read = super.read(sink, byteCount);
+            if (read > 0) {
+                counter.add(read);
+            }
+            return read;
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.regexsolver.api;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Send requests, hedging them according to a {@link HedgingPolicy}, see {@link #send(Call, Hedger, ConcurrencyLimiter)}.
+ */
+final class Hedger {
+    /**
+     * The budget is counted in thousandths of a hedge.
+     */
+    private static final long HEDGE_COST = 1000;
+
+    private final HedgingPolicy policy;
+    private final ConcurrentHashMap<String, LatencyTracker> trackers = new ConcurrentHashMap<>();
+    private final AtomicLong budget;
+    private final long budgetEarning;
+    private final long maxBudget;
+    private final LongAdder hedges = new LongAdder();
+
+    Hedger(HedgingPolicy policy) {
+        this.policy = policy;
+        this.maxBudget = policy.getMaxBurst() * HEDGE_COST;
+        this.budget = new AtomicLong(maxBudget);
+        this.budgetEarning = Math.round(policy.getBudget() * HEDGE_COST);
+    }
+
+    /**
+     * Enqueue the given call and expose its response as a future, hedging it if a hedger is given.
+     * <p>
+     * The future completes with the first successful response, or with the last outcome if every request failed.
+     * Once it is completed, including by being cancelled, the calls still in flight are cancelled.
+     * Each request, including the duplicates, waits for the given limiter if any.
+     * </p>
+     */
+    static <T> CompletableFuture<Response<T>> send(Call<T> call, Hedger hedger, ConcurrencyLimiter limiter) {
+        Exchange<T> exchange = new Exchange<>(hedger != null ? hedger.tracker(call) : null, limiter);
+        exchange.start(call);
+        if (hedger != null) {
+            hedger.scheduleHedge(exchange, call);
+        }
+        return exchange.result;
+    }
+
+    /**
+     * @return The number of duplicate requests sent so far.
+     */
+    long getHedgeCount() {
+        return hedges.sum();
+    }
+
+    private LatencyTracker tracker(Call<?> call) {
+        return trackers.computeIfAbsent(call.request().url().encodedPath(), endpoint -> new LatencyTracker());
+    }
+
+    private <T> void scheduleHedge(Exchange<T> exchange, Call<T> call) {
+        budget.getAndUpdate(value -> Math.min(maxBudget, value + budgetEarning));
+
+        long delay = exchange.tracker.percentileNanos(policy.getPercentile());
+        if (delay < 0) {
+            delay = policy.getInitialDelayNanos();
+        }
+        delay = Math.max(policy.getMinDelayNanos(), Math.min(policy.getMaxDelayNanos(), delay));
+
+        CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS).execute(() -> {
+            if (exchange.result.isDone() || !tryAcquireBudget()) {
+                return;
+            }
+            hedges.increment();
+            exchange.start(call.clone());
+        });
+    }
+
+    private boolean tryAcquireBudget() {
+        while (true) {
+            long current = budget.get();
+            if (current < HEDGE_COST) {
+                return false;
+            }
+            if (budget.compareAndSet(current, current - HEDGE_COST)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * The requests sent for a single call.
+     */
+    private static final class Exchange<T> {
+        private final CompletableFuture<Response<T>> result = new CompletableFuture<>();
+        private final LatencyTracker tracker;
+        private final List<Call<T>> calls = new ArrayList<>(2);
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicReference<Object> lastOutcome = new AtomicReference<>();
+        private final ConcurrencyLimiter limiter;
+
+        private Exchange(LatencyTracker tracker, ConcurrencyLimiter limiter) {
+            this.tracker = tracker;
+            this.limiter = limiter;
+            result.whenComplete((response, throwable) -> cancelAll());
+        }
+
+        private void start(Call<T> call) {
+            synchronized (calls) {
+                if (result.isDone()) {
+                    return;
+                }
+                calls.add(call);
+            }
+            pending.incrementAndGet();
+            long start = System.nanoTime();
+            Callback<T> callback = new Callback<>() {
+                @Override
+                public void onResponse(Call<T> call, Response<T> response) {
+                    settled(call);
+                    if (response.isSuccessful()) {
+                        if (tracker != null) {
+                            tracker.record(System.nanoTime() - start);
+                        }
+                        result.complete(response);
+                    } else {
+                        finish(response);
+                    }
+                }
+
+                @Override
+                public void onFailure(Call<T> call, Throwable throwable) {
+                    settled(call);
+                    finish(throwable);
+                }
+            };
+            if (limiter != null) {
+                limiter.enqueue(call, callback);
+            } else {
+                call.enqueue(callback);
+            }
+        }
+
+        /**
+         * Record an unsuccessful outcome, reported only if no other request is still in flight.
+         */
+        @SuppressWarnings("unchecked")
+        private void finish(Object outcome) {
+            Object previous = lastOutcome.getAndSet(outcome);
+            if (previous instanceof Response) {
+                closeQuietly((Response<T>) previous);
+            }
+            if (pending.decrementAndGet() == 0 && lastOutcome.compareAndSet(outcome, null)) {
+                if (outcome instanceof Throwable) {
+                    result.completeExceptionally((Throwable) outcome);
+                } else if (!result.complete((Response<T>) outcome)) {
+                    closeQuietly((Response<T>) outcome);
+                }
+            }
+        }
+
+        private void settled(Call<T> call) {
+            synchronized (calls) {
+                calls.remove(call);
+            }
+        }
+
+        /**
+         * Cancel the calls still in flight, leaving the settled ones untouched so that their outcome can be told
+         * apart from a cancellation.
+         */
+        private void cancelAll() {
+            List<Call<T>> toCancel;
+            synchronized (calls) {
+                toCancel = new ArrayList<>(calls);
+            }
+            for (Call<T> call : toCancel) {
+                call.cancel();
+            }
+        }
+
+        private static void closeQuietly(Response<?> response) {
+            if (response.errorBody() != null) {
+                response.errorBody().close();
+            }
+        }
+    }
+
+    /**
+     * The latencies recently observed for an endpoint, kept in a ring buffer.
+     */
+    static final class LatencyTracker {
+        private static final int CAPACITY = 512;
+        private static final int MIN_SAMPLES = 20;
+        private static final int RECOMPUTE_INTERVAL = 32;
+
+        private final long[] samples = new long[CAPACITY];
+        private int size = 0;
+        private int next = 0;
+        private int sinceComputed = 0;
+        private double computedPercentile = -1;
+        private long computed = -1;
+
+        synchronized void record(long latencyNanos) {
+            samples[next] = latencyNanos;
+            next = (next + 1) % CAPACITY;
+            size = Math.min(size + 1, CAPACITY);
+            sinceComputed++;
+        }
+
+        /**
+         * @return The given percentile of the recent latencies, or -1 if too few latencies have been observed.
+         */
+        synchronized long percentileNanos(double percentile) {
+            if (size < MIN_SAMPLES) {
+                return -1;
+            }
+            if (computed < 0 || sinceComputed >= RECOMPUTE_INTERVAL || computedPercentile != percentile) {
+                long[] sorted = Arrays.copyOf(samples, size);
+                Arrays.sort(sorted);
+                computed = sorted[Math.min(size - 1, (int) Math.ceil(percentile * size) - 1)];
+                computedPercentile = percentile;
+                sinceComputed = 0;
+            }
+            return computed;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.regexsolver.api;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * When duplicate requests are sent to cut the tail latency of the analyze and compute endpoints.
+ * <p>
+ * If a request has no response after the given percentile of the latencies recently observed for its endpoint, a
+ * duplicate request is sent and the first response is used, the other request being cancelled. The extra load is
+ * capped by a budget: each request earns a fraction of a hedge, and a hedge is only sent if a whole one is available.
+ * </p>
+ * <pre>{@code
+ * RegexSolver.setHedgingPolicy(HedgingPolicy.builder()
+ *         .percentile(0.95)
+ *         .budget(0.05)
+ *         .build());
+ * }</pre>
+ */
+public final class HedgingPolicy {
+    private final double percentile;
+    private final long initialDelayNanos;
+    private final long minDelayNanos;
+    private final long maxDelayNanos;
+    private final double budget;
+    private final int maxBurst;
+
+    private HedgingPolicy(Builder builder) {
+        this.percentile = builder.percentile;
+        this.initialDelayNanos = builder.initialDelay.toNanos();
+        this.minDelayNanos = builder.minDelay.toNanos();
+        this.maxDelayNanos = builder.maxDelay.toNanos();
+        this.budget = builder.budget;
+        this.maxBurst = builder.maxBurst;
+    }
+
+    /**
+     * @return A new builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    double getPercentile() {
+        return percentile;
+    }
+
+    long getInitialDelayNanos() {
+        return initialDelayNanos;
+    }
+
+    long getMinDelayNanos() {
+        return minDelayNanos;
+    }
+
+    long getMaxDelayNanos() {
+        return maxDelayNanos;
+    }
+
+    double getBudget() {
+        return budget;
+    }
+
+    int getMaxBurst() {
+        return maxBurst;
+    }
+
+    /**
+     * Builder of {@link HedgingPolicy}.
+     */
+    public static final class Builder {
+        private double percentile = 0.95;
+        private Duration initialDelay = Duration.ofMillis(100);
+        private Duration minDelay = Duration.ofMillis(5);
+        private Duration maxDelay = Duration.ofSeconds(5);
+        private double budget = 0.1;
+        private int maxBurst = 10;
+
+        private Builder() {
+        }
+
+        /**
+         * @param percentile The percentile of the observed latencies after which a duplicate request is sent,
+         *                   between 0 and 1. 0.95 by default.
+         * @return This builder.
+         */
+        public Builder percentile(double percentile) {
+            if (!(percentile > 0 && percentile < 1)) {
+                throw new IllegalArgumentException("The percentile must be between 0 and 1.");
+            }
+            this.percentile = percentile;
+            return this;
+        }
+
+        /**
+         * @param initialDelay The delay after which a duplicate request is sent while too few latencies have been
+         *                     observed for the endpoint. 100 milliseconds by default.
+         * @return This builder.
+         */
+        public Builder initialDelay(Duration initialDelay) {
+            this.initialDelay = Objects.requireNonNull(initialDelay);
+            return this;
+        }
+
+        /**
+         * @param minDelay The minimum delay after which a duplicate request is sent. 5 milliseconds by default.
+         * @return This builder.
+         */
+        public Builder minDelay(Duration minDelay) {
+            this.minDelay = Objects.requireNonNull(minDelay);
+            return this;
+        }
+
+        /**
+         * @param maxDelay The maximum delay after which a duplicate request is sent. 5 seconds by default.
+         * @return This builder.
+         */
+        public Builder maxDelay(Duration maxDelay) {
+            this.maxDelay = Objects.requireNonNull(maxDelay);
+            return this;
+        }
+
+        /**
+         * @param budget The number of duplicate requests allowed per request, 0.1 by default, allowing at most 10%
+         *               of extra requests.
+         * @return This builder.
+         */
+        public Builder budget(double budget) {
+            if (!(budget >= 0 && budget <= 1)) {
+                throw new IllegalArgumentException("The budget must be between 0 and 1.");
+            }
+            this.budget = budget;
+            return this;
+        }
+
+        /**
+         * @param maxBurst The maximum number of duplicate requests that can be saved up and sent in a row.
+         *                 10 by default.
+         * @return This builder.
+         */
+        public Builder maxBurst(int maxBurst) {
+            if (maxBurst < 0) {
+                throw new IllegalArgumentException("The maximum burst cannot be negative.");
+            }
+            this.maxBurst = maxBurst;
+            return this;
+        }
+
+        /**
+         * @return The policy.
+         */
+        public HedgingPolicy build() {
+            if (minDelay.compareTo(maxDelay) > 0) {
+                throw new IllegalArgumentException("The minimum delay cannot exceed the maximum delay.");
+            }
+            return new HedgingPolicy(this);
+        }
+    }
+}
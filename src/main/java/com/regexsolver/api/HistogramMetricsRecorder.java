@@ -0,0 +1,78 @@
+package com.regexsolver.api;
+
+import com.regexsolver.api.dto.EndpointMetrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link MetricsRecorder} keeping a latency histogram and counters per endpoint in memory, without locking.
+ * <pre>{@code
+ * HistogramMetricsRecorder metrics = new HistogramMetricsRecorder();
+ * RegexSolver.setMetricsRecorder(metrics);
+ * ...
+ * metrics.snapshot().forEach((endpoint, endpointMetrics) ->
+ *         System.out.println(endpoint + " p99: " + endpointMetrics.getLatency().getValueAtPercentile(99)));
+ * }</pre>
+ */
+public final class HistogramMetricsRecorder implements MetricsRecorder {
+    private final ConcurrentHashMap<String, Recorded> endpoints = new ConcurrentHashMap<>();
+
+    @Override
+    public void recordRequest(String endpoint, int statusCode, long latencyNanos, long requestBytes,
+                              long responseBytes) {
+        Recorded recorded = recorded(endpoint);
+        recorded.latency.record(latencyNanos);
+        recorded.statusCodes.computeIfAbsent(statusCode, code -> new LongAdder()).increment();
+        recorded.requestBytes.add(requestBytes);
+        recorded.responseBytes.add(responseBytes);
+    }
+
+    @Override
+    public void recordRetry(String endpoint) {
+        recorded(endpoint).retries.increment();
+    }
+
+    @Override
+    public void recordCacheHit(String endpoint) {
+        recorded(endpoint).cacheHits.increment();
+    }
+
+    @Override
+    public void recordCacheMiss(String endpoint) {
+        recorded(endpoint).cacheMisses.increment();
+    }
+
+    /**
+     * @return The metrics recorded so far for each endpoint, sorted by endpoint.
+     */
+    public Map<String, EndpointMetrics> snapshot() {
+        Map<String, EndpointMetrics> snapshot = new TreeMap<>();
+        endpoints.forEach((endpoint, recorded) -> snapshot.put(endpoint, recorded.snapshot()));
+        return snapshot;
+    }
+
+    private Recorded recorded(String endpoint) {
+        Recorded recorded = endpoints.get(endpoint);
+        return recorded != null ? recorded : endpoints.computeIfAbsent(endpoint, e -> new Recorded());
+    }
+
+    private static final class Recorded {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final ConcurrentHashMap<Integer, LongAdder> statusCodes = new ConcurrentHashMap<>();
+        private final LongAdder requestBytes = new LongAdder();
+        private final LongAdder responseBytes = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder cacheHits = new LongAdder();
+        private final LongAdder cacheMisses = new LongAdder();
+
+        private EndpointMetrics snapshot() {
+            Map<Integer, Long> codes = new TreeMap<>();
+            statusCodes.forEach((code, count) -> codes.put(code, count.sum()));
+            return new EndpointMetrics(latency.snapshot(), codes, requestBytes.sum(), responseBytes.sum(),
+                    retries.sum(), cacheHits.sum(), cacheMisses.sum());
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.regexsolver.api;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.regexsolver.api.Request.GenerateStringsRequest;
+import com.regexsolver.api.Request.MultiTermsRequest;
+import com.regexsolver.api.Response.BooleanResponse;
+import com.regexsolver.api.Response.StringsResponse;
+import com.regexsolver.api.dto.Cardinality;
+import com.regexsolver.api.dto.Details;
+import com.regexsolver.api.dto.Length;
+import com.regexsolver.api.exception.ApiError;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hand-written streaming JSON encoding of the requests and responses exchanged with the API,
+ * avoiding the reflective and polymorphic data binding of Jackson on the hot path.
+ */
+final class JsonCodec {
+    static final JsonFactory FACTORY = new JsonFactory();
+
+    private JsonCodec() {
+    }
+
+    static void write(Object value, OutputStream outputStream) throws IOException {
+        try (JsonGenerator generator = FACTORY.createGenerator(outputStream, JsonEncoding.UTF8)) {
+            if (value instanceof MultiTermsRequest) {
+                writeMultiTermsRequest(generator, (MultiTermsRequest) value);
+            } else if (value instanceof GenerateStringsRequest) {
+                writeGenerateStringsRequest(generator, (GenerateStringsRequest) value);
+            } else if (value instanceof Term) {
+                writeTerm(generator, (Term) value);
+            } else {
+                throw new IllegalArgumentException("Unsupported request type: " + value.getClass());
+            }
+        }
+    }
+
+    static ResponseContent read(InputStream inputStream) throws IOException {
+        try (JsonParser parser = FACTORY.createParser(inputStream)) {
+            parser.nextToken();
+            return readResponseContent(parser);
+        }
+    }
+
+    static ApiError readApiError(InputStream inputStream) throws IOException {
+        return readApiError(inputStream, 0, null);
+    }
+
+    /**
+     * Read the error returned by the API with the given status. A body that is not a JSON error, such as the page of
+     * a proxy, gives an error with a generic message.
+     */
+    static ApiError readApiError(InputStream inputStream, int statusCode, Duration retryAfter) throws IOException {
+        try (JsonParser parser = FACTORY.createParser(inputStream)) {
+            expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+            String message = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken token = parser.nextToken();
+                if ("message".equals(field) && token == JsonToken.VALUE_STRING) {
+                    message = parser.getText();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return new ApiError(message, statusCode, retryAfter);
+        } catch (JsonProcessingException e) {
+            if (statusCode == 0) {
+                throw e;
+            }
+            return new ApiError("HTTP " + statusCode, statusCode, retryAfter);
+        }
+    }
+
+    private static void writeMultiTermsRequest(JsonGenerator generator, MultiTermsRequest request) throws IOException {
+        generator.writeStartObject();
+        generator.writeArrayFieldStart("terms");
+        for (Term term : request.getTerms()) {
+            writeTerm(generator, term);
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+
+    private static void writeGenerateStringsRequest(JsonGenerator generator, GenerateStringsRequest request) throws IOException {
+        generator.writeStartObject();
+        generator.writeFieldName("term");
+        writeTerm(generator, request.getTerm());
+        generator.writeNumberField("count", request.getCount());
+        generator.writeEndObject();
+    }
+
+    private static void writeTerm(JsonGenerator generator, Term term) throws IOException {
+        generator.writeStartObject();
+        if (term instanceof Term.Regex) {
+            generator.writeStringField("type", "regex");
+        } else if (term instanceof Term.Fair) {
+            generator.writeStringField("type", "fair");
+        } else {
+            throw new IllegalArgumentException("Unsupported term type: " + term.getClass());
+        }
+        generator.writeStringField("value", term.getValue());
+        generator.writeEndObject();
+    }
+
+    /**
+     * Read the object starting at the current token, the fields can come in any order.
+     */
+    private static ResponseContent readResponseContent(JsonParser parser) throws IOException {
+        expect(parser, parser.currentToken(), JsonToken.START_OBJECT);
+
+        String type = null;
+        String stringValue = null;
+        Boolean booleanValue = null;
+        List<String> stringsValue = null;
+        Cardinality cardinality = null;
+        Length length = null;
+        boolean empty = false;
+        boolean total = false;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            switch (field) {
+                case "type":
+                    type = parser.getValueAsString();
+                    break;
+                case "value":
+                    if (token == JsonToken.VALUE_STRING) {
+                        stringValue = parser.getText();
+                    } else if (token == JsonToken.VALUE_TRUE || token == JsonToken.VALUE_FALSE) {
+                        booleanValue = parser.getBooleanValue();
+                    } else if (token == JsonToken.START_ARRAY) {
+                        stringsValue = readStrings(parser);
+                    } else {
+                        parser.skipChildren();
+                    }
+                    break;
+                case "cardinality":
+                    cardinality = readCardinality(parser);
+                    break;
+                case "length":
+                    length = readLength(parser);
+                    break;
+                case "empty":
+                    empty = parser.getValueAsBoolean();
+                    break;
+                case "total":
+                    total = parser.getValueAsBoolean();
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+
+        if (type == null) {
+            throw new JsonParseException(parser, "Missing type.");
+        }
+        switch (type) {
+            case "regex":
+                return new Term.Regex(require(parser, stringValue, type));
+            case "fair":
+                return new Term.Fair(require(parser, stringValue, type));
+            case "boolean":
+                return new BooleanResponse(require(parser, booleanValue, type));
+            case "strings":
+                return new StringsResponse(require(parser, stringsValue, type));
+            case "details":
+                return new Details(require(parser, cardinality, type), require(parser, length, type), empty, total);
+            default:
+                throw new JsonParseException(parser, "Unknown type: " + type);
+        }
+    }
+
+    private static List<String> readStrings(JsonParser parser) throws IOException {
+        List<String> strings = new ArrayList<>();
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            expect(parser, token, JsonToken.VALUE_STRING);
+            strings.add(parser.getText());
+        }
+        return strings;
+    }
+
+    private static Cardinality readCardinality(JsonParser parser) throws IOException {
+        expect(parser, parser.currentToken(), JsonToken.START_OBJECT);
+        String type = null;
+        long count = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            if ("type".equals(field)) {
+                type = parser.getValueAsString();
+            } else if ("value".equals(field)) {
+                count = parser.getValueAsLong();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if ("Infinite".equals(type)) {
+            return Cardinality.Infinite.INSTANCE;
+        } else if ("BigInteger".equals(type)) {
+            return Cardinality.BigInteger.INSTANCE;
+        } else if ("Integer".equals(type)) {
+            return new Cardinality.Integer(count);
+        }
+        throw new JsonParseException(parser, "Unknown cardinality type: " + type);
+    }
+
+    private static Length readLength(JsonParser parser) throws IOException {
+        expect(parser, parser.currentToken(), JsonToken.START_ARRAY);
+        Long minimum = readNullableLong(parser, parser.nextToken());
+        Long maximum = readNullableLong(parser, parser.nextToken());
+        if (parser.nextToken() != JsonToken.END_ARRAY) {
+            throw new JsonParseException(parser, "Invalid length array.");
+        }
+        return Length.of(minimum, maximum);
+    }
+
+    private static Long readNullableLong(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        expect(parser, token, JsonToken.VALUE_NUMBER_INT);
+        return parser.getLongValue();
+    }
+
+    private static void expect(JsonParser parser, JsonToken actual, JsonToken expected) throws IOException {
+        if (actual != expected) {
+            throw new JsonParseException(parser, "Expected " + expected + " but got " + actual + ".");
+        }
+    }
+
+    private static <T> T require(JsonParser parser, T value, String type) throws IOException {
+        if (value == null) {
+            throw new JsonParseException(parser, "Incomplete " + type + " response.");
+        }
+        return value;
+    }
+}
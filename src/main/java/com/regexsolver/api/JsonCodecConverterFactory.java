@@ -0,0 +1,64 @@
+package com.regexsolver.api;
+
+import com.regexsolver.api.Request.GenerateStringsRequest;
+import com.regexsolver.api.Request.MultiTermsRequest;
+import com.regexsolver.api.Response.BooleanResponse;
+import com.regexsolver.api.Response.StringsResponse;
+import com.regexsolver.api.dto.Details;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.Set;
+
+/**
+ * Plug {@link JsonCodec} into Retrofit for the types it supports, other types fall through to the next factory.
+ */
+final class JsonCodecConverterFactory extends Converter.Factory {
+    private static final MediaType MEDIA_TYPE = MediaType.get("application/json; charset=UTF-8");
+
+    private static final Set<Type> REQUEST_TYPES = Set.of(
+            MultiTermsRequest.class, GenerateStringsRequest.class, Term.class, Term.Regex.class, Term.Fair.class
+    );
+
+    private static final Set<Type> RESPONSE_TYPES = Set.of(
+            Term.class, Term.Regex.class, Term.Fair.class, Details.class, BooleanResponse.class, StringsResponse.class
+    );
+
+    @Override
+    public Converter<?, RequestBody> requestBodyConverter(Type type, Annotation[] parameterAnnotations,
+                                                          Annotation[] methodAnnotations, Retrofit retrofit) {
+        if (!REQUEST_TYPES.contains(type)) {
+            return null;
+        }
+        return value -> {
+            Buffer buffer = new Buffer();
+            JsonCodec.write(value, buffer.outputStream());
+            return RequestBody.create(MEDIA_TYPE, buffer.readByteString());
+        };
+    }
+
+    @Override
+    public Converter<ResponseBody, ?> responseBodyConverter(Type type, Annotation[] annotations, Retrofit retrofit) {
+        if (!RESPONSE_TYPES.contains(type)) {
+            return null;
+        }
+        Class<?> expectedType = (Class<?>) type;
+        return body -> {
+            try (body) {
+                ResponseContent content = JsonCodec.read(body.byteStream());
+                if (!expectedType.isInstance(content)) {
+                    throw new IOException("Expected " + expectedType.getSimpleName()
+                            + " but got " + content.getClass().getSimpleName() + ".");
+                }
+                return content;
+            }
+        };
+    }
+}
@@ -0,0 +1,94 @@
+package com.regexsolver.api;
+
+import com.regexsolver.api.dto.HistogramSnapshot;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of non-negative values, such as latencies in nanoseconds, with a relative error below 1%.
+ * <p>
+ * As in HDR histograms, the buckets are laid out log-linearly: the values below 256 have a bucket each, and each
+ * following power of two is split into 128 buckets of equal width.
+ * </p>
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = index(Long.MAX_VALUE) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * Record a value, negative values being recorded as 0.
+     *
+     * @param value The value to record.
+     */
+    public void record(long value) {
+        value = Math.max(0, value);
+        counts.incrementAndGet(index(value));
+        sum.add(value);
+        min.accumulateAndGet(value, Math::min);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * The snapshot is taken without blocking the threads recording values, so it may miss some of the values recorded
+     * while it is being taken.
+     *
+     * @return A snapshot of the values recorded so far.
+     */
+    public HistogramSnapshot snapshot() {
+        int nonEmpty = 0;
+        long[] copy = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            copy[i] = counts.get(i);
+            if (copy[i] > 0) {
+                nonEmpty++;
+            }
+        }
+        long[] upperBounds = new long[nonEmpty];
+        long[] bucketCounts = new long[nonEmpty];
+        long total = 0;
+        int j = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            if (copy[i] > 0) {
+                upperBounds[j] = upperBound(i);
+                bucketCounts[j] = copy[i];
+                total += copy[i];
+                j++;
+            }
+        }
+        if (total == 0) {
+            return new HistogramSnapshot(upperBounds, bucketCounts, 0, 0, 0);
+        }
+        return new HistogramSnapshot(upperBounds, bucketCounts, min.get(), max.get(), sum.sum());
+    }
+
+    /**
+     * @return The index of the bucket of the given non-negative value.
+     */
+    static int index(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift << SUB_BUCKET_BITS) + (int) (value >>> shift);
+    }
+
+    /**
+     * @return The highest value of the bucket at the given index.
+     */
+    static long upperBound(int index) {
+        if (index < 2 * SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index >>> SUB_BUCKET_BITS) - 1;
+        long subBucket = index - ((long) shift << SUB_BUCKET_BITS);
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,197 @@
+package com.regexsolver.api;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * A finite set of literal strings, recognized from regular expressions such as {@code abc|def|ghi} or
+ * {@code (a\.b|c\+d)}.
+ * <p>
+ * Set operations on such terms can be computed exactly in-process. The static methods return {@code null} when one
+ * of the operands is not a literal set or when the result cannot be expressed as one, in which case the operation
+ * has to be sent to the API.
+ * </p>
+ */
+final class LiteralSet {
+    /**
+     * Characters that have to be escaped to be matched literally.
+     */
+    private static final String META_CHARACTERS = "\\.+*?()|[]{}^$#&-~";
+
+    /**
+     * Characters that are not matched literally when they are not escaped.
+     */
+    private static final String RESERVED_CHARACTERS = "\\.+*?()[]{}^$#&~";
+
+    private final TreeSet<String> strings;
+
+    private LiteralSet(TreeSet<String> strings) {
+        this.strings = strings;
+    }
+
+    /**
+     * @return The literal set matched by the given term, or {@code null} if it is not a finite literal alternation.
+     */
+    static LiteralSet of(Term term) {
+        if (!(term instanceof Term.Regex)) {
+            return null;
+        }
+        String pattern = unwrapGroup(((Term.Regex) term).getPattern());
+
+        TreeSet<String> strings = new TreeSet<>();
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '|') {
+                strings.add(current.toString());
+                current.setLength(0);
+            } else if (c == '\\') {
+                if (i + 1 >= pattern.length() || META_CHARACTERS.indexOf(pattern.charAt(i + 1)) < 0) {
+                    return null;
+                }
+                current.append(pattern.charAt(++i));
+            } else if (isReserved(c)) {
+                return null;
+            } else {
+                current.append(c);
+            }
+        }
+        strings.add(current.toString());
+        return new LiteralSet(strings);
+    }
+
+    static Term intersection(List<Term> terms) {
+        List<LiteralSet> sets = of(terms);
+        if (sets == null) {
+            return null;
+        }
+        TreeSet<String> result = new TreeSet<>(sets.get(0).strings);
+        for (int i = 1; i < sets.size(); i++) {
+            result.retainAll(sets.get(i).strings);
+        }
+        return toTerm(result);
+    }
+
+    static Term union(List<Term> terms) {
+        List<LiteralSet> sets = of(terms);
+        if (sets == null) {
+            return null;
+        }
+        TreeSet<String> result = new TreeSet<>();
+        for (LiteralSet set : sets) {
+            result.addAll(set.strings);
+        }
+        return toTerm(result);
+    }
+
+    static Term subtraction(List<Term> terms) {
+        List<LiteralSet> sets = of(terms);
+        if (sets == null || sets.size() != 2) {
+            return null;
+        }
+        TreeSet<String> result = new TreeSet<>(sets.get(0).strings);
+        result.removeAll(sets.get(1).strings);
+        return toTerm(result);
+    }
+
+    static Boolean equivalence(List<Term> terms) {
+        List<LiteralSet> sets = of(terms);
+        if (sets == null) {
+            return null;
+        }
+        for (int i = 1; i < sets.size(); i++) {
+            if (!sets.get(0).strings.equals(sets.get(i).strings)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static Boolean subset(List<Term> terms) {
+        List<LiteralSet> sets = of(terms);
+        if (sets == null || sets.size() != 2) {
+            return null;
+        }
+        return sets.get(1).strings.containsAll(sets.get(0).strings);
+    }
+
+    /**
+     * @return The literal strings of this set, in lexicographic order.
+     */
+    Set<String> getStrings() {
+        return strings;
+    }
+
+    private static List<LiteralSet> of(List<Term> terms) {
+        if (terms.isEmpty()) {
+            return null;
+        }
+        List<LiteralSet> sets = new ArrayList<>(terms.size());
+        for (Term term : terms) {
+            LiteralSet set = of(term);
+            if (set == null) {
+                return null;
+            }
+            sets.add(set);
+        }
+        return sets;
+    }
+
+    /**
+     * The empty language has no literal form, it is left to the API.
+     */
+    private static Term toTerm(TreeSet<String> strings) {
+        if (strings.isEmpty()) {
+            return null;
+        }
+        StringBuilder pattern = new StringBuilder();
+        for (String string : strings) {
+            if (pattern.length() > 0) {
+                pattern.append('|');
+            }
+            for (int i = 0; i < string.length(); i++) {
+                char c = string.charAt(i);
+                if (META_CHARACTERS.indexOf(c) >= 0) {
+                    pattern.append('\\');
+                }
+                pattern.append(c);
+            }
+        }
+        return Term.regex(pattern.toString());
+    }
+
+    /**
+     * @return true if the given character is not matched literally when it is not escaped.
+     */
+    static boolean isReserved(int c) {
+        return RESERVED_CHARACTERS.indexOf(c) >= 0;
+    }
+
+    /**
+     * Remove a group spanning the whole pattern, such as {@code (abc|de)} or {@code (?:abc|de)}.
+     */
+    static String unwrapGroup(String pattern) {
+        int start;
+        if (pattern.startsWith("(?:")) {
+            start = 3;
+        } else if (pattern.startsWith("(")) {
+            start = 1;
+        } else {
+            return pattern;
+        }
+        int depth = 0;
+        for (int i = start; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')' && --depth < 0) {
+                return i == pattern.length() - 1 ? pattern.substring(start, i) : pattern;
+            }
+        }
+        return pattern;
+    }
+}
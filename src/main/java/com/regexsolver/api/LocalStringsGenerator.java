@@ -0,0 +1,178 @@
+package com.regexsolver.api;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Generate unique strings matched by a {@link SimpleRegex} in-process.
+ * <p>
+ * The strings are enumerated lazily by a depth-first walk of the deterministic automaton of the expression, every
+ * matched string being read by exactly one path, so they are unique without having to remember them. The walk only
+ * keeps its stack and a reusable character buffer, and each string is allocated once when it is returned.
+ * </p>
+ * <p>
+ * Unbounded repetitions are bounded to a number of occurrences large enough to match the requested number of strings.
+ * </p>
+ */
+final class LocalStringsGenerator implements GeneratedStrings {
+    private static final int INITIAL_UNBOUNDED_EXTRA = 8;
+
+    private final SimpleRegex.Automaton automaton;
+    private int remaining;
+
+    private int depth = 0;
+    private int[] states = new int[16];
+    private int[] regions = new int[16];
+    private int[] offsets = new int[16];
+    private char[] buffer = new char[16];
+    private int length = 0;
+    private boolean started = false;
+
+    private String next;
+
+    private LocalStringsGenerator(SimpleRegex.Automaton automaton, int count) {
+        this.automaton = automaton;
+        this.remaining = count;
+    }
+
+    /**
+     * @return A generator of the given number of strings matched by the given term, or {@code null} if the term
+     * cannot be generated locally.
+     */
+    static LocalStringsGenerator of(Term term, int count) {
+        SimpleRegex regex = SimpleRegex.of(term);
+        if (regex == null) {
+            return null;
+        }
+        boolean unbounded = regex.getMaximumLength() < 0;
+        int extra = INITIAL_UNBOUNDED_EXTRA;
+        while (true) {
+            SimpleRegex.Automaton automaton = regex.automaton(extra);
+            if (automaton == null) {
+                return null;
+            }
+            try {
+                // Counting builds every state up front, so that the walk cannot exceed the maximum number of states.
+                if (automaton.count() >= count || !unbounded) {
+                    return new LocalStringsGenerator(automaton, count);
+                }
+            } catch (ArithmeticException e) {
+                return new LocalStringsGenerator(automaton, count);
+            } catch (IllegalStateException e) {
+                return null;
+            }
+            extra *= 2;
+        }
+    }
+
+    /**
+     * @return All the remaining strings.
+     */
+    List<String> toList() {
+        List<String> strings = new ArrayList<>(Math.min(remaining, 1024));
+        String string;
+        while ((string = nextString()) != null) {
+            strings.add(string);
+        }
+        return strings;
+    }
+
+    @Override
+    public String nextString() {
+        if (remaining <= 0) {
+            return null;
+        }
+        if (!started) {
+            started = true;
+            push(automaton.getStart());
+            if (automaton.isAccepting(automaton.getStart())) {
+                return emit();
+            }
+        }
+        while (depth > 0) {
+            int top = depth - 1;
+            int[] targets = automaton.getTransitions(states[top]);
+            int region = regions[top];
+            int offset = offsets[top];
+            while (region < targets.length && (targets[region] < 0 || offset >= automaton.getRegionSize(region))) {
+                region++;
+                offset = 0;
+            }
+            if (region == targets.length) {
+                pop();
+                continue;
+            }
+            regions[top] = region;
+            offsets[top] = offset + 1;
+
+            append(automaton.getRegionStart(region) + offset);
+            push(targets[region]);
+            if (automaton.isAccepting(targets[region])) {
+                return emit();
+            }
+        }
+        remaining = 0;
+        return null;
+    }
+
+    private String emit() {
+        remaining--;
+        return new String(buffer, 0, length);
+    }
+
+    private void push(int state) {
+        if (depth == states.length) {
+            states = Arrays.copyOf(states, depth * 2);
+            regions = Arrays.copyOf(regions, depth * 2);
+            offsets = Arrays.copyOf(offsets, depth * 2);
+        }
+        states[depth] = state;
+        regions[depth] = 0;
+        offsets[depth] = 0;
+        depth++;
+    }
+
+    /**
+     * Leave the state on top of the stack, along with the character read to reach it.
+     */
+    private void pop() {
+        depth--;
+        if (depth > 0) {
+            int top = depth - 1;
+            int codePoint = automaton.getRegionStart(regions[top]) + offsets[top] - 1;
+            length -= Character.charCount(codePoint);
+        }
+    }
+
+    private void append(int codePoint) {
+        if (length + 2 > buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        length += Character.toChars(codePoint, buffer, length);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            next = nextString();
+        }
+        return next != null;
+    }
+
+    @Override
+    public String next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        String string = next;
+        next = null;
+        return string;
+    }
+
+    @Override
+    public void close() {
+        remaining = 0;
+    }
+}
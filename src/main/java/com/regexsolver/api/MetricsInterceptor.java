@@ -0,0 +1,87 @@
+package com.regexsolver.api;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.ForwardingSource;
+import okio.Okio;
+import okio.Source;
+
+import java.io.IOException;
+
+/**
+ * Report each request to a {@link MetricsRecorder}, as sent and received on the wire.
+ */
+final class MetricsInterceptor implements Interceptor {
+    private volatile MetricsRecorder recorder = MetricsRecorder.NONE;
+
+    void setRecorder(MetricsRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    MetricsRecorder getRecorder() {
+        return recorder;
+    }
+
+    /**
+     * @return The endpoint of the given path, starting at its {@code api/} segment.
+     */
+    static String endpoint(String encodedPath) {
+        int index = encodedPath.indexOf("api/");
+        return index >= 0 ? encodedPath.substring(index) : encodedPath;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        MetricsRecorder current = recorder;
+        if (current == MetricsRecorder.NONE) {
+            return chain.proceed(chain.request());
+        }
+
+        Request request = chain.request();
+        String endpoint = endpoint(request.url().encodedPath());
+        long requestBytes = request.body() != null ? Math.max(0, request.body().contentLength()) : 0;
+        long start = System.nanoTime();
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException e) {
+            current.recordRequest(endpoint, 0, System.nanoTime() - start, requestBytes, 0);
+            throw e;
+        }
+        long latency = System.nanoTime() - start;
+
+        ResponseBody body = response.body();
+        if (body == null) {
+            current.recordRequest(endpoint, response.code(), latency, requestBytes, 0);
+            return response;
+        }
+        Source counted = new ForwardingSource(body.source()) {
+            private long responseBytes = 0;
+            private boolean recorded = false;
+
+            @Override
+            public long read(Buffer sink, long byteCount) throws IOException {
+                long read = super.read(sink, byteCount);
+                if (read > 0) {
+                    responseBytes += read;
+                }
+                return read;
+            }
+
+            @Override
+            public void close() throws IOException {
+                if (!recorded) {
+                    recorded = true;
+                    current.recordRequest(endpoint, response.code(), latency, requestBytes, responseBytes);
+                }
+                super.close();
+            }
+        };
+        return response.newBuilder()
+                .body(ResponseBody.create(body.contentType(), body.contentLength(), Okio.buffer(counted)))
+                .build();
+    }
+}
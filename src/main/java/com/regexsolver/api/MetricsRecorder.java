@@ -0,0 +1,56 @@
+package com.regexsolver.api;
+
+/**
+ * Receives the metrics of the requests sent to the API, for example to export them to a monitoring system.
+ * <p>
+ * The endpoints are identified by their path, such as {@code api/compute/intersection}. The methods are called on the
+ * threads sending the requests, so implementations must be thread-safe, fast, and must not throw.
+ * {@link HistogramMetricsRecorder} keeps latency histograms and counters in memory.
+ * </p>
+ */
+public interface MetricsRecorder {
+    /**
+     * A recorder that ignores all the metrics.
+     */
+    MetricsRecorder NONE = new MetricsRecorder() {
+    };
+
+    /**
+     * Called once per HTTP request sent, including retries and hedged requests, when its response body is closed or
+     * when it fails.
+     *
+     * @param endpoint      The endpoint requested.
+     * @param statusCode    The status code of the response, 0 if no response was received.
+     * @param latencyNanos  The time until the response headers were received or the request failed.
+     * @param requestBytes  The size of the request body as sent.
+     * @param responseBytes The size of the response body as received.
+     */
+    default void recordRequest(String endpoint, int statusCode, long latencyNanos, long requestBytes,
+                               long responseBytes) {
+    }
+
+    /**
+     * Called when a request to the given endpoint is about to be retried.
+     *
+     * @param endpoint The endpoint requested.
+     */
+    default void recordRetry(String endpoint) {
+    }
+
+    /**
+     * Called when the result of an operation is found in the result cache or the disk result store.
+     *
+     * @param endpoint The endpoint that would have been requested.
+     */
+    default void recordCacheHit(String endpoint) {
+    }
+
+    /**
+     * Called when the result of an operation is not found in the result cache or the disk result store.
+     * Not called if neither is configured.
+     *
+     * @param endpoint The endpoint about to be requested.
+     */
+    default void recordCacheMiss(String endpoint) {
+    }
+}
@@ -0,0 +1,74 @@
+package com.regexsolver.api;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Identify an operation by its endpoint and the canonical form of its operands.
+ */
+final class OperationKey {
+    private final String operation;
+    private final List<String> operands;
+    private final int hash;
+
+    private OperationKey(String operation, List<String> operands) {
+        this.operation = operation;
+        this.operands = operands;
+        this.hash = Objects.hash(operation, operands);
+    }
+
+    /**
+     * Create a key for an operation whose result depends on the order of its operands.
+     */
+    static OperationKey of(String operation, List<Term> terms) {
+        return new OperationKey(operation, serialize(terms));
+    }
+
+    /**
+     * Create a key for a commutative operation, the operands are sorted so that {@code a ∪ b} and {@code b ∪ a}
+     * share the same key.
+     */
+    static OperationKey commutative(String operation, List<Term> terms) {
+        List<String> operands = serialize(terms);
+        Collections.sort(operands);
+        return new OperationKey(operation, operands);
+    }
+
+    private static List<String> serialize(List<Term> terms) {
+        List<String> operands = new ArrayList<>(terms.size());
+        for (Term term : terms) {
+            operands.add(term.serialize());
+        }
+        return operands;
+    }
+
+    String getOperation() {
+        return operation;
+    }
+
+    List<String> getOperands() {
+        return operands;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        OperationKey that = (OperationKey) o;
+        return hash == that.hash &&
+                operation.equals(that.operation) &&
+                operands.equals(that.operands);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return operation + operands;
+    }
+}
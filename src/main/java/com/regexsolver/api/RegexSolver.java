@@ -1,5 +1,10 @@
 package com.regexsolver.api;
 
+import com.regexsolver.api.dto.CompressionStats;
+import com.regexsolver.api.dto.PrecheckStats;
+
+import java.util.Objects;
+
 public final class RegexSolver {
     public static void initialize(String token) {
         RegexSolverApiWrapper.initialize(token);
@@ -8,4 +13,113 @@ public final class RegexSolver {
     public static void initialize(String token, String baseUrl) {
         RegexSolverApiWrapper.initialize(token, baseUrl);
     }
+
+    /**
+     * Enable or disable the virtual-thread execution mode.
+     * <p>
+     * When enabled, asynchronous calls are dispatched on virtual threads and the HTTP client no longer caps the number
+     * of concurrent requests, so blocking operations can be run from thousands of virtual threads,
+     * see {@link VirtualThreads#invokeAll(java.util.Collection)}.
+     * On runtimes older than Java 21 platform daemon threads are used instead, and the caps are kept.
+     * </p>
+     *
+     * @param enabled true to enable the virtual-thread execution mode, false to restore the caps in use before it was
+     *                enabled.
+     */
+    public static void useVirtualThreads(boolean enabled) {
+        RegexSolverApiWrapper.useVirtualThreads(enabled);
+    }
+
+    /**
+     * Set the cache in which the results of the operations are looked up before requesting the API.
+     *
+     * @param cache The cache to use, or null to disable caching.
+     */
+    public static void setResultCache(ResultCache cache) {
+        RegexSolverApiWrapper.setResultCache(cache);
+    }
+
+    /**
+     * Set the persistent store in which the results of the operations are looked up before requesting the API.
+     *
+     * @param diskStore The store to use, or null to disable it.
+     */
+    public static void setDiskResultStore(DiskResultStore diskStore) {
+        RegexSolverApiWrapper.setDiskResultStore(diskStore);
+    }
+
+    /**
+     * Set whether the operations on finite sets of literals, such as {@code abc|de}, are computed in-process
+     * instead of requesting the API. Disabled by default.
+     *
+     * @param enabled true to compute these operations in-process.
+     */
+    public static void setLocalEvaluation(boolean enabled) {
+        RegexSolverApiWrapper.setLocalEvaluation(enabled);
+    }
+
+    /**
+     * Set how requests are retried on transient failures and when endpoints are considered unhealthy.
+     * {@link ResiliencePolicy#NONE} is used by default, requests are never retried.
+     *
+     * @param policy The policy to use, such as {@link ResiliencePolicy#DEFAULT} to retry transient failures.
+     */
+    public static void setResiliencePolicy(ResiliencePolicy policy) {
+        RegexSolverApiWrapper.setResiliencePolicy(Objects.requireNonNull(policy));
+    }
+
+    /**
+     * Set when duplicate requests are sent to the analyze and compute endpoints to cut the tail latency.
+     * Disabled by default.
+     *
+     * @param policy The policy to use, null to never send duplicate requests.
+     */
+    public static void setHedgingPolicy(HedgingPolicy policy) {
+        RegexSolverApiWrapper.setHedgingPolicy(policy);
+    }
+
+    /**
+     * Set how many requests can be in flight against the API, adapting to how loaded it is.
+     * Disabled by default.
+     *
+     * @param policy The policy to use, null to only apply the limits of the dispatcher.
+     */
+    public static void setConcurrencyLimitPolicy(ConcurrencyLimitPolicy policy) {
+        RegexSolverApiWrapper.setConcurrencyLimitPolicy(policy);
+    }
+
+    /**
+     * Set the recorder receiving the metrics of the requests sent to the API.
+     * {@link MetricsRecorder#NONE} is used by default.
+     *
+     * @param recorder The recorder to use, for example a {@link HistogramMetricsRecorder}.
+     */
+    public static void setMetricsRecorder(MetricsRecorder recorder) {
+        RegexSolverApiWrapper.setMetricsRecorder(Objects.requireNonNull(recorder));
+    }
+
+    /**
+     * Set the minimum size of the request bodies to send gzip-compressed.
+     * Compressed responses are always accepted.
+     *
+     * @param threshold The minimum size in bytes, negative to never compress request bodies.
+     */
+    public static void setRequestCompressionThreshold(int threshold) {
+        RegexSolverApiWrapper.setRequestCompressionThreshold(threshold);
+    }
+
+    /**
+     * @return A snapshot of the statistics about the compression of the bodies exchanged with the API.
+     */
+    public static CompressionStats getCompressionStats() {
+        return RegexSolverApiWrapper.getInstance().getCompressionStats();
+    }
+
+    /**
+     * @return A snapshot of the statistics about the subset and equivalence operations decided locally from the
+     * details already known of their operands.
+     */
+    public static PrecheckStats getPrecheckStats() {
+        return RegexSolverApiWrapper.getInstance().getPrecheckStats();
+    }
 }
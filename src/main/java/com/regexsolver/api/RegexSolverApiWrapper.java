@@ -5,9 +5,14 @@ import com.regexsolver.api.Request.GenerateStringsRequest;
 import com.regexsolver.api.Request.MultiTermsRequest;
 import com.regexsolver.api.Response.BooleanResponse;
 import com.regexsolver.api.Response.StringsResponse;
+import com.regexsolver.api.dto.CompressionStats;
 import com.regexsolver.api.dto.Details;
+import com.regexsolver.api.dto.PrecheckStats;
 import com.regexsolver.api.exception.ApiError;
+import com.regexsolver.api.exception.CircuitOpenException;
 import com.regexsolver.api.exception.MissingAPITokenException;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.ResponseBody;
@@ -17,39 +22,238 @@ import retrofit2.Retrofit;
 import retrofit2.converter.jackson.JacksonConverterFactory;
 import retrofit2.http.Body;
 import retrofit2.http.POST;
+import retrofit2.http.Streaming;
 
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
-final class RegexSolverApiWrapper {
-    private static final RegexSolverApiWrapper INSTANCE = new RegexSolverApiWrapper();
+final class RegexSolverApiWrapper implements Closeable {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
 
-    private final static String DEFAULT_BASE_URL = "https://api.regexsolver.com/";
+    private static final RegexSolverApiWrapper INSTANCE = new RegexSolverApiWrapper(RegexSolverClient.builder());
 
     private final static String USER_AGENT = "RegexSolver Java / 1.0.2";
 
-    private RegexApi api;
+    private final static int VIRTUAL_THREADS_MAX_IDLE_CONNECTIONS = 256;
+
+    private final static String COMPUTE_INTERSECTION = "api/compute/intersection";
+    private final static String COMPUTE_UNION = "api/compute/union";
+    private final static String COMPUTE_SUBTRACTION = "api/compute/subtraction";
+    private final static String ANALYZE_DETAILS = "api/analyze/details";
+    private final static String ANALYZE_EQUIVALENCE = "api/analyze/equivalence";
+    private final static String ANALYZE_SUBSET = "api/analyze/subset";
+    private final static String GENERATE_STRINGS = "api/generate/strings";
+
+    private final static int GENERATE_STRINGS_MAX_COUNT = 200;
+    private final static int STREAM_STRINGS_MAX_REMEMBERED = 100_000;
+
+    private RegexSolverClient.Builder settings;
+
+    /**
+     * The settings whose concurrency limits are restored when virtual threads are disabled, null if they are not
+     * enabled.
+     */
+    private RegexSolverClient.Builder settingsBeforeVirtualThreads;
+
+    private volatile OkHttpClient client;
+
+    private volatile RegexApi api;
+
+    private volatile ResultCache cache;
+
+    private volatile DiskResultStore diskStore;
+
+    private volatile boolean localEvaluation;
+
+    private final SingleFlight inFlight = new SingleFlight();
+
+    private final GzipInterceptor gzip = new GzipInterceptor();
+
+    private final MetricsInterceptor metrics = new MetricsInterceptor();
+
+    private volatile ResiliencePolicy resilience;
+
+    private final ConcurrentHashMap<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    private volatile Hedger hedger;
+
+    private volatile ConcurrencyLimiter limiter;
+
+    private final DetailsPrecheck precheck = new DetailsPrecheck();
 
     public static RegexSolverApiWrapper getInstance() {
         return INSTANCE;
     }
 
-    private RegexSolverApiWrapper() {
-        initializeInternal(null, DEFAULT_BASE_URL);
+    RegexSolverApiWrapper(RegexSolverClient.Builder settings) {
+        configure(settings);
     }
 
     static void initialize(String token) {
-        getInstance().initializeInternal(token, DEFAULT_BASE_URL);
+        getInstance().reconfigure(settings -> settings.token(token).baseUrl(RegexSolverClient.Builder.DEFAULT_BASE_URL));
     }
 
     static void initialize(String token, String baseUrl) {
-        getInstance().initializeInternal(token, baseUrl);
+        getInstance().reconfigure(settings -> settings.token(token).baseUrl(baseUrl));
+    }
+
+    static void useVirtualThreads(boolean enabled) {
+        getInstance().useVirtualThreads(enabled, VirtualThreads.isAvailable());
+    }
+
+    void useVirtualThreads(boolean enabled, boolean available) {
+        reconfigure(settings -> {
+            if (enabled) {
+                if (settingsBeforeVirtualThreads == null) {
+                    settingsBeforeVirtualThreads = settings.copy();
+                }
+                settings.virtualThreads(true);
+                if (available) {
+                    // Each blocking call parks its own virtual thread, so neither the dispatcher
+                    // nor the number of pooled connections should cap the concurrency.
+                    // The platform threads of older runtimes keep the caps.
+                    settings.maxRequests(Integer.MAX_VALUE)
+                            .maxRequestsPerHost(Integer.MAX_VALUE)
+                            .maxIdleConnections(VIRTUAL_THREADS_MAX_IDLE_CONNECTIONS);
+                }
+            } else {
+                settings.virtualThreads(false);
+                if (settingsBeforeVirtualThreads != null) {
+                    settings.maxRequests(settingsBeforeVirtualThreads.getMaxRequests())
+                            .maxRequestsPerHost(settingsBeforeVirtualThreads.getMaxRequestsPerHost())
+                            .maxIdleConnections(settingsBeforeVirtualThreads.getMaxIdleConnections());
+                    settingsBeforeVirtualThreads = null;
+                }
+            }
+        });
+    }
+
+    static void setRequestCompressionThreshold(int threshold) {
+        getInstance().reconfigure(settings -> settings.requestCompressionThreshold(threshold));
+    }
+
+    CompressionStats getCompressionStats() {
+        return gzip.getStats();
+    }
+
+    PrecheckStats getPrecheckStats() {
+        return precheck.getStats();
+    }
+
+    ConcurrencyLimiter getConcurrencyLimiter() {
+        return limiter;
+    }
+
+    Dispatcher getDispatcher() {
+        return client.dispatcher();
+    }
+
+    static void setResultCache(ResultCache cache) {
+        RegexSolverApiWrapper instance = getInstance();
+        synchronized (instance) {
+            instance.settings.resultCache(cache);
+            instance.cache = cache;
+        }
+    }
+
+    static void setDiskResultStore(DiskResultStore diskStore) {
+        RegexSolverApiWrapper instance = getInstance();
+        synchronized (instance) {
+            instance.settings.diskResultStore(diskStore);
+            instance.diskStore = diskStore;
+        }
+    }
+
+    static void setLocalEvaluation(boolean enabled) {
+        RegexSolverApiWrapper instance = getInstance();
+        synchronized (instance) {
+            instance.settings.localEvaluation(enabled);
+            instance.localEvaluation = enabled;
+        }
+    }
+
+    static void setResiliencePolicy(ResiliencePolicy policy) {
+        RegexSolverApiWrapper instance = getInstance();
+        synchronized (instance) {
+            instance.settings.resiliencePolicy(policy);
+            instance.resilience = policy;
+            instance.breakers.clear();
+        }
+    }
+
+    static void setMetricsRecorder(MetricsRecorder recorder) {
+        RegexSolverApiWrapper instance = getInstance();
+        synchronized (instance) {
+            instance.settings.metricsRecorder(recorder);
+            instance.metrics.setRecorder(recorder);
+        }
+    }
+
+    static void setConcurrencyLimitPolicy(ConcurrencyLimitPolicy policy) {
+        getInstance().reconfigure(settings -> settings.concurrencyLimitPolicy(policy));
     }
 
-    private void initializeInternal(String token, String baseUrl) {
-        Retrofit retrofit = new Retrofit.Builder()
-                .client(new OkHttpClient.Builder().addInterceptor(chain -> {
+    static void setHedgingPolicy(HedgingPolicy policy) {
+        RegexSolverApiWrapper instance = getInstance();
+        synchronized (instance) {
+            instance.settings.hedgingPolicy(policy);
+            instance.hedger = policy != null ? new Hedger(policy) : null;
+        }
+    }
+
+    private synchronized void reconfigure(Consumer<RegexSolverClient.Builder> change) {
+        RegexSolverClient.Builder updated = settings.copy();
+        change.accept(updated);
+        configure(updated);
+    }
+
+    /**
+     * Build a new HTTP client from the given settings and release the resources of the previous one.
+     * Calls already in flight on the previous client are allowed to complete.
+     */
+    private synchronized void configure(RegexSolverClient.Builder settings) {
+        this.settings = settings;
+
+        Dispatcher dispatcher = settings.isVirtualThreads()
+                ? new Dispatcher(VirtualThreads.newExecutor())
+                : new Dispatcher();
+        dispatcher.setMaxRequests(settings.getMaxRequests());
+        dispatcher.setMaxRequestsPerHost(settings.getMaxRequestsPerHost());
+
+        gzip.setRequestThreshold(settings.getRequestCompressionThreshold());
+        metrics.setRecorder(settings.getMetricsRecorder());
+
+        ConcurrencyLimiter newLimiter = settings.getConcurrencyLimitPolicy() != null
+                ? new ConcurrencyLimiter(settings.getConcurrencyLimitPolicy())
+                : null;
+
+        String token = settings.getToken();
+        OkHttpClient newClient = new OkHttpClient.Builder()
+                .dispatcher(dispatcher)
+                .connectionPool(new ConnectionPool(settings.getMaxIdleConnections(),
+                        settings.getKeepAlive().toMillis(), TimeUnit.MILLISECONDS))
+                .connectTimeout(settings.getConnectTimeout())
+                .readTimeout(settings.getReadTimeout())
+                .writeTimeout(settings.getWriteTimeout())
+                .callTimeout(settings.getCallTimeout())
+                .addInterceptor(chain -> {
                     if (token == null) {
                         throw new MissingAPITokenException();
                     }
@@ -58,107 +262,523 @@ final class RegexSolverApiWrapper {
                             .addHeader("Authorization", "Bearer " + token)
                             .build();
                     return chain.proceed(newRequest);
-                }).build())
-                .baseUrl(baseUrl)
-                .addConverterFactory(JacksonConverterFactory.create())
+                })
+                .addInterceptor(gzip)
+                .addInterceptor(metrics)
                 .build();
 
+        Retrofit.Builder retrofitBuilder = new Retrofit.Builder()
+                .client(newClient)
+                .baseUrl(settings.getBaseUrl());
+        if (settings.isStreamingCodec()) {
+            retrofitBuilder.addConverterFactory(new JsonCodecConverterFactory());
+        }
+        Retrofit retrofit = retrofitBuilder
+                .addConverterFactory(JacksonConverterFactory.create(OBJECT_MAPPER))
+                .build();
+
+        OkHttpClient previousClient = client;
+        client = newClient;
+        limiter = newLimiter;
         api = retrofit.create(RegexApi.class);
+        cache = settings.getResultCache();
+        diskStore = settings.getDiskResultStore();
+        localEvaluation = settings.isLocalEvaluation();
+        resilience = settings.getResiliencePolicy();
+        breakers.clear();
+        hedger = settings.getHedgingPolicy() != null ? new Hedger(settings.getHedgingPolicy()) : null;
+
+        if (previousClient != null) {
+            release(previousClient);
+        }
+    }
+
+    @Override
+    public void close() {
+        release(client);
+    }
+
+    private static void release(OkHttpClient client) {
+        client.dispatcher().executorService().shutdown();
+        client.connectionPool().evictAll();
     }
 
     public Term computeIntersection(MultiTermsRequest multiTermsRequest) throws ApiError, IOException {
-        Response<Term> response = api.computeIntersection(multiTermsRequest).execute();
-        if (response.isSuccessful()) {
-            return response.body();
-        } else {
-            throw getApiError(response);
+        Term local = localEvaluation ? LiteralSet.intersection(multiTermsRequest.getTerms()) : null;
+        if (local != null) {
+            return local;
         }
+        return cached(OperationKey.commutative(COMPUTE_INTERSECTION, multiTermsRequest.getTerms()),
+                () -> execute(api.computeIntersection(multiTermsRequest), Function.identity()));
     }
 
     public Term computeUnion(MultiTermsRequest multiTermsRequest) throws ApiError, IOException {
-        Response<Term> response = api.computeUnion(multiTermsRequest).execute();
-        if (response.isSuccessful()) {
-            return response.body();
-        } else {
-            throw getApiError(response);
+        Term local = localEvaluation ? LiteralSet.union(multiTermsRequest.getTerms()) : null;
+        if (local != null) {
+            return local;
         }
+        return cached(OperationKey.commutative(COMPUTE_UNION, multiTermsRequest.getTerms()),
+                () -> execute(api.computeUnion(multiTermsRequest), Function.identity()));
     }
 
     public Term computeSubtraction(MultiTermsRequest multiTermsRequest) throws ApiError, IOException {
-        Response<Term> response = api.computeSubtraction(multiTermsRequest).execute();
-        if (response.isSuccessful()) {
-            return response.body();
-        } else {
-            throw getApiError(response);
+        Term local = localEvaluation ? LiteralSet.subtraction(multiTermsRequest.getTerms()) : null;
+        if (local != null) {
+            return local;
         }
+        return cached(OperationKey.of(COMPUTE_SUBTRACTION, multiTermsRequest.getTerms()),
+                () -> execute(api.computeSubtraction(multiTermsRequest), Function.identity()));
     }
 
     public Details getDetails(Term term) throws ApiError, IOException {
-        Response<Details> response = api.getDetails(term).execute();
-        if (response.isSuccessful()) {
-            return response.body();
-        } else {
-            throw getApiError(response);
+        Details local = localEvaluation ? DetailsAnalyzer.analyze(term) : null;
+        if (local != null) {
+            return local;
         }
+        return cached(OperationKey.of(ANALYZE_DETAILS, List.of(term)),
+                () -> execute(api.getDetails(term), Function.identity()));
     }
 
     public boolean equivalence(MultiTermsRequest multiTermsRequest) throws ApiError, IOException {
-        Response<BooleanResponse> response = api.equivalence(multiTermsRequest).execute();
-        if (response.isSuccessful()) {
-            return response.body().value();
-        } else {
-            throw getApiError(response);
+        Boolean local = localEquivalence(multiTermsRequest.getTerms());
+        if (local != null) {
+            return local;
         }
+        return cached(OperationKey.commutative(ANALYZE_EQUIVALENCE, multiTermsRequest.getTerms()),
+                () -> execute(api.equivalence(multiTermsRequest), BooleanResponse::value));
     }
 
     public boolean subset(MultiTermsRequest multiTermsRequest) throws ApiError, IOException {
-        Response<BooleanResponse> response = api.subset(multiTermsRequest).execute();
-        if (response.isSuccessful()) {
-            return response.body().value();
-        } else {
-            throw getApiError(response);
+        Boolean local = localSubset(multiTermsRequest.getTerms());
+        if (local != null) {
+            return local;
         }
+        return cached(OperationKey.of(ANALYZE_SUBSET, multiTermsRequest.getTerms()),
+                () -> execute(api.subset(multiTermsRequest), BooleanResponse::value));
     }
 
     public List<String> generateStrings(Term term, int count) throws ApiError, IOException {
+        LocalStringsGenerator local = localEvaluation ? LocalStringsGenerator.of(term, count) : null;
+        if (local != null) {
+            return local.toList();
+        }
         GenerateStringsRequest generateStringsRequest = new GenerateStringsRequest(term, count);
-        Response<StringsResponse> response = api.generateStrings(generateStringsRequest).execute();
-        if (response.isSuccessful()) {
-            return response.body().value();
-        } else {
-            throw getApiError(response);
+        return execute(api.generateStrings(generateStringsRequest), StringsResponse::value);
+    }
+
+    /**
+     * Generate strings lazily, in-process for simple regular expressions, otherwise requesting them by chunks and
+     * parsing each response as it is consumed.
+     */
+    GeneratedStrings streamStrings(Term term, int count) {
+        LocalStringsGenerator local = localEvaluation ? LocalStringsGenerator.of(term, count) : null;
+        if (local != null) {
+            return local;
+        }
+        return new StringsIterator(chunkCount -> execute(
+                api.generateStringsStream(new GenerateStringsRequest(term, chunkCount)), Function.identity()),
+                count, GENERATE_STRINGS_MAX_COUNT, STREAM_STRINGS_MAX_REMEMBERED);
+    }
+
+    public CompletableFuture<Term> computeIntersectionAsync(MultiTermsRequest multiTermsRequest) {
+        Term local = localEvaluation ? LiteralSet.intersection(multiTermsRequest.getTerms()) : null;
+        if (local != null) {
+            return CompletableFuture.completedFuture(local);
         }
+        return cachedAsync(OperationKey.commutative(COMPUTE_INTERSECTION, multiTermsRequest.getTerms()),
+                () -> enqueue(api.computeIntersection(multiTermsRequest), Function.identity()));
+    }
+
+    public CompletableFuture<Term> computeUnionAsync(MultiTermsRequest multiTermsRequest) {
+        Term local = localEvaluation ? LiteralSet.union(multiTermsRequest.getTerms()) : null;
+        if (local != null) {
+            return CompletableFuture.completedFuture(local);
+        }
+        return cachedAsync(OperationKey.commutative(COMPUTE_UNION, multiTermsRequest.getTerms()),
+                () -> enqueue(api.computeUnion(multiTermsRequest), Function.identity()));
+    }
+
+    public CompletableFuture<Term> computeSubtractionAsync(MultiTermsRequest multiTermsRequest) {
+        Term local = localEvaluation ? LiteralSet.subtraction(multiTermsRequest.getTerms()) : null;
+        if (local != null) {
+            return CompletableFuture.completedFuture(local);
+        }
+        return cachedAsync(OperationKey.of(COMPUTE_SUBTRACTION, multiTermsRequest.getTerms()),
+                () -> enqueue(api.computeSubtraction(multiTermsRequest), Function.identity()));
+    }
+
+    public CompletableFuture<Details> getDetailsAsync(Term term) {
+        Details local = localEvaluation ? DetailsAnalyzer.analyze(term) : null;
+        if (local != null) {
+            return CompletableFuture.completedFuture(local);
+        }
+        return cachedAsync(OperationKey.of(ANALYZE_DETAILS, List.of(term)),
+                () -> enqueue(api.getDetails(term), Function.identity()));
+    }
+
+    public CompletableFuture<Boolean> equivalenceAsync(MultiTermsRequest multiTermsRequest) {
+        Boolean local = localEquivalence(multiTermsRequest.getTerms());
+        if (local != null) {
+            return CompletableFuture.completedFuture(local);
+        }
+        return cachedAsync(OperationKey.commutative(ANALYZE_EQUIVALENCE, multiTermsRequest.getTerms()),
+                () -> enqueue(api.equivalence(multiTermsRequest), BooleanResponse::value));
+    }
+
+    public CompletableFuture<Boolean> subsetAsync(MultiTermsRequest multiTermsRequest) {
+        Boolean local = localSubset(multiTermsRequest.getTerms());
+        if (local != null) {
+            return CompletableFuture.completedFuture(local);
+        }
+        return cachedAsync(OperationKey.of(ANALYZE_SUBSET, multiTermsRequest.getTerms()),
+                () -> enqueue(api.subset(multiTermsRequest), BooleanResponse::value));
+    }
+
+    public CompletableFuture<List<String>> generateStringsAsync(Term term, int count) {
+        LocalStringsGenerator local = localEvaluation ? LocalStringsGenerator.of(term, count) : null;
+        if (local != null) {
+            return CompletableFuture.completedFuture(local.toList());
+        }
+        GenerateStringsRequest generateStringsRequest = new GenerateStringsRequest(term, count);
+        return enqueue(api.generateStrings(generateStringsRequest), StringsResponse::value);
+    }
+
+    private Boolean localSubset(List<Term> terms) {
+        Boolean local = localEvaluation ? LiteralSet.subset(terms) : null;
+        return local != null ? local : precheck.subset(terms, this::knownDetails);
+    }
+
+    private Boolean localEquivalence(List<Term> terms) {
+        Boolean local = localEvaluation ? LiteralSet.equivalence(terms) : null;
+        return local != null ? local : precheck.equivalence(terms, this::knownDetails);
+    }
+
+    /**
+     * Return the details of the given term if they can be known without requesting the API: already retrieved by the
+     * term, found in the result cache or, with local evaluation, computed in-process.
+     */
+    private Details knownDetails(Term term) {
+        Details details = term.getKnownDetails();
+        ResultCache cache = this.cache;
+        if (details == null && cache != null) {
+            details = cache.peek(OperationKey.of(ANALYZE_DETAILS, List.of(term)));
+        }
+        if (details == null && localEvaluation) {
+            details = DetailsAnalyzer.analyze(term);
+        }
+        return details;
+    }
+
+    private <T> T cached(OperationKey key, TermOperation<T> operation) throws ApiError, IOException {
+        ResultCache cache = this.cache;
+        DiskResultStore diskStore = this.diskStore;
+        T result = lookup(cache, diskStore, key);
+        if (result != null) {
+            return result;
+        }
+        return inFlight.execute(key, () -> {
+            T value = operation.execute();
+            store(cache, diskStore, key, value);
+            return value;
+        });
+    }
+
+    private <T> CompletableFuture<T> cachedAsync(OperationKey key, Supplier<CompletableFuture<T>> operation) {
+        ResultCache cache = this.cache;
+        DiskResultStore diskStore = this.diskStore;
+        T result;
+        try {
+            result = lookup(cache, diskStore, key);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        if (result != null) {
+            return CompletableFuture.completedFuture(result);
+        }
+        return inFlight.executeAsync(key, () -> {
+            CompletableFuture<T> future = operation.get();
+            if (cache == null && diskStore == null) {
+                return future;
+            }
+            // The result is stored before it is delivered, so that a caller requesting it again once it is delivered
+            // finds it in the cache.
+            CompletableFuture<T> stored = future.thenApply(value -> {
+                try {
+                    store(cache, diskStore, key, value);
+                } catch (IOException e) {
+                    // It will be requested again next time.
+                }
+                return value;
+            });
+            stored.whenComplete((value, throwable) -> {
+                if (stored.isCancelled()) {
+                    future.cancel(true);
+                }
+            });
+            return stored;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T lookup(ResultCache cache, DiskResultStore diskStore, OperationKey key) throws IOException {
+        T result = cache == null ? null : cache.get(key);
+        if (result == null && diskStore != null) {
+            result = (T) diskStore.get(key);
+            if (result != null && cache != null) {
+                cache.put(key, result);
+            }
+        }
+        if (result != null) {
+            metrics.getRecorder().recordCacheHit(key.getOperation());
+        } else if (cache != null || diskStore != null) {
+            metrics.getRecorder().recordCacheMiss(key.getOperation());
+        }
+        return result;
+    }
+
+    private static void store(ResultCache cache, DiskResultStore diskStore, OperationKey key, Object result) throws IOException {
+        if (cache != null) {
+            cache.put(key, result);
+        }
+        if (diskStore != null) {
+            diskStore.put(key, result);
+        }
+    }
+
+    /**
+     * Execute the given call on the calling thread, retrying it according to the resilience policy.
+     */
+    private <T, R> R execute(Call<T> call, Function<T, R> mapper) throws ApiError, IOException {
+        ResiliencePolicy.Retry retry = resilience.newRetry();
+        CircuitBreaker breaker = breaker(call);
+        Exception failure = null;
+        while (true) {
+            if (!breaker.tryAcquire()) {
+                // A retry interrupted by the circuit breaker returns the error of the last attempt.
+                if (failure instanceof ApiError) {
+                    throw (ApiError) failure;
+                } else if (failure != null) {
+                    throw (IOException) failure;
+                }
+                throw new CircuitOpenException(call.request().url().encodedPath());
+            }
+            try {
+                Hedger callHedger = hedger(call);
+                ConcurrencyLimiter callLimiter = limiter;
+                Response<T> response;
+                if (callHedger != null) {
+                    response = await(Hedger.send(call, callHedger, callLimiter));
+                } else {
+                    response = callLimiter != null ? callLimiter.execute(call) : call.execute();
+                }
+                if (response.isSuccessful()) {
+                    breaker.onSuccess();
+                    return mapper.apply(response.body());
+                }
+                failure = getApiError(response);
+            } catch (IOException e) {
+                failure = e;
+            }
+            if (call.isCanceled()) {
+                breaker.onCancel();
+            } else if (ResiliencePolicy.isFailure(failure)) {
+                breaker.onFailure();
+            } else {
+                breaker.onSuccess();
+            }
+
+            long delay = call.isCanceled() ? -1 : retry.nextDelayNanos(failure);
+            if (delay < 0) {
+                if (failure instanceof ApiError) {
+                    throw (ApiError) failure;
+                }
+                throw (IOException) failure;
+            }
+            recordRetry(call);
+            try {
+                TimeUnit.NANOSECONDS.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting to retry.");
+            }
+            call = call.clone();
+        }
+    }
+
+    /**
+     * Enqueue the given call and expose its outcome as a future, retrying it according to the resilience policy.
+     * Cancelling the returned future cancels the underlying call.
+     */
+    private <T, R> CompletableFuture<R> enqueue(Call<T> call, Function<T, R> mapper) {
+        CompletableFuture<R> future = new CompletableFuture<>();
+        AtomicReference<CompletableFuture<Response<T>>> current = new AtomicReference<>();
+        future.whenComplete((result, throwable) -> {
+            CompletableFuture<Response<T>> sent = current.get();
+            if (future.isCancelled() && sent != null) {
+                sent.cancel(true);
+            }
+        });
+        enqueue(call, mapper, future, current, resilience.newRetry(), breaker(call), null);
+        return future;
+    }
+
+    private <T, R> void enqueue(Call<T> call, Function<T, R> mapper, CompletableFuture<R> future,
+                                AtomicReference<CompletableFuture<Response<T>>> current,
+                                ResiliencePolicy.Retry retry, CircuitBreaker breaker,
+                                Throwable previousFailure) {
+        if (!breaker.tryAcquire()) {
+            future.completeExceptionally(previousFailure != null
+                    ? previousFailure
+                    : new CircuitOpenException(call.request().url().encodedPath()));
+            return;
+        }
+        CompletableFuture<Response<T>> sent = Hedger.send(call, hedger(call), limiter);
+        current.set(sent);
+        if (future.isCancelled()) {
+            sent.cancel(true);
+        }
+        sent.whenComplete((response, throwable) -> {
+            Throwable failure = throwable;
+            if (failure == null) {
+                if (response.isSuccessful()) {
+                    breaker.onSuccess();
+                    // The future would otherwise never complete if the response cannot be mapped.
+                    try {
+                        future.complete(mapper.apply(response.body()));
+                    } catch (RuntimeException e) {
+                        future.completeExceptionally(e);
+                    }
+                    return;
+                }
+                try {
+                    failure = getApiError(response);
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+
+            if (call.isCanceled() || failure instanceof CancellationException) {
+                breaker.onCancel();
+                future.completeExceptionally(failure);
+                return;
+            } else if (ResiliencePolicy.isFailure(failure)) {
+                breaker.onFailure();
+            } else {
+                breaker.onSuccess();
+            }
+
+            long delay = retry.nextDelayNanos(failure);
+            if (delay < 0) {
+                future.completeExceptionally(failure);
+                return;
+            }
+            recordRetry(call);
+            Throwable lastFailure = failure;
+            CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS).execute(() -> {
+                if (!future.isDone()) {
+                    enqueue(call.clone(), mapper, future, current, retry, breaker, lastFailure);
+                }
+            });
+        });
+    }
+
+    private void recordRetry(Call<?> call) {
+        metrics.getRecorder().recordRetry(MetricsInterceptor.endpoint(call.request().url().encodedPath()));
+    }
+
+    /**
+     * @return The hedger to use for the given call, or null if it should not be hedged: only the analyze and compute
+     * endpoints, which are idempotent, are hedged.
+     */
+    private Hedger hedger(Call<?> call) {
+        Hedger current = hedger;
+        if (current == null) {
+            return null;
+        }
+        String path = call.request().url().encodedPath();
+        return path.contains("/api/analyze/") || path.contains("/api/compute/") ? current : null;
+    }
+
+    /**
+     * Wait for the given response on the calling thread.
+     */
+    private static <T> Response<T> await(CompletableFuture<Response<T>> sent) throws IOException {
+        try {
+            return sent.get();
+        } catch (InterruptedException e) {
+            sent.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the response.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            } else if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    private CircuitBreaker breaker(Call<?> call) {
+        ResiliencePolicy policy = resilience;
+        return breakers.computeIfAbsent(call.request().url().encodedPath(), endpoint -> new CircuitBreaker(policy));
     }
 
     private static <T> ApiError getApiError(Response<T> response) throws IOException {
         assert !response.isSuccessful();
         try (ResponseBody errorBody = response.errorBody()) {
-            String json = Objects.requireNonNull(errorBody).string();
-            ObjectMapper mapper = new ObjectMapper();
-            return mapper.readValue(json, ApiError.class);
+            return JsonCodec.readApiError(Objects.requireNonNull(errorBody).byteStream(), response.code(),
+                    parseRetryAfter(response.headers().get("Retry-After")));
+        }
+    }
+
+    /**
+     * Parse a {@code Retry-After} header, either a number of seconds or an HTTP date.
+     *
+     * @return The delay, or null if the header is missing or invalid.
+     */
+    static Duration parseRetryAfter(String retryAfter) {
+        if (retryAfter == null) {
+            return null;
+        }
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(retryAfter.trim())));
+        } catch (NumberFormatException e) {
+            // Not a number of seconds.
+        }
+        try {
+            Duration delay = Duration.between(Instant.now(),
+                    ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant());
+            return delay.isNegative() ? Duration.ZERO : delay;
+        } catch (DateTimeParseException e) {
+            return null;
         }
     }
 
     private interface RegexApi {
-        @POST("api/compute/intersection")
+        @POST(COMPUTE_INTERSECTION)
         Call<Term> computeIntersection(@Body MultiTermsRequest multiTermsRequest);
 
-        @POST("api/compute/union")
+        @POST(COMPUTE_UNION)
         Call<Term> computeUnion(@Body MultiTermsRequest multiTermsRequest);
 
-        @POST("api/compute/subtraction")
+        @POST(COMPUTE_SUBTRACTION)
         Call<Term> computeSubtraction(@Body MultiTermsRequest multiTermsRequest);
 
-        @POST("api/analyze/details")
+        @POST(ANALYZE_DETAILS)
         Call<Details> getDetails(@Body Term term);
 
-        @POST("api/analyze/equivalence")
+        @POST(ANALYZE_EQUIVALENCE)
         Call<BooleanResponse> equivalence(@Body MultiTermsRequest multiTermsRequest);
 
-        @POST("api/analyze/subset")
+        @POST(ANALYZE_SUBSET)
         Call<BooleanResponse> subset(@Body MultiTermsRequest multiTermsRequest);
 
-        @POST("api/generate/strings")
+        @POST(GENERATE_STRINGS)
         Call<StringsResponse> generateStrings(@Body GenerateStringsRequest request);
+
+        @Streaming
+        @POST(GENERATE_STRINGS)
+        Call<ResponseBody> generateStringsStream(@Body GenerateStringsRequest request);
     }
 }
@@ -0,0 +1,614 @@
+package com.regexsolver.api;
+
+import com.regexsolver.api.Request.MultiTermsRequest;
+import com.regexsolver.api.dto.CompressionStats;
+import com.regexsolver.api.dto.Details;
+import com.regexsolver.api.dto.PrecheckStats;
+import com.regexsolver.api.exception.ApiError;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * A client of the RegexSolver API with its own connection pool, dispatcher, timeouts and caches.
+ * <p>
+ * The operations of {@link Term} run against a default client configured with {@link RegexSolver#initialize(String)}.
+ * Instances of this class allow to isolate workloads from each other, each one with its own resources:
+ * </p>
+ * <pre>{@code
+ * try (RegexSolverClient client = RegexSolverClient.builder()
+ *         .token("YOUR TOKEN HERE")
+ *         .maxRequestsPerHost(64)
+ *         .maxIdleConnections(64)
+ *         .readTimeout(Duration.ofSeconds(30))
+ *         .build()) {
+ *     boolean result = client.isSubsetOf(Term.regex("de"), Term.regex("(abc|de)"));
+ * }
+ * }</pre>
+ */
+public final class RegexSolverClient implements Closeable {
+    private final RegexSolverApiWrapper wrapper;
+
+    private RegexSolverClient(Builder builder) {
+        this.wrapper = new RegexSolverApiWrapper(builder.copy());
+    }
+
+    /**
+     * @return A new builder initialized with the default settings.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    RegexSolverApiWrapper getWrapper() {
+        return wrapper;
+    }
+
+    /**
+     * Compute the intersection of the given terms and return the resulting term.
+     *
+     * @param term  The first term.
+     * @param terms The terms to compute an intersection with.
+     * @return The resulting term
+     * @throws IOException In case of issues requesting the API server.
+     * @throws ApiError    In case of error returned by the API.
+     * @see Term#intersection(Term...)
+     */
+    public Term intersection(Term term, Term... terms) throws IOException, ApiError {
+        return wrapper.computeIntersection(new MultiTermsRequest(term.getArgs(terms)));
+    }
+
+    /**
+     * Compute the union of the given terms and return the resulting term.
+     *
+     * @param term  The first term.
+     * @param terms The terms to compute a union with.
+     * @return The resulting term
+     * @throws IOException In case of issues requesting the API server.
+     * @throws ApiError    In case of error returned by the API.
+     * @see Term#union(Term...)
+     */
+    public Term union(Term term, Term... terms) throws IOException, ApiError {
+        return wrapper.computeUnion(new MultiTermsRequest(term.getArgs(terms)));
+    }
+
+    /**
+     * Compute the first term minus the second and return the resulting term.
+     *
+     * @param term       The term to subtract from.
+     * @param subtrahend The term to subtract.
+     * @return The resulting term
+     * @throws IOException In case of issues requesting the API server.
+     * @throws ApiError    In case of error returned by the API.
+     * @see Term#subtraction(Term)
+     */
+    public Term subtraction(Term term, Term subtrahend) throws IOException, ApiError {
+        return wrapper.computeSubtraction(new MultiTermsRequest(term.getArgs(subtrahend)));
+    }
+
+    /**
+     * Check if the given terms are equivalent.
+     *
+     * @param term  The first term.
+     * @param other The term to check equivalence with.
+     * @return true if the terms are equivalent, false otherwise.
+     * @throws IOException In case of issues requesting the API server.
+     * @throws ApiError    In case of error returned by the API.
+     * @see Term#isEquivalentTo(Term)
+     */
+    public boolean isEquivalentTo(Term term, Term other) throws IOException, ApiError {
+        return wrapper.equivalence(new MultiTermsRequest(term.getArgs(other)));
+    }
+
+    /**
+     * Check if the first term is a subset of the second.
+     *
+     * @param term     The term to check if is the subset.
+     * @param superset The term to check if is the superset.
+     * @return true if the first term is a subset of the second, false otherwise.
+     * @throws IOException In case of issues requesting the API server.
+     * @throws ApiError    In case of error returned by the API.
+     * @see Term#isSubsetOf(Term)
+     */
+    public boolean isSubsetOf(Term term, Term superset) throws IOException, ApiError {
+        return wrapper.subset(new MultiTermsRequest(term.getArgs(superset)));
+    }
+
+    /**
+     * Get the details of the given term.
+     *
+     * @param term The term to analyze.
+     * @return The details of the term.
+     * @throws IOException In case of issues requesting the API server.
+     * @throws ApiError    In case of error returned by the API.
+     * @see Term#getDetails()
+     */
+    public Details getDetails(Term term) throws IOException, ApiError {
+        return term.getDetails(wrapper);
+    }
+
+    /**
+     * Generate the given number of unique strings matched by the given term.
+     *
+     * @param term  The term to generate strings from.
+     * @param count The number of unique strings to generate.
+     * @return A list of unique strings matched by the term.
+     * @throws IOException In case of issues requesting the API server.
+     * @throws ApiError    In case of error returned by the API.
+     * @see Term#generateStrings(int)
+     */
+    public List<String> generateStrings(Term term, int count) throws IOException, ApiError {
+        return wrapper.generateStrings(term, count);
+    }
+
+    /**
+     * Lazily generate the given number of unique strings matched by the given term.
+     *
+     * @param term  The term to generate strings from.
+     * @param count The number of unique strings to generate.
+     * @return A stream of unique strings matched by the term, it has to be closed if not fully consumed.
+     * @see Term#streamStrings(int)
+     */
+    public Stream<String> streamStrings(Term term, int count) {
+        return term.streamStrings(wrapper, count);
+    }
+
+    /**
+     * Generate the given number of unique strings matched by the given term and pass them one by one to the given
+     * consumer.
+     *
+     * @param term     The term to generate strings from.
+     * @param count    The number of unique strings to generate.
+     * @param consumer The consumer of the generated strings.
+     * @throws IOException In case of issues requesting the API server.
+     * @throws ApiError    In case of error returned by the API.
+     * @see Term#generateStrings(int, Consumer)
+     */
+    public void generateStrings(Term term, int count, Consumer<String> consumer) throws IOException, ApiError {
+        term.generateStrings(wrapper, count, consumer);
+    }
+
+    /**
+     * @param term  The first term.
+     * @param terms The terms to compute an intersection with.
+     * @return A future completed with the resulting term.
+     * @see Term#intersectionAsync(Term...)
+     */
+    public CompletableFuture<Term> intersectionAsync(Term term, Term... terms) {
+        return wrapper.computeIntersectionAsync(new MultiTermsRequest(term.getArgs(terms)));
+    }
+
+    /**
+     * @param term  The first term.
+     * @param terms The terms to compute a union with.
+     * @return A future completed with the resulting term.
+     * @see Term#unionAsync(Term...)
+     */
+    public CompletableFuture<Term> unionAsync(Term term, Term... terms) {
+        return wrapper.computeUnionAsync(new MultiTermsRequest(term.getArgs(terms)));
+    }
+
+    /**
+     * @param term       The term to subtract from.
+     * @param subtrahend The term to subtract.
+     * @return A future completed with the resulting term.
+     * @see Term#subtractionAsync(Term)
+     */
+    public CompletableFuture<Term> subtractionAsync(Term term, Term subtrahend) {
+        return wrapper.computeSubtractionAsync(new MultiTermsRequest(term.getArgs(subtrahend)));
+    }
+
+    /**
+     * @param term  The first term.
+     * @param other The term to check equivalence with.
+     * @return A future completed with true if the terms are equivalent, false otherwise.
+     * @see Term#isEquivalentToAsync(Term)
+     */
+    public CompletableFuture<Boolean> isEquivalentToAsync(Term term, Term other) {
+        return wrapper.equivalenceAsync(new MultiTermsRequest(term.getArgs(other)));
+    }
+
+    /**
+     * @param term     The term to check if is the subset.
+     * @param superset The term to check if is the superset.
+     * @return A future completed with true if the first term is a subset of the second, false otherwise.
+     * @see Term#isSubsetOfAsync(Term)
+     */
+    public CompletableFuture<Boolean> isSubsetOfAsync(Term term, Term superset) {
+        return wrapper.subsetAsync(new MultiTermsRequest(term.getArgs(superset)));
+    }
+
+    /**
+     * @param term The term to analyze.
+     * @return A future completed with the details of the term.
+     * @see Term#getDetailsAsync()
+     */
+    public CompletableFuture<Details> getDetailsAsync(Term term) {
+        return term.getDetailsAsync(wrapper);
+    }
+
+    /**
+     * @param term  The term to generate strings from.
+     * @param count The number of unique strings to generate.
+     * @return A future completed with a list of unique strings matched by the term.
+     * @see Term#generateStringsAsync(int)
+     */
+    public CompletableFuture<List<String>> generateStringsAsync(Term term, int count) {
+        return wrapper.generateStringsAsync(term, count);
+    }
+
+    /**
+     * @return A snapshot of the statistics about the compression of the bodies exchanged by this client.
+     */
+    public CompressionStats getCompressionStats() {
+        return wrapper.getCompressionStats();
+    }
+
+    /**
+     * @return A snapshot of the statistics about the subset and equivalence operations decided locally by this client
+     * from the details already known of their operands.
+     */
+    public PrecheckStats getPrecheckStats() {
+        return wrapper.getPrecheckStats();
+    }
+
+    /**
+     * Release the threads and the pooled connections of this client.
+     * The {@link ResultCache} and {@link DiskResultStore} given to the builder are left untouched.
+     */
+    @Override
+    public void close() {
+        wrapper.close();
+    }
+
+    /**
+     * Builder of {@link RegexSolverClient}, the defaults are the same as the ones of the default client.
+     */
+    public static final class Builder {
+        static final String DEFAULT_BASE_URL = "https://api.regexsolver.com/";
+        static final int DEFAULT_MAX_IDLE_CONNECTIONS = 5;
+        static final int DEFAULT_MAX_REQUESTS = 64;
+        static final int DEFAULT_MAX_REQUESTS_PER_HOST = 5;
+
+        private String token;
+        private String baseUrl = DEFAULT_BASE_URL;
+        private int maxIdleConnections = DEFAULT_MAX_IDLE_CONNECTIONS;
+        private Duration keepAlive = Duration.ofMinutes(5);
+        private int maxRequests = DEFAULT_MAX_REQUESTS;
+        private int maxRequestsPerHost = DEFAULT_MAX_REQUESTS_PER_HOST;
+        private Duration connectTimeout = Duration.ofSeconds(10);
+        private Duration readTimeout = Duration.ofSeconds(10);
+        private Duration writeTimeout = Duration.ofSeconds(10);
+        private Duration callTimeout = Duration.ZERO;
+        private boolean virtualThreads = false;
+        private boolean streamingCodec = true;
+        private int requestCompressionThreshold = -1;
+        private boolean localEvaluation = false;
+        private ResiliencePolicy resiliencePolicy = ResiliencePolicy.NONE;
+        private HedgingPolicy hedgingPolicy;
+        private ConcurrencyLimitPolicy concurrencyLimitPolicy;
+        private MetricsRecorder metricsRecorder = MetricsRecorder.NONE;
+        private ResultCache resultCache;
+        private DiskResultStore diskResultStore;
+
+        private Builder() {
+        }
+
+        /**
+         * @param token The API token, generated on the <a href="https://console.regexsolver.com/">RegexSolver Console</a>.
+         * @return This builder.
+         */
+        public Builder token(String token) {
+            this.token = token;
+            return this;
+        }
+
+        /**
+         * @param baseUrl The base URL of the API server.
+         * @return This builder.
+         */
+        public Builder baseUrl(String baseUrl) {
+            this.baseUrl = Objects.requireNonNull(baseUrl);
+            return this;
+        }
+
+        /**
+         * @param maxIdleConnections The maximum number of idle connections kept in the pool, 5 by default.
+         * @return This builder.
+         */
+        public Builder maxIdleConnections(int maxIdleConnections) {
+            this.maxIdleConnections = requirePositive(maxIdleConnections, "maxIdleConnections");
+            return this;
+        }
+
+        /**
+         * @param keepAlive How long an idle connection is kept in the pool, 5 minutes by default.
+         * @return This builder.
+         */
+        public Builder keepAlive(Duration keepAlive) {
+            this.keepAlive = Objects.requireNonNull(keepAlive);
+            return this;
+        }
+
+        /**
+         * @param maxRequests The maximum number of asynchronous requests executed concurrently, 64 by default.
+         * @return This builder.
+         */
+        public Builder maxRequests(int maxRequests) {
+            this.maxRequests = requirePositive(maxRequests, "maxRequests");
+            return this;
+        }
+
+        /**
+         * @param maxRequestsPerHost The maximum number of asynchronous requests executed concurrently against the
+         *                           API server, 5 by default. It also bounds the requests in flight of the batch
+         *                           helpers using this client, such as {@link SubsetAnalyzer}.
+         * @return This builder.
+         */
+        public Builder maxRequestsPerHost(int maxRequestsPerHost) {
+            this.maxRequestsPerHost = requirePositive(maxRequestsPerHost, "maxRequestsPerHost");
+            return this;
+        }
+
+        /**
+         * @param connectTimeout The connect timeout, 10 seconds by default, zero for no timeout.
+         * @return This builder.
+         */
+        public Builder connectTimeout(Duration connectTimeout) {
+            this.connectTimeout = Objects.requireNonNull(connectTimeout);
+            return this;
+        }
+
+        /**
+         * @param readTimeout The read timeout, 10 seconds by default, zero for no timeout.
+         * @return This builder.
+         */
+        public Builder readTimeout(Duration readTimeout) {
+            this.readTimeout = Objects.requireNonNull(readTimeout);
+            return this;
+        }
+
+        /**
+         * @param writeTimeout The write timeout, 10 seconds by default, zero for no timeout.
+         * @return This builder.
+         */
+        public Builder writeTimeout(Duration writeTimeout) {
+            this.writeTimeout = Objects.requireNonNull(writeTimeout);
+            return this;
+        }
+
+        /**
+         * @param callTimeout The timeout of a complete call, no timeout by default.
+         * @return This builder.
+         */
+        public Builder callTimeout(Duration callTimeout) {
+            this.callTimeout = Objects.requireNonNull(callTimeout);
+            return this;
+        }
+
+        /**
+         * @param virtualThreads true to dispatch asynchronous calls on virtual threads, see {@link VirtualThreads}.
+         * @return This builder.
+         */
+        public Builder virtualThreads(boolean virtualThreads) {
+            this.virtualThreads = virtualThreads;
+            return this;
+        }
+
+        /**
+         * @param streamingCodec true to encode and decode the JSON exchanged with the API with a hand-written
+         *                       streaming codec, false to use the Jackson data binding. True by default.
+         * @return This builder.
+         */
+        public Builder streamingCodec(boolean streamingCodec) {
+            this.streamingCodec = streamingCodec;
+            return this;
+        }
+
+        /**
+         * @param localEvaluation true to compute the operations on finite sets of literals, such as {@code abc|de},
+         *                        in-process instead of requesting the API. False by default.
+         * @return This builder.
+         */
+        public Builder localEvaluation(boolean localEvaluation) {
+            this.localEvaluation = localEvaluation;
+            return this;
+        }
+
+        /**
+         * @param resiliencePolicy How requests are retried on transient failures and when endpoints are considered
+         *                         unhealthy. {@link ResiliencePolicy#NONE} by default, use
+         *                         {@link ResiliencePolicy#DEFAULT} to retry transient failures.
+         * @return This builder.
+         */
+        public Builder resiliencePolicy(ResiliencePolicy resiliencePolicy) {
+            this.resiliencePolicy = Objects.requireNonNull(resiliencePolicy);
+            return this;
+        }
+
+        /**
+         * @param hedgingPolicy When duplicate requests are sent to the analyze and compute endpoints to cut the tail
+         *                      latency, null to never send any. Disabled by default.
+         * @return This builder.
+         */
+        public Builder hedgingPolicy(HedgingPolicy hedgingPolicy) {
+            this.hedgingPolicy = hedgingPolicy;
+            return this;
+        }
+
+        /**
+         * @param concurrencyLimitPolicy How many requests can be in flight against the API, adapting to how loaded it
+         *                               is, null to only apply the limits of the dispatcher. Disabled by default.
+         * @return This builder.
+         */
+        public Builder concurrencyLimitPolicy(ConcurrencyLimitPolicy concurrencyLimitPolicy) {
+            this.concurrencyLimitPolicy = concurrencyLimitPolicy;
+            return this;
+        }
+
+        /**
+         * @param metricsRecorder Receives the metrics of the requests sent to the API.
+         *                        {@link MetricsRecorder#NONE} by default.
+         * @return This builder.
+         */
+        public Builder metricsRecorder(MetricsRecorder metricsRecorder) {
+            this.metricsRecorder = Objects.requireNonNull(metricsRecorder);
+            return this;
+        }
+
+        /**
+         * @param requestCompressionThreshold The minimum size in bytes of the request bodies to send gzip-compressed,
+         *                                    negative to never compress them. Disabled by default.
+         *                                    Compressed responses are always accepted.
+         * @return This builder.
+         */
+        public Builder requestCompressionThreshold(int requestCompressionThreshold) {
+            this.requestCompressionThreshold = requestCompressionThreshold;
+            return this;
+        }
+
+        /**
+         * @param resultCache The cache in which results are looked up before requesting the API, null for none.
+         * @return This builder.
+         */
+        public Builder resultCache(ResultCache resultCache) {
+            this.resultCache = resultCache;
+            return this;
+        }
+
+        /**
+         * @param diskResultStore The persistent store in which results are looked up before requesting the API,
+         *                        null for none.
+         * @return This builder.
+         */
+        public Builder diskResultStore(DiskResultStore diskResultStore) {
+            this.diskResultStore = diskResultStore;
+            return this;
+        }
+
+        /**
+         * @return A new client, it has to be closed once no longer used.
+         */
+        public RegexSolverClient build() {
+            return new RegexSolverClient(this);
+        }
+
+        Builder copy() {
+            Builder copy = new Builder();
+            copy.token = token;
+            copy.baseUrl = baseUrl;
+            copy.maxIdleConnections = maxIdleConnections;
+            copy.keepAlive = keepAlive;
+            copy.maxRequests = maxRequests;
+            copy.maxRequestsPerHost = maxRequestsPerHost;
+            copy.connectTimeout = connectTimeout;
+            copy.readTimeout = readTimeout;
+            copy.writeTimeout = writeTimeout;
+            copy.callTimeout = callTimeout;
+            copy.virtualThreads = virtualThreads;
+            copy.streamingCodec = streamingCodec;
+            copy.requestCompressionThreshold = requestCompressionThreshold;
+            copy.localEvaluation = localEvaluation;
+            copy.resiliencePolicy = resiliencePolicy;
+            copy.hedgingPolicy = hedgingPolicy;
+            copy.concurrencyLimitPolicy = concurrencyLimitPolicy;
+            copy.metricsRecorder = metricsRecorder;
+            copy.resultCache = resultCache;
+            copy.diskResultStore = diskResultStore;
+            return copy;
+        }
+
+        String getToken() {
+            return token;
+        }
+
+        String getBaseUrl() {
+            return baseUrl;
+        }
+
+        int getMaxIdleConnections() {
+            return maxIdleConnections;
+        }
+
+        Duration getKeepAlive() {
+            return keepAlive;
+        }
+
+        int getMaxRequests() {
+            return maxRequests;
+        }
+
+        int getMaxRequestsPerHost() {
+            return maxRequestsPerHost;
+        }
+
+        Duration getConnectTimeout() {
+            return connectTimeout;
+        }
+
+        Duration getReadTimeout() {
+            return readTimeout;
+        }
+
+        Duration getWriteTimeout() {
+            return writeTimeout;
+        }
+
+        Duration getCallTimeout() {
+            return callTimeout;
+        }
+
+        boolean isVirtualThreads() {
+            return virtualThreads;
+        }
+
+        boolean isStreamingCodec() {
+            return streamingCodec;
+        }
+
+        ResiliencePolicy getResiliencePolicy() {
+            return resiliencePolicy;
+        }
+
+        HedgingPolicy getHedgingPolicy() {
+            return hedgingPolicy;
+        }
+
+        ConcurrencyLimitPolicy getConcurrencyLimitPolicy() {
+            return concurrencyLimitPolicy;
+        }
+
+        MetricsRecorder getMetricsRecorder() {
+            return metricsRecorder;
+        }
+
+        boolean isLocalEvaluation() {
+            return localEvaluation;
+        }
+
+        int getRequestCompressionThreshold() {
+            return requestCompressionThreshold;
+        }
+
+        ResultCache getResultCache() {
+            return resultCache;
+        }
+
+        DiskResultStore getDiskResultStore() {
+            return diskResultStore;
+        }
+
+        private static int requirePositive(int value, String name) {
+            if (value <= 0) {
+                throw new IllegalArgumentException(name + " must be positive.");
+            }
+            return value;
+        }
+    }
+}
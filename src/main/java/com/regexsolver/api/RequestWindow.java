@@ -0,0 +1,138 @@
+package com.regexsolver.api;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Start asynchronous requests with a bounded number of them in flight, the others waiting for a slot in the order they
+ * were launched.
+ */
+final class RequestWindow {
+    private final int maxInFlight;
+
+    private final Queue<Pending<?>> pending = new ArrayDeque<>();
+    private final Set<CompletableFuture<?>> started = new HashSet<>();
+    private final AtomicInteger pendingDrains = new AtomicInteger();
+    private int inFlight = 0;
+    private volatile boolean cancelled = false;
+
+    RequestWindow(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Start the given request once a slot of the window is available.
+     */
+    <T> CompletableFuture<T> launch(Supplier<CompletableFuture<T>> request) {
+        Pending<T> launched = new Pending<>(request);
+        synchronized (this) {
+            if (cancelled) {
+                launched.result.completeExceptionally(new CancellationException());
+                return launched.result;
+            }
+            pending.add(launched);
+        }
+        drain();
+        return launched.result;
+    }
+
+    private <T> void start(Pending<T> launched) {
+        CompletableFuture<T> upstream;
+        try {
+            upstream = launched.request.get();
+        } catch (RuntimeException e) {
+            upstream = CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<T> call = upstream;
+        synchronized (this) {
+            started.add(call);
+        }
+        upstream.whenComplete((value, throwable) -> {
+            synchronized (this) {
+                started.remove(call);
+                inFlight--;
+            }
+            if (throwable != null) {
+                launched.result.completeExceptionally(unwrap(throwable));
+            } else {
+                launched.result.complete(value);
+            }
+            drain();
+        });
+    }
+
+    /**
+     * Start pending requests until the window is full.
+     * Requests completing synchronously, for example from a cache, trigger a drain from within the loop:
+     * it is coalesced with the current one instead of recursing.
+     */
+    private void drain() {
+        if (pendingDrains.getAndIncrement() != 0) {
+            return;
+        }
+        do {
+            while (true) {
+                Pending<?> next;
+                synchronized (this) {
+                    if (cancelled || inFlight >= maxInFlight || pending.isEmpty()) {
+                        break;
+                    }
+                    inFlight++;
+                    next = pending.poll();
+                }
+                start(next);
+            }
+        } while (pendingDrains.decrementAndGet() != 0);
+    }
+
+    /**
+     * Drop the requests not yet started, their results completing with a {@link CancellationException}, and cancel
+     * the ones in flight.
+     */
+    void cancel() {
+        List<Pending<?>> dropped;
+        List<CompletableFuture<?>> toCancel;
+        synchronized (this) {
+            cancelled = true;
+            dropped = new ArrayList<>(pending);
+            pending.clear();
+            toCancel = new ArrayList<>(started);
+        }
+        for (Pending<?> launched : dropped) {
+            launched.result.completeExceptionally(new CancellationException());
+        }
+        for (CompletableFuture<?> future : toCancel) {
+            future.cancel(true);
+        }
+    }
+
+    /**
+     * A request waiting for a slot, along with the result handed out when it was launched.
+     */
+    private static final class Pending<T> {
+        private final Supplier<CompletableFuture<T>> request;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        private Pending(Supplier<CompletableFuture<T>> request) {
+            this.request = request;
+        }
+    }
+
+    static Throwable unwrap(Throwable throwable) {
+        if ((throwable instanceof CompletionException || throwable instanceof ExecutionException)
+                && throwable.getCause() != null) {
+            return throwable.getCause();
+        }
+        return throwable;
+    }
+}
@@ -0,0 +1,222 @@
+package com.regexsolver.api;
+
+import com.regexsolver.api.exception.ApiError;
+import com.regexsolver.api.exception.CircuitOpenException;
+import com.regexsolver.api.exception.ConcurrencyLimitException;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * How requests to the API are retried on transient failures, and when an endpoint is considered unhealthy.
+ * <p>
+ * Connection failures, timeouts and retryable API errors, see {@link ApiError#isRetryable()}, are retried with an
+ * exponential backoff with decorrelated jitter, so that clients failing at the same time do not retry in sync.
+ * A {@code Retry-After} header is honoured, unless it exceeds the maximum backoff in which case the error is returned
+ * right away.
+ * </p>
+ * <p>
+ * Each endpoint has its own circuit breaker: after a number of consecutive failures it opens and the requests to this
+ * endpoint fail fast with a {@link CircuitOpenException}. Once the open duration has elapsed, a single request is let
+ * through to probe the endpoint, closing the circuit breaker if it succeeds.
+ * </p>
+ * <pre>{@code
+ * RegexSolver.setResiliencePolicy(ResiliencePolicy.builder()
+ *         .maxAttempts(5)
+ *         .maxBackoff(Duration.ofSeconds(2))
+ *         .build());
+ * }</pre>
+ */
+public final class ResiliencePolicy {
+    /**
+     * Retry up to 3 attempts and open the circuit breaker of an endpoint for 30 seconds after 5 consecutive failures.
+     * Clients do not use it unless opted in, see {@link RegexSolver#setResiliencePolicy(ResiliencePolicy)}.
+     */
+    public static final ResiliencePolicy DEFAULT = builder().build();
+
+    /**
+     * Never retry and never open the circuit breakers, the default.
+     */
+    public static final ResiliencePolicy NONE = builder().maxAttempts(1).failureThreshold(0).build();
+
+    private final int maxAttempts;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+    private final int failureThreshold;
+    private final long openDurationNanos;
+
+    private ResiliencePolicy(Builder builder) {
+        this.maxAttempts = builder.maxAttempts;
+        this.initialBackoffNanos = builder.initialBackoff.toNanos();
+        this.maxBackoffNanos = builder.maxBackoff.toNanos();
+        this.failureThreshold = builder.failureThreshold;
+        this.openDurationNanos = builder.openDuration.toNanos();
+    }
+
+    /**
+     * @return A new builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    int getFailureThreshold() {
+        return failureThreshold;
+    }
+
+    long getOpenDurationNanos() {
+        return openDurationNanos;
+    }
+
+    /**
+     * @return The retry state of a new request.
+     */
+    Retry newRetry() {
+        return new Retry();
+    }
+
+    /**
+     * @return true if the given failure means that the endpoint is unhealthy.
+     */
+    static boolean isFailure(Throwable failure) {
+        if (failure instanceof ApiError) {
+            int statusCode = ((ApiError) failure).getStatusCode();
+            return statusCode >= 500 || statusCode == 429 || statusCode == 408;
+        }
+        return failure instanceof IOException && !(failure instanceof CircuitOpenException)
+                && !(failure instanceof ConcurrencyLimitException);
+    }
+
+    /**
+     * @return true if the request that failed with the given failure may succeed if retried.
+     */
+    static boolean isRetryable(Throwable failure) {
+        if (failure instanceof ApiError) {
+            return ((ApiError) failure).isRetryable();
+        } else if (failure instanceof CircuitOpenException || failure instanceof ConcurrencyLimitException) {
+            return false;
+        } else if (failure instanceof InterruptedIOException) {
+            // Timeouts are retried, but not interruptions.
+            return failure instanceof SocketTimeoutException;
+        }
+        return failure instanceof IOException;
+    }
+
+    /**
+     * The retry state of a single request.
+     */
+    final class Retry {
+        private int attempts = 0;
+        private long previousBackoffNanos = 0;
+
+        /**
+         * Record a failed attempt.
+         *
+         * @return The delay in nanoseconds before the next attempt, or -1 if the failure has to be returned.
+         */
+        long nextDelayNanos(Throwable failure) {
+            attempts++;
+            if (attempts >= maxAttempts || !isRetryable(failure)) {
+                return -1;
+            }
+            long upper = Math.max(initialBackoffNanos, Math.min(maxBackoffNanos, previousBackoffNanos * 3));
+            long backoff = upper > initialBackoffNanos
+                    ? ThreadLocalRandom.current().nextLong(initialBackoffNanos, upper + 1)
+                    : initialBackoffNanos;
+            previousBackoffNanos = backoff;
+
+            if (failure instanceof ApiError) {
+                Duration retryAfter = ((ApiError) failure).getRetryAfter().orElse(null);
+                if (retryAfter != null) {
+                    if (retryAfter.toNanos() > maxBackoffNanos) {
+                        return -1;
+                    }
+                    return Math.max(backoff, retryAfter.toNanos());
+                }
+            }
+            return backoff;
+        }
+    }
+
+    /**
+     * Builder of {@link ResiliencePolicy}.
+     */
+    public static final class Builder {
+        private int maxAttempts = 3;
+        private Duration initialBackoff = Duration.ofMillis(100);
+        private Duration maxBackoff = Duration.ofSeconds(10);
+        private int failureThreshold = 5;
+        private Duration openDuration = Duration.ofSeconds(30);
+
+        private Builder() {
+        }
+
+        /**
+         * @param maxAttempts The maximum number of attempts of a request, including the first one. 3 by default,
+         *                    1 to never retry.
+         * @return This builder.
+         */
+        public Builder maxAttempts(int maxAttempts) {
+            if (maxAttempts <= 0) {
+                throw new IllegalArgumentException("The maximum number of attempts must be positive.");
+            }
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        /**
+         * @param initialBackoff The minimum delay before retrying a request. 100 milliseconds by default.
+         * @return This builder.
+         */
+        public Builder initialBackoff(Duration initialBackoff) {
+            this.initialBackoff = Objects.requireNonNull(initialBackoff);
+            return this;
+        }
+
+        /**
+         * @param maxBackoff The maximum delay before retrying a request. 10 seconds by default.
+         * @return This builder.
+         */
+        public Builder maxBackoff(Duration maxBackoff) {
+            this.maxBackoff = Objects.requireNonNull(maxBackoff);
+            return this;
+        }
+
+        /**
+         * @param failureThreshold The number of consecutive failures of an endpoint opening its circuit breaker.
+         *                         5 by default, 0 to never open it.
+         * @return This builder.
+         */
+        public Builder failureThreshold(int failureThreshold) {
+            if (failureThreshold < 0) {
+                throw new IllegalArgumentException("The failure threshold cannot be negative.");
+            }
+            this.failureThreshold = failureThreshold;
+            return this;
+        }
+
+        /**
+         * @param openDuration How long an open circuit breaker fails fast before probing its endpoint again.
+         *                     30 seconds by default.
+         * @return This builder.
+         */
+        public Builder openDuration(Duration openDuration) {
+            this.openDuration = Objects.requireNonNull(openDuration);
+            return this;
+        }
+
+        /**
+         * @return The policy.
+         */
+        public ResiliencePolicy build() {
+            if (initialBackoff.compareTo(maxBackoff) > 0) {
+                throw new IllegalArgumentException("The initial backoff cannot exceed the maximum backoff.");
+            }
+            return new ResiliencePolicy(this);
+        }
+    }
+}
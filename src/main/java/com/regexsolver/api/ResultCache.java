@@ -0,0 +1,127 @@
+package com.regexsolver.api;
+
+import com.regexsolver.api.dto.CacheStats;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+import java.util.function.LongSupplier;
+
+/**
+ * A bounded in-memory cache of operation results, evicting the least recently used entries first.
+ * <p>
+ * Once set with {@link RegexSolver#setResultCache(ResultCache)}, the results of intersection, union, subtraction,
+ * equivalence, subset and details operations are looked up in this cache before requesting the API.
+ * The operands of commutative operations are put in a canonical order, so {@code a.union(b)} and {@code b.union(a)}
+ * share the same entry.
+ * Expired results are only dropped when read or when they are the least recently used on overflow, so storing a
+ * result never walks the whole cache.
+ * </p>
+ */
+public final class ResultCache {
+    private final int maximumSize;
+    private final long timeToLiveNanos;
+    private final LongSupplier nanoTime;
+
+    private final LinkedHashMap<OperationKey, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long hitCount = 0;
+    private long missCount = 0;
+    private long evictionCount = 0;
+
+    /**
+     * Create a new instance.
+     *
+     * @param maximumSize The maximum number of results to keep.
+     * @param timeToLive  How long a result is kept after being stored.
+     */
+    public ResultCache(int maximumSize, Duration timeToLive) {
+        this(maximumSize, timeToLive, System::nanoTime);
+    }
+
+    ResultCache(int maximumSize, Duration timeToLive, LongSupplier nanoTime) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("The maximum size must be positive.");
+        }
+        if (timeToLive.isNegative() || timeToLive.isZero()) {
+            throw new IllegalArgumentException("The time to live must be positive.");
+        }
+        this.maximumSize = maximumSize;
+        this.timeToLiveNanos = timeToLive.toNanos();
+        this.nanoTime = Objects.requireNonNull(nanoTime);
+    }
+
+    @SuppressWarnings("unchecked")
+    synchronized <T> T get(OperationKey key) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.isExpired(nanoTime.getAsLong())) {
+            entries.remove(key);
+            evictionCount++;
+            entry = null;
+        }
+        if (entry == null) {
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        return (T) entry.value;
+    }
+
+    /**
+     * Return the value cached for the given key, if any, without counting a hit or a miss.
+     */
+    @SuppressWarnings("unchecked")
+    synchronized <T> T peek(OperationKey key) {
+        Entry entry = entries.get(key);
+        if (entry == null || entry.isExpired(nanoTime.getAsLong())) {
+            return null;
+        }
+        return (T) entry.value;
+    }
+
+    synchronized void put(OperationKey key, Object value) {
+        entries.put(key, new Entry(value, nanoTime.getAsLong() + timeToLiveNanos));
+        if (entries.size() > maximumSize) {
+            Iterator<Entry> iterator = entries.values().iterator();
+            iterator.next();
+            iterator.remove();
+            evictionCount++;
+        }
+    }
+
+    /**
+     * @return The number of results currently cached, including the expired ones not yet evicted.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Remove all the cached results, the statistics are kept.
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * @return A snapshot of the statistics of this cache.
+     */
+    public synchronized CacheStats getStats() {
+        return new CacheStats(hitCount, missCount, evictionCount);
+    }
+
+    private static final class Entry {
+        private final Object value;
+        private final long expiresAt;
+
+        private Entry(Object value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
@@ -0,0 +1,536 @@
+package com.regexsolver.api;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * A regular expression simple enough to be analyzed in-process: an alternation of sequences of literal characters and
+ * character classes such as {@code [a-z0-9_]}, each optionally repeated with {@code ?}, {@code *}, {@code +} or
+ * {@code {m,n}}, for example {@code [A-Z]{2}-[0-9]{3,5}|none}.
+ * <p>
+ * Its {@link Automaton} is a deterministic automaton built from the positions of the expression, each position being
+ * one occurrence of a character set, so that every matched string is read by exactly one path.
+ * </p>
+ */
+final class SimpleRegex {
+    private static final int MAX_REPETITION = 1000;
+    private static final int MAX_POSITIONS = 4096;
+    private static final int MAX_STATES = 65536;
+
+    /**
+     * Classes matching that many characters or more are left to the API, which knows the alphabet they are bounded by.
+     */
+    private static final long MAX_CLASS_SIZE = 0x10000;
+
+    /**
+     * Characters that are matched literally when they are escaped.
+     */
+    private static final String META_CHARACTERS = "\\.+*?()|[]{}^$#&-~";
+
+    private final List<List<Atom>> branches;
+
+    private SimpleRegex(List<List<Atom>> branches) {
+        this.branches = branches;
+    }
+
+    /**
+     * @return The simple regular expression of the given term, or {@code null} if it is not one.
+     */
+    static SimpleRegex of(Term term) {
+        if (!(term instanceof Term.Regex)) {
+            return null;
+        }
+        List<List<Atom>> branches = new Parser(((Term.Regex) term).getPattern()).parse();
+        return branches == null ? null : new SimpleRegex(branches);
+    }
+
+    /**
+     * @return The minimum length of the matched strings.
+     */
+    long getMinimumLength() {
+        long minimum = Long.MAX_VALUE;
+        for (List<Atom> branch : branches) {
+            long length = 0;
+            for (Atom atom : branch) {
+                length += atom.min;
+            }
+            minimum = Math.min(minimum, length);
+        }
+        return minimum;
+    }
+
+    /**
+     * @return The maximum length of the matched strings, or -1 if it is unbounded.
+     */
+    long getMaximumLength() {
+        long maximum = 0;
+        for (List<Atom> branch : branches) {
+            long length = 0;
+            for (Atom atom : branch) {
+                if (atom.max < 0) {
+                    return -1;
+                }
+                length += atom.max;
+            }
+            maximum = Math.max(maximum, length);
+        }
+        return maximum;
+    }
+
+    /**
+     * Build the automaton of this expression, unbounded repetitions being bounded to their minimum plus the given
+     * number of occurrences.
+     *
+     * @return The automaton, or {@code null} if it is too large to be built.
+     */
+    Automaton automaton(int unboundedExtra) {
+        Automaton automaton = new Automaton(branches, unboundedExtra);
+        return automaton.positions.size() > MAX_POSITIONS ? null : automaton;
+    }
+
+    /**
+     * A character set, repeated between {@code min} and {@code max} times, {@code max} being negative if unbounded.
+     */
+    private static final class Atom {
+        /**
+         * Sorted and disjoint inclusive ranges of code points, as {@code [start0, end0, start1, end1, ...]}.
+         */
+        private final int[] ranges;
+        private int min = 1;
+        private int max = 1;
+
+        private Atom(int[] ranges) {
+            this.ranges = ranges;
+        }
+
+        private boolean contains(int from, int to) {
+            for (int i = 0; i < ranges.length; i += 2) {
+                if (ranges[i] <= from && to <= ranges[i + 1]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * The deterministic automaton of a simple regular expression, whose states are built as they are reached.
+     * <p>
+     * The alphabet is split into regions of consecutive code points that are matched by the same positions, so that
+     * the transitions of a state are indexed by region rather than by character.
+     * </p>
+     */
+    static final class Automaton {
+        private final List<Atom> positions = new ArrayList<>();
+        private final List<BitSet> follow = new ArrayList<>();
+        private final BitSet acceptingPositions = new BitSet();
+
+        private final int[] regionStarts;
+        private final int[] regionSizes;
+        private final BitSet[] regionPositions;
+
+        private final Map<BitSet, Integer> stateIds = new HashMap<>();
+        private final List<BitSet> states = new ArrayList<>();
+        private final List<int[]> transitions = new ArrayList<>();
+        private final BitSet accepting = new BitSet();
+
+        private Automaton(List<List<Atom>> branches, int unboundedExtra) {
+            BitSet first = new BitSet();
+            boolean nullable = false;
+            for (List<Atom> branch : branches) {
+                nullable |= addBranch(branch, first, unboundedExtra);
+            }
+            int start = positions.size();
+            positions.add(null);
+            follow.add(first);
+            if (nullable) {
+                acceptingPositions.set(start);
+            }
+
+            TreeSet<Integer> boundaries = new TreeSet<>();
+            for (int i = 0; i < start; i++) {
+                int[] ranges = positions.get(i).ranges;
+                for (int j = 0; j < ranges.length; j += 2) {
+                    boundaries.add(ranges[j]);
+                    boundaries.add(ranges[j + 1] + 1);
+                }
+            }
+            List<int[]> regions = new ArrayList<>();
+            List<BitSet> regionPositions = new ArrayList<>();
+            Integer from = null;
+            for (Integer boundary : boundaries) {
+                if (from != null) {
+                    BitSet matching = new BitSet();
+                    for (int i = 0; i < start; i++) {
+                        if (positions.get(i).contains(from, boundary - 1)) {
+                            matching.set(i);
+                        }
+                    }
+                    if (!matching.isEmpty()) {
+                        regions.add(new int[]{from, boundary - from});
+                        regionPositions.add(matching);
+                    }
+                }
+                from = boundary;
+            }
+            this.regionStarts = regions.stream().mapToInt(region -> region[0]).toArray();
+            this.regionSizes = regions.stream().mapToInt(region -> region[1]).toArray();
+            this.regionPositions = regionPositions.toArray(new BitSet[0]);
+
+            BitSet startState = new BitSet();
+            startState.set(start);
+            state(startState);
+        }
+
+        /**
+         * Lay out the positions of the given branch and add its first positions to the given set.
+         *
+         * @return true if the branch matches the empty string.
+         */
+        private boolean addBranch(List<Atom> branch, BitSet first, int unboundedExtra) {
+            int size = branch.size();
+            int[] atomStarts = new int[size + 1];
+            int[] atomMax = new int[size];
+            for (int i = 0; i < size; i++) {
+                Atom atom = branch.get(i);
+                atomStarts[i] = positions.size();
+                atomMax[i] = atom.max < 0 ? atom.min + Math.max(unboundedExtra, 1) : atom.max;
+                for (int j = 0; j < atomMax[i] && positions.size() <= MAX_POSITIONS; j++) {
+                    positions.add(atom);
+                    follow.add(new BitSet());
+                }
+                if (positions.size() > MAX_POSITIONS) {
+                    return false;
+                }
+            }
+            atomStarts[size] = positions.size();
+
+            // firsts[i] holds the positions that can be read first from the i-th atom on.
+            BitSet[] firsts = new BitSet[size + 1];
+            boolean[] nullables = new boolean[size + 1];
+            firsts[size] = new BitSet();
+            nullables[size] = true;
+            for (int i = size - 1; i >= 0; i--) {
+                Atom atom = branch.get(i);
+                firsts[i] = new BitSet();
+                if (atomMax[i] > 0) {
+                    firsts[i].set(atomStarts[i]);
+                }
+                if (atom.min == 0) {
+                    firsts[i].or(firsts[i + 1]);
+                }
+                nullables[i] = atom.min == 0 && nullables[i + 1];
+            }
+            for (int i = 0; i < size; i++) {
+                Atom atom = branch.get(i);
+                for (int j = 0; j < atomMax[i]; j++) {
+                    BitSet next = follow.get(atomStarts[i] + j);
+                    if (j + 1 < atomMax[i]) {
+                        next.set(atomStarts[i] + j + 1);
+                    }
+                    if (j + 1 >= atom.min) {
+                        next.or(firsts[i + 1]);
+                        if (nullables[i + 1]) {
+                            acceptingPositions.set(atomStarts[i] + j);
+                        }
+                    }
+                }
+            }
+            first.or(firsts[0]);
+            return nullables[0];
+        }
+
+        /**
+         * @return The identifier of the state where the given positions have just been read, or -1 if the automaton
+         * has too many states.
+         */
+        private int state(BitSet positions) {
+            Integer id = stateIds.get(positions);
+            if (id != null) {
+                return id;
+            }
+            if (states.size() >= MAX_STATES) {
+                return -1;
+            }
+            id = states.size();
+            stateIds.put(positions, id);
+            states.add(positions);
+            transitions.add(null);
+            for (int position = positions.nextSetBit(0); position >= 0; position = positions.nextSetBit(position + 1)) {
+                if (acceptingPositions.get(position)) {
+                    accepting.set(id);
+                    break;
+                }
+            }
+            return id;
+        }
+
+        /**
+         * @return The number of strings read by this automaton.
+         * @throws ArithmeticException   If the number does not fit in a long.
+         * @throws IllegalStateException If the automaton has too many states.
+         */
+        long count() {
+            // Build the reachable states first, so that the counts are indexed by state in an array of their size.
+            for (int state = getStart(); state < states.size(); state++) {
+                getTransitions(state);
+            }
+            return count(getStart(), new long[states.size()]);
+        }
+
+        /**
+         * Count the strings that can be read from the given state, the automaton being acyclic.
+         *
+         * @param counts The counts already computed, plus one, indexed by state.
+         */
+        private long count(int state, long[] counts) {
+            if (counts[state] > 0) {
+                return counts[state] - 1;
+            }
+            long count = isAccepting(state) ? 1 : 0;
+            int[] targets = getTransitions(state);
+            for (int region = 0; region < targets.length; region++) {
+                if (targets[region] >= 0) {
+                    count = Math.addExact(count, Math.multiplyExact(regionSizes[region], count(targets[region], counts)));
+                }
+            }
+            counts[state] = Math.addExact(count, 1);
+            return count;
+        }
+
+        /**
+         * @return The identifier of the initial state.
+         */
+        int getStart() {
+            return 0;
+        }
+
+        boolean isAccepting(int state) {
+            return accepting.get(state);
+        }
+
+        int getRegionCount() {
+            return regionStarts.length;
+        }
+
+        int getRegionStart(int region) {
+            return regionStarts[region];
+        }
+
+        int getRegionSize(int region) {
+            return regionSizes[region];
+        }
+
+        /**
+         * @return The transitions of the given state indexed by region, -1 meaning no transition.
+         * @throws IllegalStateException If the automaton has too many states.
+         */
+        int[] getTransitions(int state) {
+            int[] targets = transitions.get(state);
+            if (targets != null) {
+                return targets;
+            }
+            BitSet next = new BitSet();
+            BitSet current = states.get(state);
+            for (int position = current.nextSetBit(0); position >= 0; position = current.nextSetBit(position + 1)) {
+                next.or(follow.get(position));
+            }
+            targets = new int[regionStarts.length];
+            for (int region = 0; region < regionStarts.length; region++) {
+                BitSet target = (BitSet) next.clone();
+                target.and(regionPositions[region]);
+                if (target.isEmpty()) {
+                    targets[region] = -1;
+                } else if ((targets[region] = state(target)) < 0) {
+                    throw new IllegalStateException("Too many states.");
+                }
+            }
+            transitions.set(state, targets);
+            return targets;
+        }
+    }
+
+    private static final class Parser {
+        private final int[] pattern;
+        private int index = 0;
+
+        private Parser(String pattern) {
+            this.pattern = LiteralSet.unwrapGroup(pattern).codePoints().toArray();
+        }
+
+        private List<List<Atom>> parse() {
+            List<List<Atom>> branches = new ArrayList<>();
+            List<Atom> branch = new ArrayList<>();
+            while (index < pattern.length) {
+                int c = pattern[index];
+                Atom atom;
+                if (c == '|') {
+                    index++;
+                    branches.add(branch);
+                    branch = new ArrayList<>();
+                    continue;
+                } else if (c == '[') {
+                    atom = parseClass();
+                } else if (c == '\\') {
+                    if (index + 1 >= pattern.length || META_CHARACTERS.indexOf(pattern[index + 1]) < 0) {
+                        return null;
+                    }
+                    int literal = pattern[index + 1];
+                    index += 2;
+                    atom = new Atom(new int[]{literal, literal});
+                } else if (LiteralSet.isReserved(c)) {
+                    return null;
+                } else {
+                    index++;
+                    atom = new Atom(new int[]{c, c});
+                }
+                if (atom == null || !parseRepetition(atom)) {
+                    return null;
+                }
+                branch.add(atom);
+            }
+            branches.add(branch);
+            return branches;
+        }
+
+        private Atom parseClass() {
+            index++;
+            if (index < pattern.length && (pattern[index] == '^' || pattern[index] == ']')) {
+                return null;
+            }
+            List<int[]> ranges = new ArrayList<>();
+            while (index < pattern.length && pattern[index] != ']') {
+                int start = parseClassCharacter();
+                if (start < 0) {
+                    return null;
+                }
+                int end = start;
+                if (index + 1 < pattern.length && pattern[index] == '-' && pattern[index + 1] != ']') {
+                    index++;
+                    end = parseClassCharacter();
+                    if (end < start) {
+                        return null;
+                    }
+                }
+                if (start <= Character.MAX_SURROGATE && end >= Character.MIN_SURROGATE) {
+                    return null;
+                }
+                ranges.add(new int[]{start, end});
+            }
+            if (index >= pattern.length) {
+                return null;
+            }
+            index++;
+
+            // Overlapping or adjacent ranges are merged, such as in [aa-z] or [a-ca-z].
+            ranges.sort(Comparator.<int[]>comparingInt(range -> range[0]).thenComparingInt(range -> range[1]));
+            List<Integer> merged = new ArrayList<>();
+            long size = 0;
+            for (int[] range : ranges) {
+                int last = merged.size() - 1;
+                if (last > 0 && range[0] <= merged.get(last) + 1) {
+                    merged.set(last, Math.max(merged.get(last), range[1]));
+                } else {
+                    merged.add(range[0]);
+                    merged.add(range[1]);
+                }
+            }
+            for (int i = 0; i < merged.size(); i += 2) {
+                size += merged.get(i + 1) - merged.get(i) + 1;
+            }
+            if (size >= MAX_CLASS_SIZE) {
+                return null;
+            }
+            return new Atom(merged.stream().mapToInt(Integer::intValue).toArray());
+        }
+
+        /**
+         * @return The code point of the character, or -1 if it is not a literal character.
+         */
+        private int parseClassCharacter() {
+            if (index >= pattern.length) {
+                return -1;
+            }
+            int c = pattern[index];
+            if (c == '\\') {
+                if (index + 1 >= pattern.length || META_CHARACTERS.indexOf(pattern[index + 1]) < 0) {
+                    return -1;
+                }
+                index += 2;
+                return pattern[index - 1];
+            } else if (c == '[' || c == ']') {
+                return -1;
+            } else if ((c == '&' || c == '~' || c == '-') && index + 1 < pattern.length && pattern[index + 1] == c) {
+                // Set operations between classes.
+                return -1;
+            }
+            index++;
+            return c;
+        }
+
+        private boolean parseRepetition(Atom atom) {
+            if (index >= pattern.length) {
+                return true;
+            }
+            switch (pattern[index]) {
+                case '?':
+                    atom.min = 0;
+                    atom.max = 1;
+                    break;
+                case '*':
+                    atom.min = 0;
+                    atom.max = -1;
+                    break;
+                case '+':
+                    atom.min = 1;
+                    atom.max = -1;
+                    break;
+                case '{':
+                    return parseBounds(atom) && !isRepetition();
+                default:
+                    return true;
+            }
+            index++;
+            return !isRepetition();
+        }
+
+        private boolean parseBounds(Atom atom) {
+            int close = index;
+            while (close < pattern.length && pattern[close] != '}') {
+                close++;
+            }
+            if (close >= pattern.length) {
+                return false;
+            }
+            String bounds = new String(pattern, index + 1, close - index - 1);
+            index = close + 1;
+            try {
+                int comma = bounds.indexOf(',');
+                if (comma < 0) {
+                    atom.min = atom.max = Integer.parseInt(bounds);
+                } else {
+                    atom.min = Integer.parseInt(bounds.substring(0, comma));
+                    String max = bounds.substring(comma + 1);
+                    atom.max = max.isEmpty() ? -1 : Integer.parseInt(max);
+                }
+            } catch (NumberFormatException e) {
+                return false;
+            }
+            return atom.min >= 0 && atom.min <= MAX_REPETITION && atom.max <= MAX_REPETITION
+                    && (atom.max < 0 || atom.min <= atom.max);
+        }
+
+        /**
+         * Lazy quantifiers and repeated repetitions are left to the API.
+         */
+        private boolean isRepetition() {
+            return index < pattern.length
+                    && (pattern[index] == '?' || pattern[index] == '*' || pattern[index] == '+' || pattern[index] == '{');
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.regexsolver.api;
+
+import com.regexsolver.api.exception.ApiError;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Coalesce concurrent executions of the same operation, so that they share a single in-flight request
+ * along with its result or its error.
+ */
+final class SingleFlight {
+    private final ConcurrentHashMap<OperationKey, Flight<?>> flights = new ConcurrentHashMap<>();
+
+    /**
+     * Execute the given operation on the calling thread, or wait for the result of an identical one already in flight.
+     */
+    @SuppressWarnings("unchecked")
+    <T> T execute(OperationKey key, TermOperation<T> operation) throws IOException, ApiError {
+        while (true) {
+            Flight<T> flight = new Flight<>();
+            Flight<T> existing = (Flight<T>) flights.putIfAbsent(key, flight);
+            if (existing == null) {
+                return lead(key, flight, operation);
+            } else if (existing.subscribe()) {
+                return await(existing);
+            }
+            flights.remove(key, existing);
+        }
+    }
+
+    /**
+     * Start the given operation, or subscribe to an identical one already in flight.
+     * The shared request is only cancelled once all of its subscribers have cancelled their future.
+     */
+    @SuppressWarnings("unchecked")
+    <T> CompletableFuture<T> executeAsync(OperationKey key, Supplier<CompletableFuture<T>> operation) {
+        while (true) {
+            Flight<T> flight = new Flight<>();
+            Flight<T> existing = (Flight<T>) flights.putIfAbsent(key, flight);
+            if (existing == null) {
+                CompletableFuture<T> upstream;
+                try {
+                    upstream = operation.get();
+                } catch (RuntimeException e) {
+                    upstream = CompletableFuture.failedFuture(e);
+                }
+                CompletableFuture<T> result = flight.result;
+                CompletableFuture<T> call = upstream;
+                result.whenComplete((value, throwable) -> {
+                    flights.remove(key, flight);
+                    if (result.isCancelled()) {
+                        call.cancel(true);
+                    }
+                });
+                upstream.whenComplete((value, throwable) -> {
+                    if (throwable != null) {
+                        result.completeExceptionally(throwable);
+                    } else {
+                        result.complete(value);
+                    }
+                });
+                return flight.subscriber();
+            } else if (existing.subscribe()) {
+                return existing.subscriber();
+            }
+            flights.remove(key, existing);
+        }
+    }
+
+    /**
+     * @return The number of distinct operations currently in flight.
+     */
+    int size() {
+        return flights.size();
+    }
+
+    private <T> T lead(OperationKey key, Flight<T> flight, TermOperation<T> operation) throws IOException, ApiError {
+        try {
+            T result = operation.execute();
+            flight.result.complete(result);
+            return result;
+        } catch (IOException | ApiError | RuntimeException | Error e) {
+            flight.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            flights.remove(key, flight);
+        }
+    }
+
+    private static <T> T await(Flight<T> flight) throws IOException, ApiError {
+        try {
+            return flight.result.get();
+        } catch (InterruptedException e) {
+            flight.unsubscribe();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for an identical request in flight.");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof ApiError) {
+                throw (ApiError) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private static final class Flight<T> {
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private int subscribers = 1;
+
+        /**
+         * @return false if the flight has been cancelled and can no longer be joined.
+         */
+        private synchronized boolean subscribe() {
+            if (result.isCancelled()) {
+                return false;
+            }
+            subscribers++;
+            return true;
+        }
+
+        private void unsubscribe() {
+            boolean cancel;
+            synchronized (this) {
+                cancel = --subscribers == 0;
+            }
+            if (cancel) {
+                result.cancel(true);
+            }
+        }
+
+        private CompletableFuture<T> subscriber() {
+            CompletableFuture<T> subscriber = new CompletableFuture<>();
+            result.whenComplete((value, throwable) -> {
+                if (throwable != null) {
+                    subscriber.completeExceptionally(throwable);
+                } else {
+                    subscriber.complete(value);
+                }
+            });
+            subscriber.whenComplete((value, throwable) -> {
+                if (subscriber.isCancelled()) {
+                    unsubscribe();
+                }
+            });
+            return subscriber;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.regexsolver.api;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.regexsolver.api.exception.ApiError;
+import com.regexsolver.api.exception.UncheckedApiError;
+import okhttp3.ResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Iterate over generated strings while parsing the responses incrementally.
+ * <p>
+ * Large counts are requested in chunks. Since each chunk is generated independently, the most recent strings returned
+ * are remembered to skip the ones generated again. At most {@code maxRemembered} strings are remembered, so that the
+ * memory used is bounded whatever the count: beyond that, a string returned long before can be returned again.
+ * Iteration stops early once a chunk is smaller than requested, or once several chunks in a row bring no new string,
+ * meaning the term has fewer strings than requested.
+ * </p>
+ */
+final class StringsIterator implements GeneratedStrings {
+    private static final int MAX_UNPRODUCTIVE_CHUNKS = 3;
+
+    private final ChunkSource source;
+    private final int count;
+    private final int chunkSize;
+    private final int maxRemembered;
+    private final Set<String> remembered;
+
+    private ResponseBody body;
+    private JsonParser parser;
+
+    private int produced = 0;
+    private int chunkRequested = 0;
+    private int chunkReceived = 0;
+    private int chunkProduced = 0;
+    private int unproductiveChunks = 0;
+    private boolean exhausted = false;
+
+    private String next;
+
+    StringsIterator(ChunkSource source, int count, int chunkSize, int maxRemembered) {
+        this.source = source;
+        this.count = count;
+        this.chunkSize = chunkSize;
+        this.maxRemembered = maxRemembered;
+        this.remembered = count > chunkSize ? new LinkedHashSet<>() : null;
+    }
+
+    @Override
+    public String nextString() throws IOException, ApiError {
+        while (produced < count && !exhausted) {
+            if (parser == null) {
+                openChunk();
+            }
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.VALUE_STRING) {
+                chunkReceived++;
+                String string = parser.getText();
+                if (remember(string)) {
+                    produced++;
+                    chunkProduced++;
+                    return string;
+                }
+            } else if (token == JsonToken.END_ARRAY) {
+                close();
+                unproductiveChunks = chunkProduced == 0 ? unproductiveChunks + 1 : 0;
+                if (chunkReceived < chunkRequested || unproductiveChunks >= MAX_UNPRODUCTIVE_CHUNKS) {
+                    exhausted = true;
+                }
+            } else {
+                throw new JsonParseException(parser, "Expected a string but got " + token + ".");
+            }
+        }
+        close();
+        return null;
+    }
+
+    /**
+     * @return true if the given string was not returned among the remembered ones, forgetting the oldest one if
+     * there are too many.
+     */
+    private boolean remember(String string) {
+        if (remembered == null) {
+            return true;
+        }
+        if (!remembered.add(string)) {
+            return false;
+        }
+        if (remembered.size() > maxRemembered) {
+            Iterator<String> oldest = remembered.iterator();
+            oldest.next();
+            oldest.remove();
+        }
+        return true;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            try {
+                next = nextString();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (ApiError e) {
+                throw new UncheckedApiError(e);
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public String next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        String string = next;
+        next = null;
+        return string;
+    }
+
+    /**
+     * Release the connection of the chunk being read, if any.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (parser != null) {
+                parser.close();
+            }
+        } finally {
+            parser = null;
+            if (body != null) {
+                body.close();
+                body = null;
+            }
+        }
+    }
+
+    private void openChunk() throws IOException, ApiError {
+        // Once deduplicating, full chunks maximize the chances of getting new strings.
+        chunkRequested = remembered == null ? count : chunkSize;
+        chunkReceived = 0;
+        chunkProduced = 0;
+        body = source.open(chunkRequested);
+        parser = JsonCodec.FACTORY.createParser(body.byteStream());
+
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Expected a strings response.");
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if ("value".equals(field) && token == JsonToken.START_ARRAY) {
+                return;
+            }
+            parser.skipChildren();
+        }
+        throw new JsonParseException(parser, "Missing strings in response.");
+    }
+
+    /**
+     * Request a chunk of strings and return the body of the response, positioned at its beginning.
+     */
+    @FunctionalInterface
+    interface ChunkSource {
+        ResponseBody open(int count) throws IOException, ApiError;
+    }
+}
@@ -0,0 +1,481 @@
+package com.regexsolver.api;
+
+import com.regexsolver.api.Request.MultiTermsRequest;
+import com.regexsolver.api.dto.SubsetMatrix;
+import com.regexsolver.api.exception.ApiError;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+/**
+ * Compute the subset relation over many {@link Term} at once.
+ * <p>
+ * The relation is a partial order: every answer is propagated through transitivity, {@code A ⊆ B} and {@code B ⊆ C}
+ * implying {@code A ⊆ C}, and through its contrapositive, {@code A ⊆ B} and {@code A ⊄ C} implying {@code B ⊄ C}.
+ * Only the pairs that cannot be deduced are requested, with a bounded number of requests in flight, choosing first the
+ * pairs whose answer settles the most other pairs.
+ * </p>
+ * <pre>{@code
+ * SubsetMatrix matrix = new SubsetAnalyzer(16).analyze(rules);
+ * if (matrix.isSubset(0, 1)) {
+ *     // The first rule is shadowed by the second one.
+ * }
+ * }</pre>
+ */
+public final class SubsetAnalyzer {
+    private final RegexSolverClient client;
+    private final Executor executor;
+    private final int maxInFlight;
+
+    /**
+     * Create a new instance using the default client.
+     *
+     * @param maxInFlight The maximum number of requests in flight at the same time.
+     */
+    public SubsetAnalyzer(int maxInFlight) {
+        this(null, ForkJoinPool.commonPool(), maxInFlight);
+    }
+
+    /**
+     * Create a new instance.
+     *
+     * @param client      The client to use, or {@code null} to use the default client.
+     * @param executor    The executor propagating the answers and choosing the next pairs to request.
+     * @param maxInFlight The maximum number of requests in flight at the same time.
+     */
+    public SubsetAnalyzer(RegexSolverClient client, Executor executor, int maxInFlight) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("The maximum number of requests in flight must be positive.");
+        }
+        this.client = client;
+        this.executor = Objects.requireNonNull(executor);
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Compute the subset relation over the given terms, blocking until it is known for every pair.
+     *
+     * @param terms The terms to compare.
+     * @return The subset relation over the given terms, in their iteration order.
+     * @throws IOException In case of issues requesting the API server.
+     * @throws ApiError    In case of error returned by the API.
+     */
+    public SubsetMatrix analyze(Collection<? extends Term> terms) throws IOException, ApiError {
+        CompletableFuture<SubsetMatrix> future = analyzeAsync(terms);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while computing the subset relation.");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof ApiError) {
+                throw (ApiError) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Compute the subset relation over the given terms without blocking the calling thread.
+     * Cancelling the returned future cancels the requests not yet completed.
+     *
+     * @param terms The terms to compare.
+     * @return A future completed with the subset relation over the given terms, in their iteration order, or with the
+     * first error encountered.
+     */
+    public CompletableFuture<SubsetMatrix> analyzeAsync(Collection<? extends Term> terms) {
+        RegexSolverApiWrapper wrapper = client != null ? client.getWrapper() : RegexSolverApiWrapper.getInstance();
+        Analysis analysis = new Analysis(wrapper, new ArrayList<>(terms));
+        analysis.result.whenComplete((value, throwable) -> {
+            if (throwable != null) {
+                analysis.cancel();
+            }
+        });
+        analysis.fill();
+        return analysis.result;
+    }
+
+    private final class Analysis {
+        private final RegexSolverApiWrapper wrapper;
+        private final List<Term> terms;
+        private final int size;
+        private final int words;
+        private final CompletableFuture<SubsetMatrix> result = new CompletableFuture<>();
+
+        /**
+         * Bit {@code j} of the row {@code i} is set when the term {@code i} is known to be a subset of the term
+         * {@code j}. The relation is kept transitively closed.
+         */
+        private final long[][] subsets;
+        /**
+         * The transpose of {@link #subsets}: bit {@code i} of the row {@code j} is set when the term {@code i} is
+         * known to be a subset of the term {@code j}.
+         */
+        private final long[][] supersets;
+        /**
+         * Bit {@code j} of the row {@code i} is set when the term {@code i} is known not to be a subset of the term
+         * {@code j}.
+         */
+        private final long[][] nonSubsets;
+        /**
+         * The transpose of {@link #nonSubsets}: bit {@code i} of the row {@code j} is set when the term {@code i} is
+         * known not to be a subset of the term {@code j}.
+         */
+        private final long[][] nonSupersets;
+        /**
+         * Bit {@code j} of the row {@code i} is set while the pair {@code (i, j)} is being requested.
+         */
+        private final long[][] pending;
+        private final int[] subsetCounts;
+        private final int[] supersetCounts;
+        /**
+         * The terms whose counts changed since their pairs were last scored.
+         */
+        private final long[] changed;
+        /**
+         * The scored unknown pairs, best first. A pair is scored again when the counts of one of its terms change,
+         * its previous entries being discarded once polled.
+         */
+        private final PriorityQueue<Candidate> candidates = new PriorityQueue<>(Candidate.ORDER);
+
+        private final Set<CompletableFuture<?>> started = new HashSet<>();
+        private final AtomicInteger pendingFills = new AtomicInteger();
+        private int inFlight = 0;
+        private int requestCount = 0;
+        private boolean done = false;
+
+        private Analysis(RegexSolverApiWrapper wrapper, List<Term> terms) {
+            this.wrapper = wrapper;
+            this.terms = terms;
+            this.size = terms.size();
+            this.words = (size + 63) / 64;
+            this.subsets = new long[size][words];
+            this.supersets = new long[size][words];
+            this.nonSubsets = new long[size][words];
+            this.nonSupersets = new long[size][words];
+            this.pending = new long[size][words];
+            this.subsetCounts = new int[size];
+            this.supersetCounts = new int[size];
+            this.changed = new long[words];
+
+            for (int i = 0; i < size; i++) {
+                set(subsets[i], i);
+                set(supersets[i], i);
+            }
+            for (int i = 0; i < size; i++) {
+                for (int j = i + 1; j < size; j++) {
+                    if (!get(subsets[i], j) && terms.get(i).equals(terms.get(j))) {
+                        addSubset(i, j);
+                        addSubset(j, i);
+                    }
+                }
+            }
+            for (int i = 0; i < size; i++) {
+                subsetCounts[i] = count(supersets[i]);
+                supersetCounts[i] = count(subsets[i]);
+            }
+            for (int i = 0; i < size; i++) {
+                int left = i;
+                forEach(unknown(subsets[i], nonSubsets[i]), j -> candidates.add(candidate(left, j)));
+            }
+            Arrays.fill(changed, 0);
+        }
+
+        /**
+         * Request the most useful unknown pairs until the window is full, or complete the result once every pair is
+         * known. Answers delivered synchronously, for example from a cache, trigger a fill from within the loop: it is
+         * coalesced with the current one instead of recursing.
+         */
+        private void fill() {
+            if (pendingFills.getAndIncrement() != 0) {
+                return;
+            }
+            do {
+                while (true) {
+                    int i;
+                    int j;
+                    synchronized (this) {
+                        if (done || inFlight >= maxInFlight) {
+                            break;
+                        }
+                        long pair = nextPair();
+                        if (pair < 0) {
+                            if (inFlight == 0) {
+                                done = true;
+                                result.complete(toMatrix());
+                            }
+                            break;
+                        }
+                        i = (int) (pair >>> 32);
+                        j = (int) pair;
+                        markPending(i, j, true);
+                        inFlight++;
+                        requestCount++;
+                    }
+                    request(i, j);
+                }
+            } while (pendingFills.decrementAndGet() != 0);
+        }
+
+        private void request(int i, int j) {
+            CompletableFuture<Boolean> upstream;
+            try {
+                upstream = wrapper.subsetAsync(new MultiTermsRequest(List.of(terms.get(i), terms.get(j))));
+            } catch (RuntimeException e) {
+                upstream = CompletableFuture.failedFuture(e);
+            }
+            CompletableFuture<Boolean> call = upstream;
+            synchronized (this) {
+                started.add(call);
+            }
+            upstream.whenCompleteAsync((subset, throwable) -> {
+                synchronized (this) {
+                    started.remove(call);
+                    inFlight--;
+                    markPending(i, j, false);
+                    if (throwable != null) {
+                        done = true;
+                    } else if (!done) {
+                        if (subset) {
+                            addSubset(i, j);
+                        } else {
+                            addNonSubset(i, j);
+                        }
+                        rescoreChanged();
+                    }
+                }
+                if (throwable != null) {
+                    result.completeExceptionally(unwrap(throwable));
+                } else {
+                    fill();
+                }
+            }, executor);
+        }
+
+        /**
+         * Choose the unknown pair not being requested whose answer settles the most pairs whatever it is: if
+         * {@code i ⊆ j}, every subset of {@code i} is a subset of every superset of {@code j}, otherwise no superset of
+         * {@code i} is a subset of any subset of {@code j}. Ties are broken by the number of pairs settled by both
+         * answers.
+         * <p>
+         * Entries of pairs that got known or requested, or whose score changed since, are discarded as they are polled.
+         * </p>
+         *
+         * @return The chosen pair packed as {@code (i << 32) | j}, or -1 if there is none.
+         */
+        private long nextPair() {
+            Candidate candidate;
+            while ((candidate = candidates.poll()) != null) {
+                int i = candidate.i;
+                int j = candidate.j;
+                if (!get(subsets[i], j) && !get(nonSubsets[i], j) && !get(pending[i], j)
+                        && candidate.total == (long) subsetCounts[i] * supersetCounts[j]
+                        + (long) supersetCounts[i] * subsetCounts[j]) {
+                    return ((long) i << 32) | j;
+                }
+            }
+            return -1;
+        }
+
+        private Candidate candidate(int i, int j) {
+            long ifSubset = (long) subsetCounts[i] * supersetCounts[j];
+            long ifNotSubset = (long) supersetCounts[i] * subsetCounts[j];
+            return new Candidate(i, j, Math.min(ifSubset, ifNotSubset), ifSubset + ifNotSubset);
+        }
+
+        /**
+         * Score again the unknown pairs of the terms whose counts changed. Counts only grow, so a pair whose score
+         * did not change has the same total as its queued entry.
+         */
+        private void rescoreChanged() {
+            forEach(changed, t -> {
+                forEach(unknown(subsets[t], nonSubsets[t]), j -> candidates.add(candidate(t, j)));
+                forEach(unknown(supersets[t], nonSupersets[t]), i -> candidates.add(candidate(i, t)));
+            });
+            Arrays.fill(changed, 0);
+        }
+
+        /**
+         * @return The bits of the pairs of a row known neither as subsets nor as non-subsets.
+         */
+        private long[] unknown(long[] known, long[] knownNot) {
+            long[] unknown = new long[words];
+            for (int w = 0; w < words; w++) {
+                unknown[w] = ~(known[w] | knownNot[w]);
+            }
+            if ((size & 63) != 0) {
+                unknown[words - 1] &= (1L << size) - 1;
+            }
+            return unknown;
+        }
+
+        /**
+         * Mark or unmark as being requested the pair {@code (i, j)} along with the pairs of terms equivalent to them,
+         * which have the same answer.
+         */
+        private void markPending(int i, int j, boolean requested) {
+            long[] right = equivalents(j);
+            forEach(equivalents(i), a -> {
+                for (int w = 0; w < words; w++) {
+                    pending[a][w] = requested ? pending[a][w] | right[w] : pending[a][w] & ~right[w];
+                }
+            });
+        }
+
+        private long[] equivalents(int i) {
+            long[] equivalents = subsets[i].clone();
+            for (int w = 0; w < words; w++) {
+                equivalents[w] &= supersets[i][w];
+            }
+            return equivalents;
+        }
+
+        /**
+         * Record that the term {@code i} is a subset of the term {@code j} along with everything it implies.
+         */
+        private void addSubset(int i, int j) {
+            long[] below = supersets[i].clone();
+            long[] above = subsets[j].clone();
+            forEach(below, a -> or(subsets[a], above));
+            forEach(above, b -> or(supersets[b], below));
+
+            // A term known not to be a subset of a term below i is not a subset of any term above j.
+            long[] excluded = new long[words];
+            forEach(below, a -> or(excluded, nonSubsets[a]));
+            forEach(above, b -> or(nonSubsets[b], excluded));
+            forEach(excluded, c -> or(nonSupersets[c], above));
+            // A term known not to be a subset of a term above j is not a subset of any term below i.
+            long[] outside = new long[words];
+            forEach(above, b -> or(outside, nonSupersets[b]));
+            forEach(outside, c -> or(nonSubsets[c], below));
+            forEach(below, a -> or(nonSupersets[a], outside));
+
+            forEach(below, a -> {
+                int count = count(subsets[a]);
+                if (count != supersetCounts[a]) {
+                    supersetCounts[a] = count;
+                    set(changed, a);
+                }
+            });
+            forEach(above, b -> {
+                int count = count(supersets[b]);
+                if (count != subsetCounts[b]) {
+                    subsetCounts[b] = count;
+                    set(changed, b);
+                }
+            });
+        }
+
+        /**
+         * Record that the term {@code i} is not a subset of the term {@code j} along with everything it implies.
+         */
+        private void addNonSubset(int i, int j) {
+            long[] below = supersets[j];
+            long[] above = subsets[i];
+            forEach(above, a -> or(nonSubsets[a], below));
+            forEach(below, b -> or(nonSupersets[b], above));
+        }
+
+        private SubsetMatrix toMatrix() {
+            long[] bits = new long[size * words];
+            for (int i = 0; i < size; i++) {
+                System.arraycopy(subsets[i], 0, bits, i * words, words);
+            }
+            return new SubsetMatrix(terms, bits, requestCount);
+        }
+
+        private void cancel() {
+            List<CompletableFuture<?>> toCancel;
+            synchronized (this) {
+                done = true;
+                toCancel = new ArrayList<>(started);
+            }
+            for (CompletableFuture<?> future : toCancel) {
+                future.cancel(true);
+            }
+        }
+
+        private Throwable unwrap(Throwable throwable) {
+            if (throwable instanceof CompletionException && throwable.getCause() != null) {
+                return throwable.getCause();
+            }
+            return throwable;
+        }
+    }
+
+    /**
+     * A pair scored by the number of pairs its answer settles, see {@link Analysis#nextPair()}.
+     */
+    private static final class Candidate {
+        private static final Comparator<Candidate> ORDER = Comparator.<Candidate>comparingLong(candidate -> -candidate.worst)
+                .thenComparingLong(candidate -> -candidate.total)
+                .thenComparingInt(candidate -> candidate.i)
+                .thenComparingInt(candidate -> candidate.j);
+
+        private final int i;
+        private final int j;
+        private final long worst;
+        private final long total;
+
+        private Candidate(int i, int j, long worst, long total) {
+            this.i = i;
+            this.j = j;
+            this.worst = worst;
+            this.total = total;
+        }
+    }
+
+    private static void forEach(long[] row, IntConsumer consumer) {
+        for (int w = 0; w < row.length; w++) {
+            long word = row[w];
+            while (word != 0) {
+                consumer.accept(w * 64 + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+    }
+
+    private static boolean get(long[] row, int index) {
+        return (row[index >>> 6] & (1L << index)) != 0;
+    }
+
+    private static void set(long[] row, int index) {
+        row[index >>> 6] |= 1L << index;
+    }
+
+    private static void or(long[] target, long[] source) {
+        for (int w = 0; w < target.length; w++) {
+            target[w] |= source[w];
+        }
+    }
+
+    private static int count(long[] row) {
+        int count = 0;
+        for (long word : row) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+}
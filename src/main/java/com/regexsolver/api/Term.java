@@ -7,10 +7,17 @@ import com.regexsolver.api.dto.Details;
 import com.regexsolver.api.exception.ApiError;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * This abstract class represents a term on which it is possible to perform operations.
@@ -29,7 +36,13 @@ public abstract class Term implements ResponseContent {
     private transient String serialized = null;
 
     @JsonIgnore
-    private transient Details details;
+    private transient int hash = 0;
+
+    @JsonIgnore
+    private transient TermPool pool = null;
+
+    @JsonIgnore
+    private transient volatile Details details;
 
     /**
      * Create a new instance.
@@ -50,6 +63,18 @@ public abstract class Term implements ResponseContent {
         return new Term.Regex(regex);
     }
 
+    /**
+     * Get the canonical instance of {@link Term.Regex} of the given pool.
+     *
+     * @param regex The regular expression pattern.
+     * @param pool  The pool holding the canonical instances.
+     * @return The canonical instance.
+     * @see TermPool
+     */
+    public static Term.Regex regex(String regex, TermPool pool) {
+        return pool.regex(regex);
+    }
+
     /**
      * Create a new instance of {@link Term.Fair}.
      *
@@ -60,6 +85,30 @@ public abstract class Term implements ResponseContent {
         return new Term.Fair(fair);
     }
 
+    /**
+     * Get the canonical instance of {@link Term.Fair} of the given pool.
+     *
+     * @param fair The FAIR.
+     * @param pool The pool holding the canonical instances.
+     * @return The canonical instance.
+     * @see TermPool
+     */
+    public static Term.Fair fair(String fair, TermPool pool) {
+        return pool.fair(fair);
+    }
+
+    /**
+     * Start a lazy expression from the given term, such as {@code Term.expr(a).and(b).and(c).or(d)}.
+     * Chained operations are fused into fewer requests when the expression is evaluated.
+     *
+     * @param term The term.
+     * @return The created expression.
+     * @see TermExpression
+     */
+    public static TermExpression expr(Term term) {
+        return TermExpression.of(term);
+    }
+
     String getValue() {
         return value;
     }
@@ -67,6 +116,7 @@ public abstract class Term implements ResponseContent {
     /**
      * Get the details of this term.
      * Cache the result to avoid calling the API again if this method is called multiple times.
+     * Concurrent calls on equal terms share a single request.
      *
      * @return The details of this term.
      * @throws IOException In case of issues requesting the API server.
@@ -74,10 +124,21 @@ public abstract class Term implements ResponseContent {
      */
     @JsonIgnore
     public Details getDetails() throws IOException, ApiError {
+        return getDetails(RegexSolverApiWrapper.getInstance());
+    }
+
+    Details getDetails(RegexSolverApiWrapper wrapper) throws IOException, ApiError {
         if (details != null) {
             return details;
         }
-        details = RegexSolverApiWrapper.getInstance().getDetails(this);
+        details = wrapper.getDetails(this);
+        return details;
+    }
+
+    /**
+     * @return The details of this term if they were already retrieved, {@code null} otherwise.
+     */
+    Details getKnownDetails() {
         return details;
     }
 
@@ -94,8 +155,102 @@ public abstract class Term implements ResponseContent {
         return RegexSolverApiWrapper.getInstance().generateStrings(this, count);
     }
 
+    /**
+     * Lazily generate the given number of unique strings matched by this term.
+     * <p>
+     * The strings are parsed from the responses as the stream is consumed, and large counts are requested by chunks of
+     * 200 strings, so only a bounded number of strings are held in memory whatever the count. To skip the strings
+     * generated again by another chunk, the last 100,000 strings returned are remembered: beyond that count, a string
+     * can be returned more than once.
+     * The stream has to be closed if it is not fully consumed, in order to release the underlying connection.
+     * It throws {@link java.io.UncheckedIOException} in case of issues requesting the API server,
+     * and {@link com.regexsolver.api.exception.UncheckedApiError} in case of error returned by the API.
+     * </p>
+     *
+     * @param count The number of unique strings to generate.
+     * @return A stream of unique strings matched by this term, it can have fewer elements than the requested count
+     * if this term does not match enough strings.
+     */
+    @JsonIgnore
+    public Stream<String> streamStrings(int count) {
+        return streamStrings(RegexSolverApiWrapper.getInstance(), count);
+    }
+
+    Stream<String> streamStrings(RegexSolverApiWrapper wrapper, int count) {
+        GeneratedStrings iterator = wrapper.streamStrings(this, count);
+        Spliterator<String> spliterator = Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            try {
+                iterator.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Generate the given number of unique strings matched by this term and pass them one by one to the given consumer,
+     * as they are parsed from the responses. See {@link #streamStrings(int)}.
+     *
+     * @param count    The number of unique strings to generate.
+     * @param consumer The consumer of the generated strings, such as a writer to a file.
+     * @throws IOException In case of issues requesting the API server.
+     * @throws ApiError    In case of error returned by the API.
+     */
     @JsonIgnore
-    private List<Term> getArgs(Term... terms) {
+    public void generateStrings(int count, Consumer<String> consumer) throws IOException, ApiError {
+        generateStrings(RegexSolverApiWrapper.getInstance(), count, consumer);
+    }
+
+    void generateStrings(RegexSolverApiWrapper wrapper, int count, Consumer<String> consumer) throws IOException, ApiError {
+        try (GeneratedStrings iterator = wrapper.streamStrings(this, count)) {
+            String string;
+            while ((string = iterator.nextString()) != null) {
+                consumer.accept(string);
+            }
+        }
+    }
+
+    /**
+     * Get the details of this term without blocking the calling thread.
+     * Cache the result to avoid calling the API again if this method is called multiple times.
+     * <p>
+     * The returned future completes exceptionally with an {@link IOException} in case of issues requesting the API
+     * server, or with an {@link ApiError} in case of error returned by the API.
+     * Cancelling it cancels the underlying HTTP call.
+     * </p>
+     *
+     * @return A future completed with the details of this term.
+     */
+    @JsonIgnore
+    public CompletableFuture<Details> getDetailsAsync() {
+        return getDetailsAsync(RegexSolverApiWrapper.getInstance());
+    }
+
+    CompletableFuture<Details> getDetailsAsync(RegexSolverApiWrapper wrapper) {
+        if (details != null) {
+            return CompletableFuture.completedFuture(details);
+        }
+        CompletableFuture<Details> future = wrapper.getDetailsAsync(this);
+        future.thenAccept(result -> details = result);
+        return future;
+    }
+
+    /**
+     * Generate the given number of unique strings matched by this term without blocking the calling thread.
+     *
+     * @param count The number of unique strings to generate.
+     * @return A future completed with a list of unique strings matched by this term.
+     * @see #getDetailsAsync()
+     */
+    @JsonIgnore
+    public CompletableFuture<List<String>> generateStringsAsync(int count) {
+        return RegexSolverApiWrapper.getInstance().generateStringsAsync(this, count);
+    }
+
+    @JsonIgnore
+    List<Term> getArgs(Term... terms) {
         ArrayList<Term> args = new ArrayList<>();
         args.add(this);
         args.addAll(List.of(terms));
@@ -172,6 +327,71 @@ public abstract class Term implements ResponseContent {
                 .subset(new MultiTermsRequest(getArgs(term)));
     }
 
+    /**
+     * Compute the intersection with the given terms without blocking the calling thread.
+     *
+     * @param terms The terms to compute an intersection with.
+     * @return A future completed with the resulting term.
+     * @see #getDetailsAsync()
+     */
+    @JsonIgnore
+    public CompletableFuture<Term> intersectionAsync(Term... terms) {
+        return RegexSolverApiWrapper.getInstance()
+                .computeIntersectionAsync(new MultiTermsRequest(getArgs(terms)));
+    }
+
+    /**
+     * Compute the union with the given terms without blocking the calling thread.
+     *
+     * @param terms The terms to compute a union with.
+     * @return A future completed with the resulting term.
+     * @see #getDetailsAsync()
+     */
+    @JsonIgnore
+    public CompletableFuture<Term> unionAsync(Term... terms) {
+        return RegexSolverApiWrapper.getInstance()
+                .computeUnionAsync(new MultiTermsRequest(getArgs(terms)));
+    }
+
+    /**
+     * Compute the subtraction with the given term without blocking the calling thread.
+     *
+     * @param term The term to subtract.
+     * @return A future completed with the resulting term.
+     * @see #getDetailsAsync()
+     */
+    @JsonIgnore
+    public CompletableFuture<Term> subtractionAsync(Term term) {
+        return RegexSolverApiWrapper.getInstance()
+                .computeSubtractionAsync(new MultiTermsRequest(getArgs(term)));
+    }
+
+    /**
+     * Check equivalence with the given term without blocking the calling thread.
+     *
+     * @param term The term to check equivalence with.
+     * @return A future completed with true if the terms are equivalent, false otherwise.
+     * @see #getDetailsAsync()
+     */
+    @JsonIgnore
+    public CompletableFuture<Boolean> isEquivalentToAsync(Term term) {
+        return RegexSolverApiWrapper.getInstance()
+                .equivalenceAsync(new MultiTermsRequest(getArgs(term)));
+    }
+
+    /**
+     * Check if is a subset of the given term without blocking the calling thread.
+     *
+     * @param term The term to check if is the superset of this.
+     * @return A future completed with true if this is a subset, false otherwise.
+     * @see #getDetailsAsync()
+     */
+    @JsonIgnore
+    public CompletableFuture<Boolean> isSubsetOfAsync(Term term) {
+        return RegexSolverApiWrapper.getInstance()
+                .subsetAsync(new MultiTermsRequest(getArgs(term)));
+    }
+
     /**
      * Generate a string representation that can be parsed by {@link #deserialize(String)}.
      *
@@ -189,10 +409,35 @@ public abstract class Term implements ResponseContent {
         } else {
             prefix = UNKNOWN_PREFIX;
         }
-        serialized = String.format("%s=%s", prefix, value);
+        serialized = prefix + '=' + value;
         return serialized;
     }
 
+    /**
+     * @return A new instance equal to this one, canonical in the given pool, with its hash code computed upfront.
+     */
+    Term canonicalCopy(TermPool pool) {
+        Term copy;
+        if (this instanceof Regex) {
+            copy = new Regex(value);
+        } else if (this instanceof Fair) {
+            copy = new Fair(value);
+        } else {
+            throw new IllegalArgumentException("Only regular expressions and FAIRs can be interned.");
+        }
+        copy.serialized = serialize();
+        copy.hash = hashCode();
+        copy.pool = pool;
+        return copy;
+    }
+
+    /**
+     * @return The pool this instance is canonical in, or null if it is not interned.
+     */
+    TermPool getPool() {
+        return pool;
+    }
+
     /**
      * Parse a string representation of a {@link Term} produced by {@link #serialize()}.
      *
@@ -219,12 +464,24 @@ public abstract class Term implements ResponseContent {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Term term = (Term) o;
+        if (pool != null && pool == term.pool) {
+            // Two distinct canonical instances of the same pool are never equal.
+            return false;
+        }
+        if (hash != 0 && term.hash != 0 && hash != term.hash) {
+            return false;
+        }
         return Objects.equals(term.serialize(), serialize());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(serialize());
+        int h = hash;
+        if (h == 0) {
+            h = Objects.hash(serialize());
+            hash = h;
+        }
+        return h;
     }
 
     @Override
@@ -0,0 +1,367 @@
+package com.regexsolver.api;
+
+import com.regexsolver.api.Request.MultiTermsRequest;
+import com.regexsolver.api.exception.ApiError;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * A lazy expression over terms, built with {@link Term#expr(Term)} and evaluated on demand.
+ * <p>
+ * Chained intersections and unions are flattened into a single n-ary request, and local identities such as
+ * {@code x ∩ x = x} and {@code x ∪ x = x} are applied before any request is sent, so that
+ * {@code Term.expr(a).and(b).and(c).or(d)} is evaluated with two requests instead of three.
+ * </p>
+ * <p>
+ * Expressions are immutable, and two expressions are equal if they apply the same operations to equal terms, the
+ * operands of intersections and unions being unordered. Their hash code is computed once from the ones of their
+ * operands, so that shared sub-expressions are cheap keys for hash maps.
+ * </p>
+ */
+public final class TermExpression {
+    /**
+     * The maximum number of terms accepted by a single request.
+     */
+    static final int MAX_OPERANDS = 10;
+
+    enum Operator {
+        TERM, INTERSECTION, UNION, SUBTRACTION
+    }
+
+    private final Operator operator;
+    private final Term term;
+    private final List<TermExpression> operands;
+    private final int hash;
+
+    private TermExpression(Term term) {
+        this.operator = Operator.TERM;
+        this.term = Objects.requireNonNull(term);
+        this.operands = List.of();
+        this.hash = term.hashCode();
+    }
+
+    private TermExpression(Operator operator, List<TermExpression> operands) {
+        this.operator = operator;
+        this.term = null;
+        this.operands = operands;
+
+        int operandsHash = 0;
+        for (TermExpression operand : operands) {
+            // The operands of intersections and unions are unordered.
+            operandsHash = (operator == Operator.SUBTRACTION ? 31 * operandsHash : operandsHash) + operand.hash;
+        }
+        this.hash = 31 * operator.ordinal() + operandsHash;
+    }
+
+    /**
+     * Create an expression made of a single term.
+     *
+     * @param term The term.
+     * @return The created expression.
+     */
+    public static TermExpression of(Term term) {
+        return new TermExpression(term);
+    }
+
+    /**
+     * @param terms The terms to intersect with this expression.
+     * @return The intersection of this expression with the given terms.
+     */
+    public TermExpression and(Term... terms) {
+        return and(wrap(terms));
+    }
+
+    /**
+     * @param expressions The expressions to intersect with this expression.
+     * @return The intersection of this expression with the given expressions.
+     */
+    public TermExpression and(TermExpression... expressions) {
+        return associative(Operator.INTERSECTION, this, expressions);
+    }
+
+    /**
+     * @param terms The terms to unite with this expression.
+     * @return The union of this expression with the given terms.
+     */
+    public TermExpression or(Term... terms) {
+        return or(wrap(terms));
+    }
+
+    /**
+     * @param expressions The expressions to unite with this expression.
+     * @return The union of this expression with the given expressions.
+     */
+    public TermExpression or(TermExpression... expressions) {
+        return associative(Operator.UNION, this, expressions);
+    }
+
+    /**
+     * @param term The term to subtract from this expression.
+     * @return This expression minus the given term.
+     */
+    public TermExpression minus(Term term) {
+        return minus(of(term));
+    }
+
+    /**
+     * @param expression The expression to subtract from this expression.
+     * @return This expression minus the given expression.
+     */
+    public TermExpression minus(TermExpression expression) {
+        return new TermExpression(Operator.SUBTRACTION, List.of(this, Objects.requireNonNull(expression)));
+    }
+
+    /**
+     * Evaluate this expression with the default client.
+     *
+     * @return The resulting term.
+     * @throws IOException In case of issues requesting the API server.
+     * @throws ApiError    In case of error returned by the API.
+     */
+    public Term evaluate() throws IOException, ApiError {
+        return evaluate(RegexSolverApiWrapper.getInstance());
+    }
+
+    /**
+     * Evaluate this expression with the given client.
+     *
+     * @param client The client to use.
+     * @return The resulting term.
+     * @throws IOException In case of issues requesting the API server.
+     * @throws ApiError    In case of error returned by the API.
+     */
+    public Term evaluate(RegexSolverClient client) throws IOException, ApiError {
+        return evaluate(client.getWrapper());
+    }
+
+    /**
+     * Evaluate this expression with the default client without blocking the calling thread,
+     * the independent operands being evaluated concurrently.
+     *
+     * @return A future completed with the resulting term.
+     */
+    public CompletableFuture<Term> evaluateAsync() {
+        return evaluateAsync(RegexSolverApiWrapper.getInstance());
+    }
+
+    /**
+     * Evaluate this expression with the given client without blocking the calling thread.
+     *
+     * @param client The client to use.
+     * @return A future completed with the resulting term.
+     */
+    public CompletableFuture<Term> evaluateAsync(RegexSolverClient client) {
+        return evaluateAsync(client.getWrapper());
+    }
+
+    /**
+     * @return The number of requests needed to evaluate this expression, assuming no two operands evaluate to equal
+     * terms.
+     */
+    public int getRequestCount() {
+        if (operator == Operator.TERM) {
+            return 0;
+        }
+        int count = getOwnRequestCount();
+        for (TermExpression operand : operands) {
+            count += operand.getRequestCount();
+        }
+        return count;
+    }
+
+    /**
+     * @return The number of requests needed to evaluate this node once its operands are evaluated.
+     */
+    int getOwnRequestCount() {
+        return operator == Operator.TERM ? 0 : requestCountOf(operands.size());
+    }
+
+    Term evaluate(RegexSolverApiWrapper wrapper) throws IOException, ApiError {
+        if (operator == Operator.TERM) {
+            return term;
+        }
+        List<Term> terms = new ArrayList<>(operands.size());
+        for (TermExpression operand : operands) {
+            terms.add(operand.evaluate(wrapper));
+        }
+        return apply(wrapper, operator, terms);
+    }
+
+    CompletableFuture<Term> evaluateAsync(RegexSolverApiWrapper wrapper) {
+        if (operator == Operator.TERM) {
+            return CompletableFuture.completedFuture(term);
+        }
+        List<CompletableFuture<Term>> futures = new ArrayList<>(operands.size());
+        for (TermExpression operand : operands) {
+            futures.add(operand.evaluateAsync(wrapper));
+        }
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture<?>[]::new))
+                .thenCompose(ignored -> applyAsync(wrapper, operator,
+                        futures.stream().map(CompletableFuture::join).collect(Collectors.toList())));
+    }
+
+    Operator getOperator() {
+        return operator;
+    }
+
+    Term getTerm() {
+        return term;
+    }
+
+    List<TermExpression> getOperands() {
+        return operands;
+    }
+
+    /**
+     * Apply the given operator to already evaluated operands, splitting n-ary operations that exceed the number of
+     * terms accepted by a request.
+     */
+    static Term apply(RegexSolverApiWrapper wrapper, Operator operator, List<Term> terms) throws IOException, ApiError {
+        if (operator == Operator.SUBTRACTION) {
+            return wrapper.computeSubtraction(new MultiTermsRequest(terms));
+        }
+        List<Term> remaining = distinct(terms);
+        while (remaining.size() > 1) {
+            List<Term> reduced = new ArrayList<>();
+            for (List<Term> chunk : chunks(remaining)) {
+                reduced.add(chunk.size() == 1 ? chunk.get(0) : operator == Operator.INTERSECTION
+                        ? wrapper.computeIntersection(new MultiTermsRequest(chunk))
+                        : wrapper.computeUnion(new MultiTermsRequest(chunk)));
+            }
+            remaining = distinct(reduced);
+        }
+        return remaining.get(0);
+    }
+
+    static CompletableFuture<Term> applyAsync(RegexSolverApiWrapper wrapper, Operator operator, List<Term> terms) {
+        return applyAsync(wrapper, operator, terms, Supplier::get);
+    }
+
+    /**
+     * Apply the given operator to already evaluated operands, each request being started through the given launcher.
+     */
+    static CompletableFuture<Term> applyAsync(RegexSolverApiWrapper wrapper, Operator operator, List<Term> terms,
+                                              Function<Supplier<CompletableFuture<Term>>, CompletableFuture<Term>> launcher) {
+        if (operator == Operator.SUBTRACTION) {
+            return launcher.apply(() -> wrapper.computeSubtractionAsync(new MultiTermsRequest(terms)));
+        }
+        List<Term> remaining = distinct(terms);
+        if (remaining.size() == 1) {
+            return CompletableFuture.completedFuture(remaining.get(0));
+        }
+        List<CompletableFuture<Term>> reduced = new ArrayList<>();
+        for (List<Term> chunk : chunks(remaining)) {
+            MultiTermsRequest request = new MultiTermsRequest(chunk);
+            reduced.add(chunk.size() == 1 ? CompletableFuture.completedFuture(chunk.get(0))
+                    : operator == Operator.INTERSECTION
+                    ? launcher.apply(() -> wrapper.computeIntersectionAsync(request))
+                    : launcher.apply(() -> wrapper.computeUnionAsync(request)));
+        }
+        return CompletableFuture.allOf(reduced.toArray(CompletableFuture<?>[]::new))
+                .thenCompose(ignored -> applyAsync(wrapper, operator,
+                        reduced.stream().map(CompletableFuture::join).collect(Collectors.toList()), launcher));
+    }
+
+    private static TermExpression associative(Operator operator, TermExpression first, TermExpression[] others) {
+        LinkedHashSet<TermExpression> operands = new LinkedHashSet<>();
+        flatten(operator, first, operands);
+        for (TermExpression other : others) {
+            flatten(operator, Objects.requireNonNull(other), operands);
+        }
+        if (operands.size() == 1) {
+            return operands.iterator().next();
+        }
+        return new TermExpression(operator, List.copyOf(operands));
+    }
+
+    private static void flatten(Operator operator, TermExpression expression, LinkedHashSet<TermExpression> operands) {
+        if (expression.operator == operator) {
+            operands.addAll(expression.operands);
+        } else {
+            operands.add(expression);
+        }
+    }
+
+    private static TermExpression[] wrap(Term[] terms) {
+        TermExpression[] expressions = new TermExpression[terms.length];
+        for (int i = 0; i < terms.length; i++) {
+            expressions[i] = of(terms[i]);
+        }
+        return expressions;
+    }
+
+    private static List<Term> distinct(List<Term> terms) {
+        return new ArrayList<>(new LinkedHashSet<>(terms));
+    }
+
+    /**
+     * Split the operands into full requests, the remaining operands being carried over to the next round with the
+     * results, so that {@code n} operands always take {@code ceil((n - 1) / (MAX_OPERANDS - 1))} requests.
+     */
+    private static List<List<Term>> chunks(List<Term> terms) {
+        List<List<Term>> chunks = new ArrayList<>();
+        if (terms.size() <= MAX_OPERANDS) {
+            chunks.add(terms);
+            return chunks;
+        }
+        int i = 0;
+        for (; i + MAX_OPERANDS <= terms.size(); i += MAX_OPERANDS) {
+            chunks.add(terms.subList(i, i + MAX_OPERANDS));
+        }
+        for (; i < terms.size(); i++) {
+            chunks.add(terms.subList(i, i + 1));
+        }
+        return chunks;
+    }
+
+    private static int requestCountOf(int operandCount) {
+        return operandCount <= 1 ? 0 : (operandCount - 2) / (MAX_OPERANDS - 1) + 1;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        TermExpression that = (TermExpression) o;
+        if (hash != that.hash || operator != that.operator || operands.size() != that.operands.size()) {
+            return false;
+        }
+        switch (operator) {
+            case TERM:
+                return term.equals(that.term);
+            case SUBTRACTION:
+                return operands.equals(that.operands);
+            default:
+                // The operands are distinct, so containing the same number of them is enough.
+                return new HashSet<>(operands).containsAll(that.operands);
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        switch (operator) {
+            case TERM:
+                return term.serialize();
+            case INTERSECTION:
+                return operands.stream().map(TermExpression::toString).collect(Collectors.joining(" ∩ ", "(", ")"));
+            case UNION:
+                return operands.stream().map(TermExpression::toString).collect(Collectors.joining(" ∪ ", "(", ")"));
+            default:
+                return "(" + operands.get(0) + " − " + operands.get(1) + ")";
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.regexsolver.api;
+
+import com.regexsolver.api.exception.ApiError;
+
+import java.io.IOException;
+
+/**
+ * A blocking operation on one or more {@link Term}, such as {@code () -> rule.isSubsetOf(policy)}.
+ *
+ * @param <T> The type of the result.
+ */
+@FunctionalInterface
+public interface TermOperation<T> {
+    /**
+     * Execute the operation.
+     *
+     * @return The result of the operation.
+     * @throws IOException In case of issues requesting the API server.
+     * @throws ApiError    In case of error returned by the API.
+     */
+    T execute() throws IOException, ApiError;
+}
@@ -0,0 +1,107 @@
+package com.regexsolver.api;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A concurrent pool of canonical {@link Term} instances, so that equal terms share a single instance.
+ * <p>
+ * The canonical instances have their serialized form and hash code computed upfront, and two of them from the same
+ * pool are only equal if they are the same instance, which makes them cheap keys for hash maps. The pool only holds
+ * weak references to them: a canonical instance no longer used elsewhere is garbage collected and removed from the
+ * pool.
+ * </p>
+ * <pre>{@code
+ * TermPool pool = new TermPool();
+ * Term.Regex first = Term.regex("abc.*", pool);
+ * Term.Regex second = pool.regex("abc.*");
+ * assert first == second;
+ * }</pre>
+ */
+public final class TermPool {
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ReferenceQueue<Term> collected = new ReferenceQueue<>();
+
+    /**
+     * Create an empty pool.
+     */
+    public TermPool() {
+    }
+
+    /**
+     * @param regex The regular expression pattern.
+     * @return The canonical instance of {@link Term.Regex} for the given pattern.
+     */
+    public Term.Regex regex(String regex) {
+        return intern(new Term.Regex(regex));
+    }
+
+    /**
+     * @param fair The FAIR.
+     * @return The canonical instance of {@link Term.Fair} for the given FAIR.
+     */
+    public Term.Fair fair(String fair) {
+        return intern(new Term.Fair(fair));
+    }
+
+    /**
+     * Get the canonical instance equal to the given term, which becomes the canonical instance if there was none.
+     *
+     * @param term A regular expression or a FAIR.
+     * @param <T>  The type of term.
+     * @return The canonical instance.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Term> T intern(T term) {
+        if (term.getPool() == this) {
+            return term;
+        }
+        expungeCollected();
+
+        String key = term.serialize();
+        Entry entry = entries.get(key);
+        Term canonical = entry != null ? entry.get() : null;
+        if (canonical != null) {
+            return (T) canonical;
+        }
+
+        Term copy = term.canonicalCopy(this);
+        Entry created = new Entry(key, copy, collected);
+        while (true) {
+            Entry existing = entries.putIfAbsent(key, created);
+            if (existing == null) {
+                return (T) copy;
+            }
+            canonical = existing.get();
+            if (canonical != null) {
+                return (T) canonical;
+            }
+            entries.remove(key, existing);
+        }
+    }
+
+    /**
+     * @return The number of canonical instances in the pool, some of which may be about to be collected.
+     */
+    public int size() {
+        expungeCollected();
+        return entries.size();
+    }
+
+    private void expungeCollected() {
+        Entry entry;
+        while ((entry = (Entry) collected.poll()) != null) {
+            entries.remove(entry.key, entry);
+        }
+    }
+
+    private static final class Entry extends WeakReference<Term> {
+        private final String key;
+
+        private Entry(String key, Term term, ReferenceQueue<Term> queue) {
+            super(term, queue);
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.regexsolver.api;
+
+import com.regexsolver.api.exception.ApiError;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Helpers to run blocking {@link Term} operations on virtual threads.
+ * <p>
+ * Virtual threads are available from Java 21. On older runtimes every method falls back to a pool of at most
+ * {@value #FALLBACK_POOL_SIZE} daemon platform threads, the default number of requests the HTTP client runs at the
+ * same time, so the same code can be shipped regardless of the runtime version.
+ * </p>
+ */
+public final class VirtualThreads {
+    /**
+     * The maximum number of platform threads started when virtual threads are not available.
+     */
+    static final int FALLBACK_POOL_SIZE = 64;
+
+    private static final Method NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = findVirtualThreadFactory();
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * @return true if the current runtime supports virtual threads, false otherwise.
+     */
+    public static boolean isAvailable() {
+        return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+    }
+
+    /**
+     * Create an executor that starts a new virtual thread for each task,
+     * or a pool of at most {@value #FALLBACK_POOL_SIZE} daemon threads queuing the other tasks if virtual threads are
+     * not available.
+     *
+     * @return The created executor, it has to be shut down by the caller.
+     */
+    public static ExecutorService newExecutor() {
+        if (NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null) {
+            try {
+                return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invoke(null);
+            } catch (IllegalAccessException | InvocationTargetException e) {
+                throw new IllegalStateException("Unable to create a virtual thread executor.", e);
+            }
+        }
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(FALLBACK_POOL_SIZE, FALLBACK_POOL_SIZE,
+                60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "RegexSolver worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Execute the given operations, one thread per operation, and wait for all of them to complete.
+     * As soon as an operation fails, whatever its position, the remaining ones are interrupted and its exception is
+     * rethrown.
+     *
+     * @param operations The operations to execute.
+     * @param <T>        The type of the results.
+     * @return The results, in the iteration order of the given operations.
+     * @throws IOException          In case of issues requesting the API server.
+     * @throws ApiError             In case of error returned by the API.
+     * @throws InterruptedException If the calling thread is interrupted while waiting.
+     */
+    public static <T> List<T> invokeAll(Collection<? extends TermOperation<T>> operations)
+            throws IOException, ApiError, InterruptedException {
+        ExecutorService executor = newExecutor();
+        try {
+            CompletionService<T> completionService = new ExecutorCompletionService<>(executor);
+            List<Future<T>> futures = new ArrayList<>(operations.size());
+            for (TermOperation<T> operation : operations) {
+                futures.add(completionService.submit(operation::execute));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                getResult(completionService.take());
+            }
+
+            List<T> results = new ArrayList<>(futures.size());
+            for (Future<T> future : futures) {
+                results.add(getResult(future));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static <T> T getResult(Future<T> future) throws IOException, ApiError, InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof ApiError) {
+                throw (ApiError) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private static Method findVirtualThreadFactory() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
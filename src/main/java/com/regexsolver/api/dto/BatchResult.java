@@ -0,0 +1,91 @@
+package com.regexsolver.api.dto;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Contains the outcome of one operation executed as part of a batch: either its result or its error.
+ *
+ * @param <T> The type of the result.
+ */
+public final class BatchResult<T> {
+    private final int index;
+    private final T value;
+    private final Throwable error;
+
+    private BatchResult(int index, T value, Throwable error) {
+        this.index = index;
+        this.value = value;
+        this.error = error;
+    }
+
+    /**
+     * @param index the position of the operation in the batch.
+     * @param value the result of the operation.
+     * @param <T>   the type of the result.
+     * @return A successful outcome.
+     */
+    public static <T> BatchResult<T> success(int index, T value) {
+        return new BatchResult<>(index, value, null);
+    }
+
+    /**
+     * @param index the position of the operation in the batch.
+     * @param error the error raised by the operation.
+     * @param <T>   the type of the result.
+     * @return A failed outcome.
+     */
+    public static <T> BatchResult<T> failure(int index, Throwable error) {
+        return new BatchResult<>(index, null, Objects.requireNonNull(error));
+    }
+
+    /**
+     * @return The position of the operation in the batch.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * @return true if the operation succeeded, false otherwise.
+     */
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    /**
+     * @return The result of the operation, null if it failed.
+     */
+    public T getValue() {
+        return value;
+    }
+
+    /**
+     * @return The error raised by the operation, empty if it succeeded.
+     */
+    public Optional<Throwable> getError() {
+        return Optional.ofNullable(error);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) return true;
+        if (obj == null || obj.getClass() != this.getClass()) return false;
+        var that = (BatchResult<?>) obj;
+        return this.index == that.index &&
+                Objects.equals(this.value, that.value) &&
+                Objects.equals(this.error, that.error);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(index, value, error);
+    }
+
+    @Override
+    public String toString() {
+        return "BatchResult[" +
+                "index=" + index + ", " +
+                (error == null ? "value=" + value : "error=" + error) + ']';
+    }
+}
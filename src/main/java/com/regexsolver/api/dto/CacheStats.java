@@ -0,0 +1,75 @@
+package com.regexsolver.api.dto;
+
+import java.util.Objects;
+
+/**
+ * Contains statistics about a cache.
+ */
+public final class CacheStats {
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+
+    /**
+     * @param hitCount      the number of lookups that found a value.
+     * @param missCount     the number of lookups that did not find a value.
+     * @param evictionCount the number of values removed because the cache was full or because they expired.
+     */
+    public CacheStats(long hitCount, long missCount, long evictionCount) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+    }
+
+    /**
+     * @return The number of lookups that found a value.
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return The number of lookups that did not find a value.
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return The number of values removed because the cache was full or because they expired.
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * @return The ratio of lookups that found a value, 1 if there was no lookup.
+     */
+    public double getHitRate() {
+        long requestCount = hitCount + missCount;
+        return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) return true;
+        if (obj == null || obj.getClass() != this.getClass()) return false;
+        var that = (CacheStats) obj;
+        return this.hitCount == that.hitCount &&
+                this.missCount == that.missCount &&
+                this.evictionCount == that.evictionCount;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(hitCount, missCount, evictionCount);
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats[" +
+                "hitCount=" + hitCount + ", " +
+                "missCount=" + missCount + ", " +
+                "evictionCount=" + evictionCount + ']';
+    }
+}
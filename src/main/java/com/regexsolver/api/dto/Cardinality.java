@@ -25,11 +25,26 @@ public abstract class Cardinality {
      * An infinite number of possible values.
      */
     public static final class Infinite extends Cardinality {
+        /**
+         * Shared instance, this class being stateless.
+         */
+        public static final Infinite INSTANCE = new Infinite();
+
         @Override
         public boolean isFinite() {
             return false;
         }
 
+        @Override
+        public boolean equals(Object obj) {
+            return obj == this || (obj != null && obj.getClass() == this.getClass());
+        }
+
+        @Override
+        public int hashCode() {
+            return Infinite.class.hashCode();
+        }
+
         @Override
         public String toString() {
             return "Infinite";
@@ -40,11 +55,26 @@ public abstract class Cardinality {
      * A finite number of possible values, but the number is too big to be computed.
      */
     public static final class BigInteger extends Cardinality {
+        /**
+         * Shared instance, this class being stateless.
+         */
+        public static final BigInteger INSTANCE = new BigInteger();
+
         @Override
         public boolean isFinite() {
             return true;
         }
 
+        @Override
+        public boolean equals(Object obj) {
+            return obj == this || (obj != null && obj.getClass() == this.getClass());
+        }
+
+        @Override
+        public int hashCode() {
+            return BigInteger.class.hashCode();
+        }
+
         @Override
         public String toString() {
             return "BigInteger";
@@ -68,7 +98,7 @@ public abstract class Cardinality {
 
         @Override
         public boolean isFinite() {
-            return false;
+            return true;
         }
 
         /**
@@ -78,6 +108,19 @@ public abstract class Cardinality {
             return count;
         }
 
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) return true;
+            if (obj == null || obj.getClass() != this.getClass()) return false;
+            var that = (Integer) obj;
+            return this.count == that.count;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(count);
+        }
+
         @Override
         public String toString() {
             return String.format("Integer(%s)", count);
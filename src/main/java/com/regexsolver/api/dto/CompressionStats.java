@@ -0,0 +1,125 @@
+package com.regexsolver.api.dto;
+
+import java.util.Objects;
+
+/**
+ * Contains statistics about the gzip compression of the bodies exchanged with the API.
+ */
+public final class CompressionStats {
+    private final long compressedRequestCount;
+    private final long requestBytes;
+    private final long compressedRequestBytes;
+    private final long compressedResponseCount;
+    private final long responseBytes;
+    private final long compressedResponseBytes;
+
+    /**
+     * @param compressedRequestCount  the number of request bodies sent compressed.
+     * @param requestBytes            the size of these request bodies before compression.
+     * @param compressedRequestBytes  the size of these request bodies after compression.
+     * @param compressedResponseCount the number of response bodies received compressed.
+     * @param responseBytes           the size of these response bodies after decompression.
+     * @param compressedResponseBytes the size of these response bodies as received.
+     */
+    public CompressionStats(
+            long compressedRequestCount,
+            long requestBytes,
+            long compressedRequestBytes,
+            long compressedResponseCount,
+            long responseBytes,
+            long compressedResponseBytes
+    ) {
+        this.compressedRequestCount = compressedRequestCount;
+        this.requestBytes = requestBytes;
+        this.compressedRequestBytes = compressedRequestBytes;
+        this.compressedResponseCount = compressedResponseCount;
+        this.responseBytes = responseBytes;
+        this.compressedResponseBytes = compressedResponseBytes;
+    }
+
+    /**
+     * @return The number of request bodies sent compressed.
+     */
+    public long getCompressedRequestCount() {
+        return compressedRequestCount;
+    }
+
+    /**
+     * @return The size of the compressed request bodies before compression.
+     */
+    public long getRequestBytes() {
+        return requestBytes;
+    }
+
+    /**
+     * @return The size of the compressed request bodies after compression.
+     */
+    public long getCompressedRequestBytes() {
+        return compressedRequestBytes;
+    }
+
+    /**
+     * @return The number of response bodies received compressed.
+     */
+    public long getCompressedResponseCount() {
+        return compressedResponseCount;
+    }
+
+    /**
+     * @return The size of the compressed response bodies after decompression.
+     */
+    public long getResponseBytes() {
+        return responseBytes;
+    }
+
+    /**
+     * @return The size of the compressed response bodies as received.
+     */
+    public long getCompressedResponseBytes() {
+        return compressedResponseBytes;
+    }
+
+    /**
+     * @return The uncompressed size of the request bodies divided by their compressed size, 1 if none was compressed.
+     */
+    public double getRequestCompressionRatio() {
+        return compressedRequestBytes == 0 ? 1.0 : (double) requestBytes / compressedRequestBytes;
+    }
+
+    /**
+     * @return The uncompressed size of the response bodies divided by their compressed size, 1 if none was compressed.
+     */
+    public double getResponseCompressionRatio() {
+        return compressedResponseBytes == 0 ? 1.0 : (double) responseBytes / compressedResponseBytes;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) return true;
+        if (obj == null || obj.getClass() != this.getClass()) return false;
+        var that = (CompressionStats) obj;
+        return this.compressedRequestCount == that.compressedRequestCount &&
+                this.requestBytes == that.requestBytes &&
+                this.compressedRequestBytes == that.compressedRequestBytes &&
+                this.compressedResponseCount == that.compressedResponseCount &&
+                this.responseBytes == that.responseBytes &&
+                this.compressedResponseBytes == that.compressedResponseBytes;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(compressedRequestCount, requestBytes, compressedRequestBytes,
+                compressedResponseCount, responseBytes, compressedResponseBytes);
+    }
+
+    @Override
+    public String toString() {
+        return "CompressionStats[" +
+                "compressedRequestCount=" + compressedRequestCount + ", " +
+                "requestBytes=" + requestBytes + ", " +
+                "compressedRequestBytes=" + compressedRequestBytes + ", " +
+                "compressedResponseCount=" + compressedResponseCount + ", " +
+                "responseBytes=" + responseBytes + ", " +
+                "compressedResponseBytes=" + compressedResponseBytes + ']';
+    }
+}
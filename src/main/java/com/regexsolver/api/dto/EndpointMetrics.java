@@ -0,0 +1,145 @@
+package com.regexsolver.api.dto;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Contains the metrics recorded for an endpoint of the API.
+ */
+public final class EndpointMetrics {
+    private final HistogramSnapshot latency;
+    private final Map<Integer, Long> statusCodes;
+    private final long requestBytes;
+    private final long responseBytes;
+    private final long retryCount;
+    private final long cacheHitCount;
+    private final long cacheMissCount;
+
+    /**
+     * @param latency        the latencies of the requests in nanoseconds.
+     * @param statusCodes    the number of responses per status code, 0 standing for the requests that got no response.
+     * @param requestBytes   the total size of the request bodies as sent.
+     * @param responseBytes  the total size of the response bodies as received.
+     * @param retryCount     the number of retries.
+     * @param cacheHitCount  the number of results found in a cache.
+     * @param cacheMissCount the number of results not found in a cache.
+     */
+    public EndpointMetrics(
+            HistogramSnapshot latency,
+            Map<Integer, Long> statusCodes,
+            long requestBytes,
+            long responseBytes,
+            long retryCount,
+            long cacheHitCount,
+            long cacheMissCount
+    ) {
+        this.latency = Objects.requireNonNull(latency);
+        this.statusCodes = Collections.unmodifiableMap(new TreeMap<>(statusCodes));
+        this.requestBytes = requestBytes;
+        this.responseBytes = responseBytes;
+        this.retryCount = retryCount;
+        this.cacheHitCount = cacheHitCount;
+        this.cacheMissCount = cacheMissCount;
+    }
+
+    /**
+     * @return The latencies of the requests in nanoseconds, until the response headers were received.
+     */
+    public HistogramSnapshot getLatency() {
+        return latency;
+    }
+
+    /**
+     * @return The number of responses per status code, sorted by status code, 0 standing for the requests that got
+     * no response.
+     */
+    public Map<Integer, Long> getStatusCodes() {
+        return statusCodes;
+    }
+
+    /**
+     * @return The number of requests sent, including retries and hedged requests.
+     */
+    public long getRequestCount() {
+        return statusCodes.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * @return The number of requests that got no response or an error response.
+     */
+    public long getErrorCount() {
+        return statusCodes.entrySet().stream()
+                .filter(entry -> entry.getKey() == 0 || entry.getKey() >= 400)
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+    }
+
+    /**
+     * @return The total size of the request bodies as sent.
+     */
+    public long getRequestBytes() {
+        return requestBytes;
+    }
+
+    /**
+     * @return The total size of the response bodies as received.
+     */
+    public long getResponseBytes() {
+        return responseBytes;
+    }
+
+    /**
+     * @return The number of retries.
+     */
+    public long getRetryCount() {
+        return retryCount;
+    }
+
+    /**
+     * @return The number of results found in the result cache or the disk result store.
+     */
+    public long getCacheHitCount() {
+        return cacheHitCount;
+    }
+
+    /**
+     * @return The number of results not found in the result cache or the disk result store.
+     */
+    public long getCacheMissCount() {
+        return cacheMissCount;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) return true;
+        if (obj == null || obj.getClass() != this.getClass()) return false;
+        var that = (EndpointMetrics) obj;
+        return this.latency.equals(that.latency) &&
+                this.statusCodes.equals(that.statusCodes) &&
+                this.requestBytes == that.requestBytes &&
+                this.responseBytes == that.responseBytes &&
+                this.retryCount == that.retryCount &&
+                this.cacheHitCount == that.cacheHitCount &&
+                this.cacheMissCount == that.cacheMissCount;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(latency, statusCodes, requestBytes, responseBytes, retryCount, cacheHitCount,
+                cacheMissCount);
+    }
+
+    @Override
+    public String toString() {
+        return "EndpointMetrics[" +
+                "latency=" + latency + ", " +
+                "statusCodes=" + statusCodes + ", " +
+                "requestBytes=" + requestBytes + ", " +
+                "responseBytes=" + responseBytes + ", " +
+                "retryCount=" + retryCount + ", " +
+                "cacheHitCount=" + cacheHitCount + ", " +
+                "cacheMissCount=" + cacheMissCount + ']';
+    }
+}
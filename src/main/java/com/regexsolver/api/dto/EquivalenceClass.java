@@ -0,0 +1,70 @@
+package com.regexsolver.api.dto;
+
+import com.regexsolver.api.Term;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Contains terms matching the same set of strings.
+ */
+public final class EquivalenceClass {
+    private final Term representative;
+    private final List<Term> terms;
+
+    /**
+     * @param representative the term chosen to stand for the class, one of the given terms.
+     * @param terms          the distinct terms of the class.
+     */
+    public EquivalenceClass(Term representative, List<Term> terms) {
+        if (!terms.contains(representative)) {
+            throw new IllegalArgumentException("The representative must be one of the terms of the class.");
+        }
+        this.representative = representative;
+        this.terms = Collections.unmodifiableList(new ArrayList<>(terms));
+    }
+
+    /**
+     * @return The term chosen to stand for the class.
+     */
+    public Term getRepresentative() {
+        return representative;
+    }
+
+    /**
+     * @return The distinct terms of the class, in the order they were first encountered.
+     */
+    public List<Term> getTerms() {
+        return terms;
+    }
+
+    /**
+     * @return The number of distinct terms in the class.
+     */
+    public int size() {
+        return terms.size();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) return true;
+        if (obj == null || obj.getClass() != this.getClass()) return false;
+        var that = (EquivalenceClass) obj;
+        return Objects.equals(this.representative, that.representative) &&
+                Objects.equals(this.terms, that.terms);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(representative, terms);
+    }
+
+    @Override
+    public String toString() {
+        return "EquivalenceClass[" +
+                "representative=" + representative + ", " +
+                "terms=" + terms + ']';
+    }
+}
@@ -0,0 +1,143 @@
+package com.regexsolver.api.dto;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Contains the values recorded by a histogram, grouped in buckets.
+ */
+public final class HistogramSnapshot {
+    private final long[] upperBounds;
+    private final long[] counts;
+    private final long count;
+    private final long min;
+    private final long max;
+    private final long sum;
+
+    /**
+     * @param upperBounds the highest value of each non-empty bucket, in increasing order.
+     * @param counts      the number of values in each of these buckets.
+     * @param min         the lowest value recorded, 0 if none was.
+     * @param max         the highest value recorded, 0 if none was.
+     * @param sum         the sum of the values recorded.
+     */
+    public HistogramSnapshot(long[] upperBounds, long[] counts, long min, long max, long sum) {
+        if (upperBounds.length != counts.length) {
+            throw new IllegalArgumentException("There must be as many counts as buckets.");
+        }
+        this.upperBounds = upperBounds.clone();
+        this.counts = counts.clone();
+        this.count = Arrays.stream(counts).sum();
+        this.min = min;
+        this.max = max;
+        this.sum = sum;
+    }
+
+    /**
+     * @return The number of values recorded.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return The lowest value recorded, 0 if none was.
+     */
+    public long getMin() {
+        return min;
+    }
+
+    /**
+     * @return The highest value recorded, 0 if none was.
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * @return The sum of the values recorded.
+     */
+    public long getSum() {
+        return sum;
+    }
+
+    /**
+     * @return The mean of the values recorded, 0 if none was.
+     */
+    public double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * @param percentile A percentile between 0 and 100.
+     * @return The lowest value such that the given percentage of the values recorded are lower or equal to it,
+     * within the precision of the buckets, 0 if no value was recorded.
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (!(percentile >= 0 && percentile <= 100)) {
+            throw new IllegalArgumentException("The percentile must be between 0 and 100.");
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.max(min, Math.min(max, upperBounds[i]));
+            }
+        }
+        return max;
+    }
+
+    /**
+     * @return The number of non-empty buckets.
+     */
+    public int getBucketCount() {
+        return counts.length;
+    }
+
+    /**
+     * @param bucket The index of a non-empty bucket.
+     * @return The highest value of this bucket.
+     */
+    public long getBucketUpperBound(int bucket) {
+        return upperBounds[bucket];
+    }
+
+    /**
+     * @param bucket The index of a non-empty bucket.
+     * @return The number of values in this bucket.
+     */
+    public long getBucketValueCount(int bucket) {
+        return counts[bucket];
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) return true;
+        if (obj == null || obj.getClass() != this.getClass()) return false;
+        var that = (HistogramSnapshot) obj;
+        return Arrays.equals(this.upperBounds, that.upperBounds) &&
+                Arrays.equals(this.counts, that.counts) &&
+                this.min == that.min &&
+                this.max == that.max &&
+                this.sum == that.sum;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(Arrays.hashCode(upperBounds), Arrays.hashCode(counts), min, max, sum);
+    }
+
+    @Override
+    public String toString() {
+        return "HistogramSnapshot[" +
+                "count=" + count + ", " +
+                "min=" + min + ", " +
+                "p50=" + getValueAtPercentile(50) + ", " +
+                "p99=" + getValueAtPercentile(99) + ", " +
+                "max=" + max + ']';
+    }
+}
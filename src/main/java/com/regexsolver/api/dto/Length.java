@@ -26,6 +26,18 @@ public final class Length {
         this.maximum = maximum;
     }
 
+    /**
+     * Create a new instance.
+     *
+     * @param minimum the minimum length of possible values, null if is an empty set.
+     * @param maximum the maximum length of possible values, null if the maximum length is infinite or if is an empty
+     *                set.
+     * @return The created instance.
+     */
+    public static Length of(Long minimum, Long maximum) {
+        return new Length(minimum, maximum);
+    }
+
     /**
      * @return The minimum length of possible values, empty if is an empty set.
      */
@@ -0,0 +1,79 @@
+package com.regexsolver.api.dto;
+
+import java.util.Objects;
+
+/**
+ * Contains statistics about the subset and equivalence operations decided locally from the details of their operands.
+ */
+public final class PrecheckStats {
+    private final long subsetHitCount;
+    private final long subsetMissCount;
+    private final long equivalenceHitCount;
+    private final long equivalenceMissCount;
+
+    /**
+     * @param subsetHitCount       the number of subset operations decided locally.
+     * @param subsetMissCount      the number of subset operations left to the API.
+     * @param equivalenceHitCount  the number of equivalence operations decided locally.
+     * @param equivalenceMissCount the number of equivalence operations left to the API.
+     */
+    public PrecheckStats(long subsetHitCount, long subsetMissCount, long equivalenceHitCount, long equivalenceMissCount) {
+        this.subsetHitCount = subsetHitCount;
+        this.subsetMissCount = subsetMissCount;
+        this.equivalenceHitCount = equivalenceHitCount;
+        this.equivalenceMissCount = equivalenceMissCount;
+    }
+
+    /**
+     * @return The number of subset operations decided locally.
+     */
+    public long getSubsetHitCount() {
+        return subsetHitCount;
+    }
+
+    /**
+     * @return The number of subset operations left to the API.
+     */
+    public long getSubsetMissCount() {
+        return subsetMissCount;
+    }
+
+    /**
+     * @return The number of equivalence operations decided locally.
+     */
+    public long getEquivalenceHitCount() {
+        return equivalenceHitCount;
+    }
+
+    /**
+     * @return The number of equivalence operations left to the API.
+     */
+    public long getEquivalenceMissCount() {
+        return equivalenceMissCount;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) return true;
+        if (obj == null || obj.getClass() != this.getClass()) return false;
+        var that = (PrecheckStats) obj;
+        return this.subsetHitCount == that.subsetHitCount &&
+                this.subsetMissCount == that.subsetMissCount &&
+                this.equivalenceHitCount == that.equivalenceHitCount &&
+                this.equivalenceMissCount == that.equivalenceMissCount;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(subsetHitCount, subsetMissCount, equivalenceHitCount, equivalenceMissCount);
+    }
+
+    @Override
+    public String toString() {
+        return "PrecheckStats[" +
+                "subsetHitCount=" + subsetHitCount + ", " +
+                "subsetMissCount=" + subsetMissCount + ", " +
+                "equivalenceHitCount=" + equivalenceHitCount + ", " +
+                "equivalenceMissCount=" + equivalenceMissCount + ']';
+    }
+}
@@ -0,0 +1,139 @@
+package com.regexsolver.api.dto;
+
+import com.regexsolver.api.Term;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Contains the subset relation over a list of terms, stored as one row of bits per term.
+ */
+public final class SubsetMatrix {
+    private final List<Term> terms;
+    private final int words;
+    private final long[] bits;
+    private final int requestCount;
+
+    /**
+     * @param terms        the terms, in the order of the rows and columns of the matrix.
+     * @param bits         the rows of the matrix, each taking {@code (terms.size() + 63) / 64} longs, bit {@code j} of
+     *                     row {@code i} being set if the term {@code i} is a subset of the term {@code j}.
+     * @param requestCount the number of subset requests made to compute the matrix.
+     */
+    public SubsetMatrix(List<Term> terms, long[] bits, int requestCount) {
+        this.terms = Collections.unmodifiableList(new ArrayList<>(terms));
+        this.words = (terms.size() + 63) / 64;
+        if (bits.length != terms.size() * words) {
+            throw new IllegalArgumentException("There must be one row of bits per term.");
+        }
+        this.bits = bits.clone();
+        this.requestCount = requestCount;
+    }
+
+    /**
+     * @return The terms, in the order of the rows and columns of the matrix.
+     */
+    public List<Term> getTerms() {
+        return terms;
+    }
+
+    /**
+     * @return The number of terms.
+     */
+    public int size() {
+        return terms.size();
+    }
+
+    /**
+     * @param i The index of a term.
+     * @param j The index of a term.
+     * @return true if the term {@code i} is a subset of the term {@code j}.
+     */
+    public boolean isSubset(int i, int j) {
+        Objects.checkIndex(i, terms.size());
+        Objects.checkIndex(j, terms.size());
+        return (bits[i * words + (j >>> 6)] & (1L << j)) != 0;
+    }
+
+    /**
+     * @param i The index of a term.
+     * @param j The index of a term.
+     * @return true if the terms {@code i} and {@code j} match the same set of strings.
+     */
+    public boolean isEquivalent(int i, int j) {
+        return isSubset(i, j) && isSubset(j, i);
+    }
+
+    /**
+     * @param i The index of a term.
+     * @return The indexes of the terms the term {@code i} is a subset of, in increasing order, including {@code i}.
+     */
+    public List<Integer> getSupersets(int i) {
+        Objects.checkIndex(i, terms.size());
+        List<Integer> supersets = new ArrayList<>();
+        for (int w = 0; w < words; w++) {
+            long word = bits[i * words + w];
+            while (word != 0) {
+                supersets.add(w * 64 + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+        return supersets;
+    }
+
+    /**
+     * @param j The index of a term.
+     * @return The indexes of the terms that are a subset of the term {@code j}, in increasing order, including
+     * {@code j}.
+     */
+    public List<Integer> getSubsets(int j) {
+        Objects.checkIndex(j, terms.size());
+        List<Integer> subsets = new ArrayList<>();
+        for (int i = 0; i < terms.size(); i++) {
+            if (isSubset(i, j)) {
+                subsets.add(i);
+            }
+        }
+        return subsets;
+    }
+
+    /**
+     * @return The number of subset requests made to compute the matrix.
+     */
+    public int getRequestCount() {
+        return requestCount;
+    }
+
+    /**
+     * @return The number of subset requests saved compared to requesting every ordered pair of distinct indexes.
+     */
+    public long getSavedRequestCount() {
+        return (long) terms.size() * (terms.size() - 1) - requestCount;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) return true;
+        if (obj == null || obj.getClass() != this.getClass()) return false;
+        var that = (SubsetMatrix) obj;
+        return Objects.equals(this.terms, that.terms) &&
+                Arrays.equals(this.bits, that.bits) &&
+                this.requestCount == that.requestCount;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(terms, Arrays.hashCode(bits), requestCount);
+    }
+
+    @Override
+    public String toString() {
+        return "SubsetMatrix[" +
+                "size=" + terms.size() + ", " +
+                "requestCount=" + requestCount + ", " +
+                "savedRequestCount=" + getSavedRequestCount() + ']';
+    }
+}
@@ -1,19 +1,71 @@
 package com.regexsolver.api.exception;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import java.time.Duration;
+import java.util.Optional;
+
 /**
  * Thrown when the API returns an error.
  */
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class ApiError extends Exception {
+    private final int statusCode;
+    private final Duration retryAfter;
+
     /**
      * Create a new instance.
      *
      * @param message The error message returned by the API.
      */
+    @JsonCreator
     public ApiError(@JsonProperty("message") String message) {
+        this(message, 0, null);
+    }
+
+    /**
+     * Create a new instance.
+     *
+     * @param message    The error message returned by the API.
+     * @param statusCode The HTTP status code of the response, 0 if unknown.
+     * @param retryAfter The delay requested by the {@code Retry-After} header of the response, null if none.
+     */
+    public ApiError(String message, int statusCode, Duration retryAfter) {
         super(String.format("The API returned the following error: %s", message));
+        this.statusCode = statusCode;
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * @return The HTTP status code of the response, 0 if unknown.
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * @return The delay requested by the {@code Retry-After} header of the response, empty if none.
+     */
+    public Optional<Duration> getRetryAfter() {
+        return Optional.ofNullable(retryAfter);
+    }
+
+    /**
+     * @return true if the error is transient and the same request may succeed later, such as
+     * {@code 429 Too Many Requests} or {@code 503 Service Unavailable}, false otherwise.
+     */
+    public boolean isRetryable() {
+        switch (statusCode) {
+            case 408:
+            case 429:
+            case 502:
+            case 503:
+            case 504:
+                return true;
+            default:
+                return false;
+        }
     }
 }
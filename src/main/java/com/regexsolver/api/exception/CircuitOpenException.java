@@ -0,0 +1,20 @@
+package com.regexsolver.api.exception;
+
+import java.io.IOException;
+
+/**
+ * Thrown without requesting the API when the circuit breaker of an endpoint is open, after too many consecutive
+ * failures of this endpoint.
+ */
+public class CircuitOpenException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Create a new instance.
+     *
+     * @param endpoint The endpoint whose circuit breaker is open.
+     */
+    public CircuitOpenException(String endpoint) {
+        super(String.format("The circuit breaker of %s is open after too many consecutive failures.", endpoint));
+    }
+}
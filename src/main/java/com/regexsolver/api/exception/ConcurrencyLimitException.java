@@ -0,0 +1,20 @@
+package com.regexsolver.api.exception;
+
+import java.io.IOException;
+
+/**
+ * Thrown without requesting the API when a request waited too long for the client-side concurrency limit to let it
+ * through, the API being saturated.
+ */
+public class ConcurrencyLimitException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Create a new instance.
+     *
+     * @param limit The concurrency limit when the request gave up waiting.
+     */
+    public ConcurrencyLimitException(int limit) {
+        super(String.format("The request waited too long to be sent, %d requests being already in flight.", limit));
+    }
+}
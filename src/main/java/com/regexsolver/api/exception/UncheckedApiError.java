@@ -0,0 +1,28 @@
+package com.regexsolver.api.exception;
+
+import java.util.Objects;
+
+/**
+ * Wraps an {@link ApiError} with an unchecked exception, thrown where checked exceptions cannot be, such as in a
+ * {@link java.util.stream.Stream}.
+ */
+public class UncheckedApiError extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Create a new instance.
+     *
+     * @param cause The error returned by the API.
+     */
+    public UncheckedApiError(ApiError cause) {
+        super(Objects.requireNonNull(cause).getMessage(), cause);
+    }
+
+    /**
+     * @return The error returned by the API.
+     */
+    @Override
+    public synchronized ApiError getCause() {
+        return (ApiError) super.getCause();
+    }
+}
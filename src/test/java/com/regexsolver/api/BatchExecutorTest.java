@@ -0,0 +1,128 @@
+package com.regexsolver.api;
+
+import com.regexsolver.api.dto.BatchResult;
+import com.regexsolver.api.exception.ApiError;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class BatchExecutorTest {
+    private static final int OPERATIONS = 200;
+    private static final int MAX_IN_FLIGHT = 16;
+
+    private MockWebServer server;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxObservedInFlight = new AtomicInteger();
+
+    @Before
+    public void setUp() throws Exception {
+        String success = TestUtils.getResourceFileContent("response_isSubsetOf.json");
+        String error = TestUtils.getResourceFileContent("response_error.json");
+
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                maxObservedInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(5);
+                    if (request.getBody().readUtf8().contains("fail")) {
+                        return TestUtils.generateErrorMockResponse(error, 400);
+                    }
+                    return TestUtils.generateMockResponse(success);
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            }
+        });
+        server.start();
+
+        RegexSolver.initialize("TOKEN", server.url("/").toString());
+        RegexSolver.setLocalEvaluation(false);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void test_execute() {
+        RegexSolverClient client = RegexSolverClient.builder()
+                .token("TOKEN")
+                .baseUrl(server.url("/").toString())
+                .maxRequestsPerHost(MAX_IN_FLIGHT)
+                .build();
+        Term.Regex policy = Term.regex("[a-z0-9]+");
+        List<Supplier<CompletableFuture<Boolean>>> operations = new ArrayList<>();
+        for (int i = 0; i < OPERATIONS; i++) {
+            Term.Regex rule = Term.regex(i % 50 == 0 ? "fail" + i : "rule" + i);
+            operations.add(() -> client.isSubsetOfAsync(rule, policy));
+        }
+
+        List<BatchResult<Boolean>> results;
+        try (client; Stream<BatchResult<Boolean>> stream = new BatchExecutor(client, MAX_IN_FLIGHT).execute(operations)) {
+            results = stream.collect(Collectors.toList());
+        }
+
+        assertEquals(OPERATIONS, results.size());
+        BitSet indexes = new BitSet();
+        for (BatchResult<Boolean> result : results) {
+            indexes.set(result.getIndex());
+            if (result.getIndex() % 50 == 0) {
+                assertFalse(result.isSuccess());
+                assertTrue(result.toString(), result.getError().orElseThrow() instanceof ApiError);
+            } else {
+                assertTrue(result.isSuccess());
+                assertTrue(result.getValue());
+            }
+        }
+        assertEquals(OPERATIONS, indexes.cardinality());
+        assertEquals(OPERATIONS, server.getRequestCount());
+        assertTrue(maxObservedInFlight.get() <= MAX_IN_FLIGHT);
+        assertTrue(maxObservedInFlight.get() > 5);
+    }
+
+    @Test
+    public void test_synchronousCompletion() {
+        List<Supplier<CompletableFuture<Integer>>> operations = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            int value = i;
+            operations.add(() -> CompletableFuture.completedFuture(value));
+        }
+
+        try (Stream<BatchResult<Integer>> stream = new BatchExecutor(1).execute(operations)) {
+            assertEquals(100_000, stream.filter(BatchResult::isSuccess).count());
+        }
+    }
+
+    @Test
+    public void test_windowLargerThanTheDispatcher() {
+        try (RegexSolverClient client = RegexSolverClient.builder()
+                .token("TOKEN")
+                .baseUrl(server.url("/").toString())
+                .maxRequestsPerHost(MAX_IN_FLIGHT)
+                .build()) {
+            new BatchExecutor(client, MAX_IN_FLIGHT);
+            assertThrows(IllegalArgumentException.class, () -> new BatchExecutor(client, MAX_IN_FLIGHT + 1));
+        }
+        assertThrows(IllegalArgumentException.class, () -> new BatchExecutor(256));
+    }
+}
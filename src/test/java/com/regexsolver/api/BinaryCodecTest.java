@@ -0,0 +1,131 @@
+package com.regexsolver.api;
+
+import com.regexsolver.api.dto.Cardinality;
+import com.regexsolver.api.dto.Details;
+import com.regexsolver.api.dto.Length;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class BinaryCodecTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void test_terms() throws IOException {
+        List<Term> terms = List.of(Term.regex("abc.*"), Term.fair("rgmsW[1g2LvP=Jr"), Term.regex(""),
+                Term.regex("é[😀-😂]?"), Term.regex("\uD800x"));
+
+        ByteBuffer buffer = ByteBuffer.allocate(BinaryCodec.sizeOfTerms(terms));
+        BinaryCodec.writeTerms(buffer, terms);
+        assertFalse(buffer.hasRemaining());
+        buffer.flip();
+
+        List<Term> read = BinaryCodec.readTerms(buffer);
+        assertEquals(terms.subList(0, 4), read.subList(0, 4));
+        assertEquals(Term.regex("?x"), read.get(4));
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    public void test_compactEncoding() {
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        BinaryCodec.writeTerm(buffer, Term.regex("abc"));
+        assertEquals(5, buffer.position());
+        assertEquals(5, BinaryCodec.sizeOfTerm(Term.regex("abc")));
+
+        assertEquals(1, BinaryCodec.sizeOfVarLong(127));
+        assertEquals(2, BinaryCodec.sizeOfVarLong(128));
+        assertEquals(10, BinaryCodec.sizeOfVarLong(-1));
+    }
+
+    @Test
+    public void test_details() throws IOException {
+        List<Details> details = List.of(
+                new Details(new Cardinality.Integer(300), Length.of(3L, 1000L), false, false),
+                new Details(Cardinality.Infinite.INSTANCE, Length.of(0L, null), false, true),
+                new Details(Cardinality.BigInteger.INSTANCE, Length.of(5L, 1L << 40), false, false),
+                new Details(new Cardinality.Integer(0), Length.of(null, null), true, false)
+        );
+        for (Details expected : details) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BinaryCodec.sizeOfDetails(expected));
+            BinaryCodec.writeDetails(buffer, expected);
+            assertFalse(buffer.hasRemaining());
+            buffer.flip();
+            assertEquals(expected, BinaryCodec.readDetails(buffer));
+        }
+    }
+
+    @Test
+    public void test_missingDetailsValues() {
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        Cardinality unknown = new Cardinality() {
+            @Override
+            public boolean isFinite() {
+                return false;
+            }
+
+            @Override
+            public String toString() {
+                return "Unknown";
+            }
+        };
+
+        assertThrows(IllegalArgumentException.class, () -> BinaryCodec.sizeOfCardinality(null));
+        assertThrows(IllegalArgumentException.class, () -> BinaryCodec.writeCardinality(buffer, null));
+        assertThrows(IllegalArgumentException.class, () -> BinaryCodec.writeCardinality(buffer, unknown));
+        assertThrows(IllegalArgumentException.class, () -> BinaryCodec.sizeOfLength(null));
+        assertThrows(IllegalArgumentException.class, () -> BinaryCodec.writeLength(buffer, null));
+        assertEquals(0, buffer.position());
+    }
+
+    @Test
+    public void test_memoryMappedBulkLoad() throws IOException {
+        List<Term> terms = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            terms.add(i % 2 == 0 ? Term.regex("abc" + i + ".*") : Term.fair("fair" + i));
+        }
+        Path path = folder.newFile().toPath();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, BinaryCodec.sizeOfTerms(terms));
+            BinaryCodec.writeTerms(mapped, terms);
+            mapped.force();
+        }
+
+        TermPool pool = new TermPool();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            List<Term> read = BinaryCodec.readTerms(mapped, pool);
+            assertEquals(terms, read);
+            assertSame(pool.regex("abc0.*"), read.get(0));
+        }
+    }
+
+    @Test
+    public void test_invalidData() {
+        List<Term> terms = List.of(Term.regex("abc.*"));
+        ByteBuffer buffer = ByteBuffer.allocate(BinaryCodec.sizeOfTerms(terms));
+        BinaryCodec.writeTerms(buffer, terms);
+
+        ByteBuffer truncated = buffer.duplicate().flip().limit(buffer.position() - 1);
+        assertThrows(EOFException.class, () -> BinaryCodec.readTerms(truncated));
+
+        ByteBuffer otherVersion = buffer.duplicate().flip().put(4, (byte) (BinaryCodec.VERSION + 1));
+        IOException e = assertThrows(IOException.class, () -> BinaryCodec.readTerms(otherVersion));
+        assertEquals("Unsupported version: 2", e.getMessage());
+
+        assertThrows(IOException.class, () -> BinaryCodec.readTerm(ByteBuffer.wrap(new byte[]{'X', 0})));
+    }
+}
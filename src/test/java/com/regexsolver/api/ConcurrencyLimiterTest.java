@@ -0,0 +1,237 @@
+package com.regexsolver.api;
+
+import com.regexsolver.api.exception.ConcurrencyLimitException;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ConcurrencyLimiterTest {
+    private MockWebServer server;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void test_growWhenHealthy() throws Exception {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(ConcurrencyLimitPolicy.builder().initialLimit(2).build());
+
+        limiter.acquire(() -> false);
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire(() -> false);
+            limiter.release(0, 100, false);
+        }
+        assertEquals(3, limiter.getLimit());
+
+        // A single request in flight does not use enough of the limit for it to grow.
+        for (int i = 0; i < 10; i++) {
+            limiter.release(0, 100, false);
+            limiter.acquire(() -> false);
+        }
+        limiter.release(0, 100, false);
+        assertEquals(3, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    public void test_shrinkOncePerWindowWhenOverloaded() throws Exception {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(ConcurrencyLimitPolicy.builder()
+                .initialLimit(20)
+                .backoffRatio(0.5)
+                .build());
+
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire(() -> false);
+        }
+        limiter.release(0, 100, true);
+        assertEquals(10, limiter.getLimit());
+
+        // Sent before the decrease, so already accounted for.
+        limiter.release(10, 110, true);
+        assertEquals(10, limiter.getLimit());
+
+        limiter.release(200, 300, true);
+        assertEquals(5, limiter.getLimit());
+    }
+
+    @Test
+    public void test_shrinkWhenLatencyRises() throws Exception {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(ConcurrencyLimitPolicy.builder()
+                .initialLimit(10)
+                .backoffRatio(0.5)
+                .latencyTolerance(2)
+                .build());
+
+        limiter.acquire(() -> false);
+        limiter.release(0, 100, false);
+        assertEquals(10, limiter.getLimit());
+
+        limiter.acquire(() -> false);
+        limiter.release(1000, 1500, false);
+        assertEquals(5, limiter.getLimit());
+    }
+
+    @Test
+    public void test_boundedWait() throws Exception {
+        server.enqueue(union().setHeadersDelay(1, TimeUnit.SECONDS));
+        RegexSolverClient client = client(ConcurrencyLimitPolicy.builder()
+                .initialLimit(1)
+                .maxLimit(1)
+                .maxWait(Duration.ofMillis(100))
+                .build());
+
+        CompletableFuture<Term> first = client.unionAsync(Term.regex("abc.*"), Term.regex("de.*"));
+        assertNotNull(server.takeRequest(5, TimeUnit.SECONDS));
+        try {
+            client.union(Term.regex("abc.*"), Term.regex("fghi.*"));
+            fail();
+        } catch (ConcurrencyLimitException e) {
+            assertEquals(1, server.getRequestCount());
+        }
+        assertEquals(Term.regex("(abc|de|fghi)"), first.get(5, TimeUnit.SECONDS));
+        client.close();
+    }
+
+    @Test
+    public void test_asyncCallsWaitOutsideTheDispatcher() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            server.enqueue(union().setHeadersDelay(200, TimeUnit.MILLISECONDS));
+        }
+        RegexSolverClient client = client(ConcurrencyLimitPolicy.builder()
+                .initialLimit(1)
+                .maxLimit(1)
+                .build());
+
+        List<CompletableFuture<Term>> futures = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            futures.add(client.unionAsync(Term.regex("abc" + i + ".*"), Term.regex("de.*")));
+        }
+        assertNotNull(server.takeRequest(5, TimeUnit.SECONDS));
+        assertEquals(1, client.getWrapper().getDispatcher().runningCallsCount());
+
+        for (CompletableFuture<Term> future : futures) {
+            assertNotNull(future.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(4, server.getRequestCount());
+        assertEquals(0, client.getWrapper().getConcurrencyLimiter().getInFlight());
+        client.close();
+    }
+
+    @Test
+    public void test_boundedAsyncWait() throws Exception {
+        server.enqueue(union().setHeadersDelay(1, TimeUnit.SECONDS));
+        RegexSolverClient client = client(ConcurrencyLimitPolicy.builder()
+                .initialLimit(1)
+                .maxLimit(1)
+                .maxWait(Duration.ofMillis(100))
+                .build());
+
+        CompletableFuture<Term> first = client.unionAsync(Term.regex("abc.*"), Term.regex("de.*"));
+        CompletableFuture<Term> second = client.unionAsync(Term.regex("abc.*"), Term.regex("fghi.*"));
+        ExecutionException e = assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof ConcurrencyLimitException);
+        assertEquals(Term.regex("(abc|de|fghi)"), first.get(5, TimeUnit.SECONDS));
+        assertEquals(1, server.getRequestCount());
+        client.close();
+    }
+
+    @Test
+    public void test_adaptToSaturatedServer() throws Exception {
+        int capacity = 4;
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        String body = TestUtils.getResourceFileContent("response_union.json");
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                try {
+                    if (active.incrementAndGet() > capacity) {
+                        rejected.incrementAndGet();
+                        return new MockResponse().setResponseCode(429)
+                                .setBody("{\"message\":\"Too many requests.\"}");
+                    }
+                    Thread.sleep(20);
+                    return TestUtils.generateMockResponse(body);
+                } finally {
+                    active.decrementAndGet();
+                }
+            }
+        });
+
+        RegexSolverClient client = client(ConcurrencyLimitPolicy.builder().initialLimit(32).build());
+        ConcurrencyLimiter limiter = client.getWrapper().getConcurrencyLimiter();
+
+        // The limit quickly drops from its initial value, requests over the capacity being rejected meanwhile, far
+        // fewer than the nearly 200 an unbounded client would get rejected. A request holds its slot from the time it
+        // is handed to the HTTP client, so the limit settles a few requests above the capacity of the server.
+        assertEquals(200, runUnions(client, 200) + rejected.get());
+        assertTrue(rejected.get() < 150);
+        assertEquals(0, limiter.getInFlight());
+        assertTrue(limiter.getLimit() < 16);
+
+        // Once adapted, only the probing above the capacity, about once per round trip, is rejected.
+        int rejectedBefore = rejected.get();
+        assertEquals(200, runUnions(client, 200) + rejected.get() - rejectedBefore);
+        assertTrue(rejected.get() - rejectedBefore < 80);
+        assertTrue(limiter.getLimit() < 16);
+        client.close();
+    }
+
+    /**
+     * @return The number of unions that succeeded.
+     */
+    private static int runUnions(RegexSolverClient client, int count) throws Exception {
+        List<CompletableFuture<Term>> futures = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            futures.add(client.unionAsync(Term.regex("abc" + i + ".*"), Term.regex("de.*")));
+        }
+        int succeeded = 0;
+        for (CompletableFuture<Term> future : futures) {
+            try {
+                future.get(30, TimeUnit.SECONDS);
+                succeeded++;
+            } catch (ExecutionException e) {
+                // Rejected by the saturated server.
+            }
+        }
+        return succeeded;
+    }
+
+    private RegexSolverClient client(ConcurrencyLimitPolicy policy) {
+        return RegexSolverClient.builder()
+                .token("TOKEN")
+                .baseUrl(server.url("/").toString())
+                .maxRequests(64)
+                .maxRequestsPerHost(64)
+                .localEvaluation(false)
+                .resiliencePolicy(ResiliencePolicy.NONE)
+                .concurrencyLimitPolicy(policy)
+                .build();
+    }
+
+    private static MockResponse union() throws IOException {
+        return TestUtils.generateMockResponse(TestUtils.getResourceFileContent("response_union.json"));
+    }
+}
@@ -0,0 +1,177 @@
+package com.regexsolver.api;
+
+import com.regexsolver.api.dto.EquivalenceClass;
+import com.regexsolver.api.exception.ApiError;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+public class DeduplicatorTest {
+    private static final Pattern TERM = Pattern.compile("\"value\":\"k(\\d+)\\.(\\d+)\"");
+
+    private MockWebServer server;
+
+    private final Map<String, AtomicInteger> requestsByPath = new ConcurrentHashMap<>();
+
+    @Before
+    public void setUp() throws Exception {
+        String error = TestUtils.getResourceFileContent("response_error.json");
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                requestsByPath.computeIfAbsent(request.getPath(), path -> new AtomicInteger()).incrementAndGet();
+                String body = request.getBody().readUtf8();
+                if (body.contains("error")) {
+                    return TestUtils.generateErrorMockResponse(error, 400);
+                } else if (body.contains("slow")) {
+                    try {
+                        Thread.sleep(2000);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return TestUtils.generateMockResponse(details(1));
+                }
+                List<Integer> classes = new ArrayList<>();
+                List<Integer> variants = new ArrayList<>();
+                Matcher matcher = TERM.matcher(body);
+                while (matcher.find()) {
+                    classes.add(Integer.parseInt(matcher.group(1)));
+                    variants.add(Integer.parseInt(matcher.group(2)));
+                }
+                switch (request.getPath()) {
+                    case "/api/analyze/details":
+                        return TestUtils.generateMockResponse(details(classes.get(0)));
+                    case "/api/generate/strings":
+                        String strings = variants.get(0) % 2 == 0 ? "[\"x\",\"y\"]" : "[\"y\",\"x\"]";
+                        return TestUtils.generateMockResponse("{\"type\":\"strings\",\"value\":" + strings + "}");
+                    case "/api/analyze/equivalence":
+                        boolean equivalent = classes.get(0).equals(classes.get(1));
+                        return TestUtils.generateMockResponse("{\"type\":\"boolean\",\"value\":" + equivalent + "}");
+                    default:
+                        return new MockResponse().setResponseCode(404);
+                }
+            }
+        });
+        server.start();
+
+        RegexSolver.initialize("TOKEN", server.url("/").toString());
+        RegexSolver.setLocalEvaluation(false);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    /**
+     * Terms "k{class}.{variant}" are equivalent when they share the same class. Class 20 matches nothing, class 21
+     * matches two strings, the other classes match infinitely many strings and share their details every three
+     * classes.
+     */
+    private static String details(int equivalenceClass) {
+        if (equivalenceClass == 20) {
+            return "{\"type\":\"details\",\"cardinality\":{\"type\":\"Integer\",\"value\":0},\"length\":[null,null],\"empty\":true,\"total\":false}";
+        } else if (equivalenceClass == 21) {
+            return "{\"type\":\"details\",\"cardinality\":{\"type\":\"Integer\",\"value\":2},\"length\":[1,1],\"empty\":false,\"total\":false}";
+        }
+        return "{\"type\":\"details\",\"cardinality\":{\"type\":\"Infinite\"},\"length\":[" + equivalenceClass % 3 + ",null],\"empty\":false,\"total\":false}";
+    }
+
+    private static Term term(int equivalenceClass, int variant) {
+        return Term.regex("k" + equivalenceClass + "." + variant);
+    }
+
+    private int requestCount(String path) {
+        AtomicInteger count = requestsByPath.get(path);
+        return count == null ? 0 : count.get();
+    }
+
+    @Test
+    public void test_deduplicate() throws Exception {
+        List<Term> terms = new ArrayList<>();
+        for (int equivalenceClass = 0; equivalenceClass < 6; equivalenceClass++) {
+            for (int variant = 0; variant < 5; variant++) {
+                terms.add(term(equivalenceClass, variant));
+            }
+        }
+        Collections.shuffle(terms, new Random(3));
+        terms.add(terms.get(0));
+
+        List<EquivalenceClass> classes = new Deduplicator(8).deduplicate(terms);
+
+        assertEquals(6, classes.size());
+        for (EquivalenceClass equivalenceClass : classes) {
+            assertEquals(5, equivalenceClass.size());
+            String prefix = equivalenceClass.getRepresentative().serialize().split("\\.")[0];
+            for (Term term : equivalenceClass.getTerms()) {
+                assertTrue(term.serialize().startsWith(prefix + "."));
+            }
+        }
+        assertEquals(terms.get(0), classes.get(0).getTerms().get(0));
+
+        assertEquals(30, requestCount("/api/analyze/details"));
+        // Each term is compared with the first term of at most two classes sharing its details.
+        assertTrue(requestCount("/api/analyze/equivalence") <= 30 * 2);
+    }
+
+    @Test
+    public void test_exactFingerprintsAreNotCompared() throws Exception {
+        List<Term> terms = List.of(term(20, 0), term(21, 0), term(20, 1), term(21, 1), term(21, 2));
+
+        List<EquivalenceClass> classes = new Deduplicator(4).deduplicate(terms);
+
+        assertEquals(2, classes.size());
+        assertEquals(List.of(term(20, 0), term(20, 1)), classes.get(0).getTerms());
+        assertEquals(List.of(term(21, 0), term(21, 1), term(21, 2)), classes.get(1).getTerms());
+        assertEquals(3, requestCount("/api/generate/strings"));
+        assertEquals(0, requestCount("/api/analyze/equivalence"));
+    }
+
+    @Test
+    public void test_representativeIsTheShortestTerm() throws Exception {
+        List<Term> terms = List.of(term(1, 10), term(1, 2), term(4, 0));
+
+        List<EquivalenceClass> classes = new Deduplicator(4).deduplicate(terms);
+
+        assertEquals(2, classes.size());
+        assertEquals(term(1, 2), classes.get(0).getRepresentative());
+        assertEquals(List.of(term(1, 10), term(1, 2)), classes.get(0).getTerms());
+        assertEquals(2, requestCount("/api/analyze/equivalence"));
+    }
+
+    @Test
+    public void test_error() {
+        List<Term> terms = List.of(term(1, 0), Term.regex("error"));
+
+        ApiError error = assertThrows(ApiError.class, () -> new Deduplicator(4).deduplicate(terms));
+        assertEquals("The API returned the following error: A random error.", error.getMessage());
+    }
+
+    @Test
+    public void test_errorFailsFast() {
+        List<Term> terms = List.of(Term.regex("slow"), Term.regex("error"));
+
+        long start = System.nanoTime();
+        assertThrows(ApiError.class, () -> new Deduplicator(4).deduplicate(terms));
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(1500));
+    }
+}
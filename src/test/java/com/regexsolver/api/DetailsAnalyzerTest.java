@@ -0,0 +1,89 @@
+package com.regexsolver.api;
+
+import com.regexsolver.api.dto.Cardinality;
+import com.regexsolver.api.dto.Details;
+import com.regexsolver.api.dto.Length;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class DetailsAnalyzerTest {
+    private MockWebServer server;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+
+        RegexSolver.initialize("TOKEN", server.url("/").toString());
+        RegexSolver.setLocalEvaluation(true);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        RegexSolver.setLocalEvaluation(false);
+        server.shutdown();
+    }
+
+    @Test
+    public void test_finiteTerms() {
+        assertEquals(finite(2, 2, 3), DetailsAnalyzer.analyze(Term.regex("(abc|de)")));
+        assertEquals(finite(1, 0, 0), DetailsAnalyzer.analyze(Term.regex("")));
+        assertEquals(finite(1, 3, 3), DetailsAnalyzer.analyze(Term.regex("abc|abc")));
+        assertEquals(finite(26 * 26 * 1000, 6, 6), DetailsAnalyzer.analyze(Term.regex("[A-Z]{2}-[0-9]{3}")));
+        assertEquals(finite(6, 1, 2), DetailsAnalyzer.analyze(Term.regex("[ab][ab]?")));
+        assertEquals(finite(3, 0, 2), DetailsAnalyzer.analyze(Term.regex("a?a?")));
+        assertEquals(finite(2, 1, 2), DetailsAnalyzer.analyze(Term.regex("a?a")));
+        assertEquals(finite(26, 1, 1), DetailsAnalyzer.analyze(Term.regex("[aa-z]")));
+        assertEquals(finite(26, 1, 1), DetailsAnalyzer.analyze(Term.regex("[a-ca-z]")));
+        assertEquals(finite(26, 1, 1), DetailsAnalyzer.analyze(Term.regex("[a-zb]")));
+        assertEquals(finite(26 * 26, 2, 2), DetailsAnalyzer.analyze(Term.regex("[aa-z]{2}")));
+        assertEquals(finite(3, 1, 1), DetailsAnalyzer.analyze(Term.regex("[a-c]|[b-c]")));
+        assertEquals(finite(3, 1, 1), DetailsAnalyzer.analyze(Term.regex("[a\\-z]")));
+        assertEquals(finite(10 + 100 + 1000, 1, 3), DetailsAnalyzer.analyze(Term.regex("[0-9]{1,3}")));
+        assertEquals(finite(1, 3, 3), DetailsAnalyzer.analyze(Term.regex("a\\.b")));
+
+        assertTrue(DetailsAnalyzer.analyze(Term.regex("abc")).getCardinality().isFinite());
+    }
+
+    @Test
+    public void test_infiniteTerms() {
+        Details details = DetailsAnalyzer.analyze(Term.regex("ab+c*"));
+        assertEquals(new Details(Cardinality.Infinite.INSTANCE, Length.of(2L, null), false, false), details);
+
+        details = DetailsAnalyzer.analyze(Term.regex("x|[a-z]{2,}"));
+        assertEquals(new Details(Cardinality.Infinite.INSTANCE, Length.of(1L, null), false, false), details);
+    }
+
+    @Test
+    public void test_unsupportedTerms() {
+        assertNull(DetailsAnalyzer.analyze(Term.regex(".*")));
+        assertNull(DetailsAnalyzer.analyze(Term.regex("[^a]")));
+        assertNull(DetailsAnalyzer.analyze(Term.regex("\\d{3}")));
+        assertNull(DetailsAnalyzer.analyze(Term.regex("(ab)+")));
+        assertNull(DetailsAnalyzer.analyze(Term.regex("a*?")));
+        assertNull(DetailsAnalyzer.analyze(Term.regex("[a-z&&b]")));
+        assertNull(DetailsAnalyzer.analyze(Term.regex("[a-z]{100}")));
+        assertNull(DetailsAnalyzer.analyze(Term.fair("rgmsW[1g2LvP=Gr&V>sLc#w-!No&(opHq@B-9o[LS1`Ab1Y8M[yJ")));
+    }
+
+    @Test
+    public void test_getDetailsIsLocal() throws Exception {
+        Details details = Term.regex("[A-Z]{2}-[0-9]{3}").getDetails();
+        assertEquals(finite(676000, 6, 6), details);
+        assertEquals(0, server.getRequestCount());
+
+        server.enqueue(TestUtils.generateMockResponse(TestUtils.getResourceFileContent("response_getDetails.json")));
+        Term.regex("(abc|de).*").getDetails();
+        assertEquals("/api/analyze/details", server.takeRequest().getPath());
+    }
+
+    private static Details finite(long count, long minimum, long maximum) {
+        return new Details(new Cardinality.Integer(count), Length.of(minimum, maximum), false, false);
+    }
+}
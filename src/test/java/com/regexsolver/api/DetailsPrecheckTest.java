@@ -0,0 +1,119 @@
+package com.regexsolver.api;
+
+import com.regexsolver.api.dto.Cardinality;
+import com.regexsolver.api.dto.Details;
+import com.regexsolver.api.dto.Length;
+import com.regexsolver.api.dto.PrecheckStats;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class DetailsPrecheckTest {
+    private static final Details EMPTY = new Details(new Cardinality.Integer(0), Length.of(null, null), true, false);
+    private static final Details TOTAL = new Details(Cardinality.Infinite.INSTANCE, Length.of(0L, null), false, true);
+
+    private static final String SINGLE_CHARACTER_DETAILS = "{\"type\":\"details\",\"cardinality\":{\"type\":\"Integer\",\"value\":3},\"length\":[1,1],\"empty\":false,\"total\":false}";
+
+    private MockWebServer server;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+
+        RegexSolver.initialize("TOKEN", server.url("/").toString());
+        RegexSolver.setLocalEvaluation(false);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        RegexSolver.setResultCache(null);
+        server.shutdown();
+    }
+
+    private static Details finite(long count, long minimum, long maximum) {
+        return new Details(new Cardinality.Integer(count), Length.of(minimum, maximum), false, false);
+    }
+
+    private static Details infinite(long minimum) {
+        return new Details(Cardinality.Infinite.INSTANCE, Length.of(minimum, null), false, false);
+    }
+
+    @Test
+    public void test_subset() {
+        assertEquals(true, DetailsPrecheck.subset(EMPTY, null));
+        assertEquals(true, DetailsPrecheck.subset(null, TOTAL));
+        assertEquals(false, DetailsPrecheck.subset(finite(2, 1, 3), EMPTY));
+        assertEquals(false, DetailsPrecheck.subset(TOTAL, infinite(0)));
+        assertEquals(false, DetailsPrecheck.subset(finite(2, 1, 3), finite(5, 2, 3)));
+        assertEquals(false, DetailsPrecheck.subset(finite(2, 2, 4), finite(5, 2, 3)));
+        assertEquals(false, DetailsPrecheck.subset(infinite(2), finite(5, 2, 3)));
+        assertEquals(false, DetailsPrecheck.subset(finite(6, 2, 3), finite(5, 2, 3)));
+        assertNull(DetailsPrecheck.subset(finite(5, 2, 3), finite(5, 2, 3)));
+        assertNull(DetailsPrecheck.subset(finite(2, 2, 3), infinite(1)));
+        assertNull(DetailsPrecheck.subset(null, infinite(1)));
+    }
+
+    @Test
+    public void test_equivalence() {
+        assertEquals(true, DetailsPrecheck.equivalence(List.of(EMPTY, EMPTY), true));
+        assertEquals(true, DetailsPrecheck.equivalence(List.of(TOTAL, TOTAL, TOTAL), true));
+        assertNull(DetailsPrecheck.equivalence(List.of(EMPTY, EMPTY), false));
+        assertEquals(false, DetailsPrecheck.equivalence(List.of(EMPTY, finite(1, 1, 1)), false));
+        assertEquals(false, DetailsPrecheck.equivalence(List.of(finite(2, 1, 3), finite(3, 1, 3)), true));
+        assertEquals(false, DetailsPrecheck.equivalence(List.of(finite(2, 1, 3), finite(2, 1, 4)), true));
+        assertEquals(false, DetailsPrecheck.equivalence(List.of(infinite(1), finite(2, 1, 3)), true));
+        assertNull(DetailsPrecheck.equivalence(List.of(infinite(1), infinite(1)), true));
+        assertNull(DetailsPrecheck.equivalence(List.of(finite(2, 1, 3), finite(2, 1, 3)), true));
+    }
+
+    @Test
+    public void test_knownDetailsShortCircuitRequests() throws Exception {
+        server.enqueue(TestUtils.generateMockResponse(TestUtils.getResourceFileContent("response_getDetails.json")));
+        server.enqueue(TestUtils.generateMockResponse(SINGLE_CHARACTER_DETAILS));
+
+        Term.Regex term = Term.regex("(abc|de)");
+        Term.Regex other = Term.regex("[a-c]");
+        term.getDetails();
+        other.getDetails();
+        assertEquals(2, server.getRequestCount());
+
+        PrecheckStats before = RegexSolver.getPrecheckStats();
+        assertFalse(term.isSubsetOf(other));
+        assertFalse(term.isEquivalentTo(other));
+        assertEquals(2, server.getRequestCount());
+
+        PrecheckStats after = RegexSolver.getPrecheckStats();
+        assertEquals(1, after.getSubsetHitCount() - before.getSubsetHitCount());
+        assertEquals(1, after.getEquivalenceHitCount() - before.getEquivalenceHitCount());
+    }
+
+    @Test
+    public void test_cachedDetailsShortCircuitRequests() throws Exception {
+        RegexSolver.setResultCache(new ResultCache(16, Duration.ofMinutes(1)));
+        server.enqueue(TestUtils.generateMockResponse(TestUtils.getResourceFileContent("response_getDetails.json")));
+        server.enqueue(TestUtils.generateMockResponse(SINGLE_CHARACTER_DETAILS));
+        server.enqueue(TestUtils.generateMockResponse(TestUtils.getResourceFileContent("response_isSubsetOf.json")));
+
+        Term.regex("(abc|de)").getDetails();
+        Term.regex("[a-c]").getDetails();
+
+        PrecheckStats before = RegexSolver.getPrecheckStats();
+        // New instances, their details are only known from the cache.
+        assertFalse(Term.regex("(abc|de)").isSubsetOf(Term.regex("[a-c]")));
+        assertEquals(2, server.getRequestCount());
+        assertTrue(Term.regex("[a-c]").isSubsetOf(Term.regex("(abc|de)x*")));
+        assertEquals(3, server.getRequestCount());
+
+        PrecheckStats after = RegexSolver.getPrecheckStats();
+        assertEquals(1, after.getSubsetHitCount() - before.getSubsetHitCount());
+        assertEquals(1, after.getSubsetMissCount() - before.getSubsetMissCount());
+    }
+}
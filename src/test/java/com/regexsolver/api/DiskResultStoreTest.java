@@ -0,0 +1,145 @@
+package com.regexsolver.api;
+
+import com.regexsolver.api.dto.Cardinality;
+import com.regexsolver.api.dto.Details;
+import com.regexsolver.api.dto.Length;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class DiskResultStoreTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private MockWebServer server;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+
+        RegexSolver.initialize("TOKEN", server.url("/").toString());
+        RegexSolver.setLocalEvaluation(false);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        RegexSolver.setDiskResultStore(null);
+        server.shutdown();
+    }
+
+    @Test
+    public void test_surviveRestart() throws Exception {
+        Path path = folder.getRoot().toPath().resolve("results.db");
+        server.enqueue(TestUtils.generateMockResponse(TestUtils.getResourceFileContent("response_isSubsetOf.json")));
+
+        try (DiskResultStore diskStore = new DiskResultStore(path, 1 << 20)) {
+            RegexSolver.setDiskResultStore(diskStore);
+            assertTrue(Term.regex("de").isSubsetOf(Term.regex("(abc|de)")));
+        }
+
+        try (DiskResultStore diskStore = new DiskResultStore(path, 1 << 20)) {
+            RegexSolver.setDiskResultStore(diskStore);
+            assertTrue(Term.regex("de").isSubsetOf(Term.regex("(abc|de)")));
+            assertEquals(1, diskStore.size());
+        }
+
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void test_storeAllResultTypes() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("results.db");
+        OperationKey regexKey = key("api/compute/union", "a", "b");
+        OperationKey fairKey = key("api/compute/intersection", "a", "b");
+        OperationKey booleanKey = key("api/analyze/subset", "a", "b");
+        OperationKey detailsKey = key("api/analyze/details", "a");
+        OperationKey infiniteKey = key("api/analyze/details", "a*");
+        Details details = new Details(new Cardinality.Integer(2), Length.of(2L, 3L), false, false);
+        Details infinite = new Details(new Cardinality.Infinite(), Length.of(0L, null), false, false);
+
+        try (DiskResultStore diskStore = new DiskResultStore(path, 1 << 20)) {
+            diskStore.put(regexKey, Term.regex("(a|b)"));
+            diskStore.put(fairKey, Term.fair("rgmsW[1g2LvP=Gr&V>sLc#w-!No&(oq@Sf>X).?lI3{uh{80qWEH[#0.pHq@B-9o[LpP-a#fYI+"));
+            diskStore.put(booleanKey, false);
+            diskStore.put(detailsKey, details);
+            diskStore.put(infiniteKey, infinite);
+        }
+
+        try (DiskResultStore diskStore = new DiskResultStore(path, 1 << 20)) {
+            assertEquals(Term.regex("(a|b)"), diskStore.get(regexKey));
+            assertEquals(Term.fair("rgmsW[1g2LvP=Gr&V>sLc#w-!No&(oq@Sf>X).?lI3{uh{80qWEH[#0.pHq@B-9o[LpP-a#fYI+"), diskStore.get(fairKey));
+            assertEquals(false, diskStore.get(booleanKey));
+            assertEquals(details, diskStore.get(detailsKey));
+            assertEquals(infinite, diskStore.get(infiniteKey));
+            assertNull(diskStore.get(key("api/analyze/subset", "b", "a")));
+        }
+    }
+
+    @Test
+    public void test_dropCorruptedTail() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("results.db");
+        try (DiskResultStore diskStore = new DiskResultStore(path, 1 << 20)) {
+            diskStore.put(key("api/analyze/subset", "a", "b"), true);
+            diskStore.put(key("api/analyze/subset", "c", "d"), true);
+        }
+        // Corrupt the last byte of the last record, followed by the zeros of the space not used yet.
+        byte[] bytes = Files.readAllBytes(path);
+        int last = bytes.length - 1;
+        while (bytes[last] == 0) {
+            last--;
+        }
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.seek(last);
+            file.write(bytes[last] ^ 0xFF);
+        }
+
+        try (DiskResultStore diskStore = new DiskResultStore(path, 1 << 20)) {
+            assertEquals(true, diskStore.get(key("api/analyze/subset", "a", "b")));
+            assertNull(diskStore.get(key("api/analyze/subset", "c", "d")));
+            assertEquals(1, diskStore.size());
+            diskStore.put(key("api/analyze/subset", "e", "f"), false);
+        }
+
+        try (DiskResultStore diskStore = new DiskResultStore(path, 1 << 20)) {
+            assertEquals(false, diskStore.get(key("api/analyze/subset", "e", "f")));
+            assertNull(diskStore.get(key("api/analyze/subset", "c", "d")));
+            assertEquals(2, diskStore.size());
+        }
+    }
+
+    @Test
+    public void test_compaction() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("results.db");
+        long maximumSize = 4096;
+        try (DiskResultStore diskStore = new DiskResultStore(path, maximumSize)) {
+            for (int i = 0; i < 1000; i++) {
+                diskStore.put(key("api/analyze/subset", "a" + i, "b"), true);
+                assertTrue(Files.size(path) <= maximumSize);
+            }
+            assertEquals(true, diskStore.get(key("api/analyze/subset", "a999", "b")));
+            assertNull(diskStore.get(key("api/analyze/subset", "a0", "b")));
+        }
+
+        try (DiskResultStore diskStore = new DiskResultStore(path, maximumSize)) {
+            assertEquals(true, diskStore.get(key("api/analyze/subset", "a999", "b")));
+            assertNull(diskStore.get(key("api/analyze/subset", "a0", "b")));
+        }
+    }
+
+    private static OperationKey key(String operation, String... patterns) {
+        return OperationKey.of(operation, Arrays.stream(patterns).map(Term::regex).collect(Collectors.toList()));
+    }
+}
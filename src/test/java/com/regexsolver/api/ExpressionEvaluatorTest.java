@@ -0,0 +1,126 @@
+package com.regexsolver.api;
+
+import com.regexsolver.api.exception.ApiError;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ExpressionEvaluatorTest {
+    private MockWebServer server;
+
+    private final AtomicInteger concurrent = new AtomicInteger();
+    private final AtomicInteger maxConcurrent = new AtomicInteger();
+    private final Map<String, AtomicInteger> requestsByPath = new ConcurrentHashMap<>();
+
+    @Before
+    public void setUp() throws Exception {
+        String error = TestUtils.getResourceFileContent("response_error.json");
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+                try {
+                    String body = request.getBody().readUtf8();
+                    Thread.sleep(body.contains("slow") ? 2000 : 50);
+                    requestsByPath.computeIfAbsent(request.getPath(), path -> new AtomicInteger()).incrementAndGet();
+                    if (body.contains("error")) {
+                        return TestUtils.generateErrorMockResponse(error, 400);
+                    }
+                    return TestUtils.generateMockResponse("{\"type\":\"regex\",\"value\":\"r" + Math.abs(body.hashCode()) + "\"}");
+                } finally {
+                    concurrent.decrementAndGet();
+                }
+            }
+        });
+        server.start();
+
+        RegexSolver.initialize("TOKEN", server.url("/").toString());
+        RegexSolver.setLocalEvaluation(false);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void test_sharedSubExpressionIsEvaluatedOnce() throws Exception {
+        TermExpression allowed = Term.expr(Term.regex("allow.*")).minus(Term.regex("deny.*"));
+        List<TermExpression> policies = List.of(
+                allowed.and(Term.regex("internal.*")),
+                allowed.and(Term.regex("external.*")),
+                Term.expr(Term.regex("allow.*")).minus(Term.regex("deny.*")).or(Term.regex("admin"))
+        );
+        assertEquals(4, ExpressionEvaluator.getRequestCount(policies));
+
+        Map<TermExpression, Term> results = new ExpressionEvaluator(8).evaluate(policies);
+
+        assertEquals(new ArrayList<>(policies), new ArrayList<>(results.keySet()));
+        assertEquals(4, server.getRequestCount());
+        assertEquals(1, requestsByPath.get("/api/compute/subtraction").get());
+        assertEquals(2, requestsByPath.get("/api/compute/intersection").get());
+        assertEquals(1, requestsByPath.get("/api/compute/union").get());
+    }
+
+    @Test
+    public void test_maxInFlight() throws Exception {
+        List<TermExpression> expressions = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            expressions.add(Term.expr(Term.regex("a" + i)).or(Term.regex("b" + i)));
+        }
+
+        new ExpressionEvaluator(null, Runnable::run, 3).evaluate(expressions);
+
+        assertEquals(8, server.getRequestCount());
+        assertTrue(maxConcurrent.get() > 1);
+        assertTrue(maxConcurrent.get() <= 3);
+    }
+
+    @Test
+    public void test_errorIsPropagated() throws Exception {
+        List<TermExpression> expressions = List.of(
+                Term.expr(Term.regex("error")).and(Term.regex("abc")).or(Term.regex("de"))
+        );
+
+        try {
+            new ExpressionEvaluator(4).evaluate(expressions);
+            fail();
+        } catch (ApiError e) {
+            assertEquals("The API returned the following error: A random error.", e.getMessage());
+        }
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void test_errorFailsFast() throws Exception {
+        TermExpression slow = Term.expr(Term.regex("slow")).or(Term.regex("abc"));
+        List<TermExpression> expressions = List.of(
+                slow.and(Term.regex("de")).minus(Term.regex("fg")),
+                Term.expr(Term.regex("error")).or(Term.regex("abc"))
+        );
+
+        long start = System.nanoTime();
+        CompletableFuture<Map<TermExpression, Term>> future = new ExpressionEvaluator(4).evaluateAsync(expressions);
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof ApiError);
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(1500));
+        assertEquals(2, server.getRequestCount());
+    }
+}
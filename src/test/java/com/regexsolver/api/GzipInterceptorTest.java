@@ -0,0 +1,106 @@
+package com.regexsolver.api;
+
+import com.regexsolver.api.dto.CompressionStats;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.GzipSink;
+import okio.GzipSource;
+import okio.Okio;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import static org.junit.Assert.*;
+
+public class GzipInterceptorTest {
+    private static final String LARGE_FAIR = "rgmsW[1g2LvP=Gr&V>sLc#w-!No&(oq@Sf>X).?lI3{uh{80qWEH[#0.pHq@B-9o[LpP-a#fYI+".repeat(100);
+
+    private MockWebServer server;
+
+    private final LinkedBlockingQueue<Request.MultiTermsRequest> decodedRequests = new LinkedBlockingQueue<>();
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                try {
+                    Buffer body = request.getBody();
+                    if ("gzip".equals(request.getHeader("Content-Encoding"))) {
+                        Buffer decoded = new Buffer();
+                        decoded.writeAll(new GzipSource(body));
+                        body = decoded;
+                    }
+                    decodedRequests.add(TestUtils.readBuffer(body, Request.MultiTermsRequest.class));
+
+                    String content = "{\"type\":\"fair\",\"value\":\"" + LARGE_FAIR + "\"}";
+                    if (!"gzip".equals(request.getHeader("Accept-Encoding"))) {
+                        return TestUtils.generateMockResponse(content);
+                    }
+                    Buffer compressed = new Buffer();
+                    try (BufferedSink sink = Okio.buffer(new GzipSink(compressed))) {
+                        sink.writeUtf8(content);
+                    }
+                    return TestUtils.generateMockResponse("")
+                            .addHeader("Content-Encoding", "gzip")
+                            .setBody(compressed);
+                } catch (IOException e) {
+                    return new MockResponse().setResponseCode(500);
+                }
+            }
+        });
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void test_compressLargeRequests() throws Exception {
+        try (RegexSolverClient client = RegexSolverClient.builder()
+                .token("TOKEN")
+                .baseUrl(server.url("/").toString())
+                .requestCompressionThreshold(1024)
+                .build()) {
+            Term small = client.intersection(Term.regex("abc"), Term.regex("de"));
+            assertEquals(Term.fair(LARGE_FAIR), small);
+            assertNull(server.takeRequest().getHeader("Content-Encoding"));
+
+            Term large = client.intersection(small, Term.regex(".*"));
+            assertEquals(Term.fair(LARGE_FAIR), large);
+            assertEquals("gzip", server.takeRequest().getHeader("Content-Encoding"));
+
+            assertEquals(List.of(Term.regex("abc"), Term.regex("de")), decodedRequests.take().getTerms());
+            assertEquals(List.of(Term.fair(LARGE_FAIR), Term.regex(".*")), decodedRequests.take().getTerms());
+
+            CompressionStats stats = client.getCompressionStats();
+            assertEquals(1, stats.getCompressedRequestCount());
+            assertTrue(stats.getRequestCompressionRatio() > 10);
+            assertEquals(2, stats.getCompressedResponseCount());
+            assertTrue(stats.getResponseCompressionRatio() > 10);
+        }
+    }
+
+    @Test
+    public void test_disabledByDefault() throws Exception {
+        try (RegexSolverClient client = RegexSolverClient.builder()
+                .token("TOKEN")
+                .baseUrl(server.url("/").toString())
+                .build()) {
+            client.union(Term.fair(LARGE_FAIR), Term.regex("de"));
+            assertNull(server.takeRequest().getHeader("Content-Encoding"));
+            assertEquals(0, client.getCompressionStats().getCompressedRequestCount());
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.regexsolver.api;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class HedgingTest {
+    private MockWebServer server;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+
+        RegexSolver.initialize("TOKEN", server.url("/").toString());
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        RegexSolver.setHedgingPolicy(null);
+        server.shutdown();
+    }
+
+    @Test
+    public void test_slowRequestIsHedged() throws Exception {
+        RegexSolver.setHedgingPolicy(policy().build());
+        server.enqueue(union().setHeadersDelay(1, TimeUnit.SECONDS));
+        server.enqueue(union());
+
+        long start = System.nanoTime();
+        assertEquals(Term.regex("(abc|de|fghi)"), Term.regex("abc.*").union(Term.regex("de.*")));
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(900));
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void test_slowRequestIsHedgedAsync() throws Exception {
+        RegexSolver.setHedgingPolicy(policy().build());
+        server.enqueue(union().setHeadersDelay(1, TimeUnit.SECONDS));
+        server.enqueue(union());
+
+        Term result = Term.regex("abc.*").unionAsync(Term.regex("de.*")).get(900, TimeUnit.MILLISECONDS);
+        assertEquals(Term.regex("(abc|de|fghi)"), result);
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void test_budgetCapsHedges() throws Exception {
+        RegexSolver.setHedgingPolicy(policy().budget(0).maxBurst(1).build());
+        server.enqueue(union().setHeadersDelay(300, TimeUnit.MILLISECONDS));
+        server.enqueue(union());
+        server.enqueue(union().setHeadersDelay(300, TimeUnit.MILLISECONDS));
+
+        assertEquals(Term.regex("(abc|de|fghi)"), Term.regex("abc.*").union(Term.regex("de.*")));
+        assertEquals(2, server.getRequestCount());
+
+        CompletableFuture<Term> future = Term.regex("abc.*").unionAsync(Term.regex("fghi.*"));
+        assertEquals(Term.regex("(abc|de|fghi)"), future.get(5, TimeUnit.SECONDS));
+        assertEquals(3, server.getRequestCount());
+    }
+
+    @Test
+    public void test_disabledByDefault() throws Exception {
+        server.enqueue(union().setHeadersDelay(300, TimeUnit.MILLISECONDS));
+
+        assertEquals(Term.regex("(abc|de|fghi)"), Term.regex("abc.*").union(Term.regex("de.*")));
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void test_latencyPercentile() {
+        Hedger.LatencyTracker tracker = new Hedger.LatencyTracker();
+        assertEquals(-1, tracker.percentileNanos(0.95));
+
+        for (int i = 1; i <= 100; i++) {
+            tracker.record(i);
+        }
+        assertEquals(95, tracker.percentileNanos(0.95));
+        assertEquals(50, tracker.percentileNanos(0.5));
+    }
+
+    private static HedgingPolicy.Builder policy() {
+        return HedgingPolicy.builder()
+                .initialDelay(Duration.ofMillis(50))
+                .minDelay(Duration.ofMillis(1));
+    }
+
+    private static MockResponse union() throws IOException {
+        return TestUtils.generateMockResponse(TestUtils.getResourceFileContent("response_union.json"));
+    }
+}
@@ -0,0 +1,105 @@
+package com.regexsolver.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.regexsolver.api.dto.Cardinality;
+import com.regexsolver.api.dto.Details;
+import com.regexsolver.api.dto.Length;
+import com.regexsolver.api.exception.ApiError;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class JsonCodecTest {
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    public void test_readResponses() throws IOException {
+        assertEquals(Term.regex("deabc"), read(TestUtils.getResourceFileContent("response_intersection.json")));
+        assertTrue(((Response.BooleanResponse) read(TestUtils.getResourceFileContent("response_isSubsetOf.json"))).value());
+        assertEquals(List.of("abcde", "dede", "deabc", "abcabc"),
+                ((Response.StringsResponse) read(TestUtils.getResourceFileContent("response_generateStrings.json"))).value());
+        assertEquals(new Details(new Cardinality.Integer(2), Length.of(2L, 3L), false, false),
+                read(TestUtils.getResourceFileContent("response_getDetails.json")));
+    }
+
+    @Test
+    public void test_readIsOrderIndependent() throws IOException {
+        Details details = (Details) read("{\"total\":true,\"length\":[0,null],\"unknown\":{\"a\":[1]}," +
+                "\"cardinality\":{\"value\":null,\"type\":\"Infinite\"},\"empty\":false,\"type\":\"details\"}");
+        assertSame(Cardinality.Infinite.INSTANCE, details.getCardinality());
+        assertEquals(Length.of(0L, null), details.getLength());
+        assertTrue(details.isTotal());
+
+        assertEquals(Term.fair("=rgmsW[1g2"), read("{\"value\":\"=rgmsW[1g2\",\"type\":\"fair\"}"));
+    }
+
+    @Test
+    public void test_readApiError() throws IOException {
+        ApiError error = JsonCodec.readApiError(stream(TestUtils.getResourceFileContent("response_error.json")));
+        assertEquals("The API returned the following error: A random error.", error.getMessage());
+    }
+
+    @Test
+    public void test_writeIsCompatibleWithDataBinding() throws IOException {
+        Request.MultiTermsRequest multiTermsRequest = new Request.MultiTermsRequest(List.of(
+                Term.regex("(abc|de)\"\\"), Term.fair("rgmsW[1g2LvP=Gr&V>sLc#w-!No&(oq@Sf>X)")));
+        Request.MultiTermsRequest decoded = mapper.readValue(write(multiTermsRequest), Request.MultiTermsRequest.class);
+        assertEquals(multiTermsRequest.getTerms(), decoded.getTerms());
+
+        Request.GenerateStringsRequest generateStringsRequest = new Request.GenerateStringsRequest(Term.regex("a+"), 42);
+        Request.GenerateStringsRequest decodedGenerate = mapper.readValue(write(generateStringsRequest), Request.GenerateStringsRequest.class);
+        assertEquals(generateStringsRequest.getTerm(), decodedGenerate.getTerm());
+        assertEquals(42, decodedGenerate.getCount());
+
+        assertEquals(Term.regex("é.*"), mapper.readValue(write(Term.regex("é.*")), Term.class));
+    }
+
+    @Test
+    public void test_rejectUnexpectedType() throws IOException {
+        try {
+            read("{\"type\":\"unknown\",\"value\":\"a\"}");
+            fail();
+        } catch (IOException e) {
+            assertTrue(e.getMessage().startsWith("Unknown type: unknown"));
+        }
+    }
+
+    @Test
+    public void test_dataBindingFallback() throws Exception {
+        MockWebServer server = new MockWebServer();
+        server.start();
+        server.enqueue(TestUtils.generateMockResponse(TestUtils.getResourceFileContent("response_getDetails.json")));
+        try (RegexSolverClient client = RegexSolverClient.builder()
+                .token("TOKEN")
+                .baseUrl(server.url("/").toString())
+                .streamingCodec(false)
+                .localEvaluation(false)
+                .build()) {
+            Details details = client.getDetails(Term.regex("(abc|de)"));
+            assertEquals(new Details(new Cardinality.Integer(2), Length.of(2L, 3L), false, false), details);
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    private static ResponseContent read(String json) throws IOException {
+        return JsonCodec.read(stream(json));
+    }
+
+    private static String write(Object value) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        JsonCodec.write(value, outputStream);
+        return outputStream.toString(StandardCharsets.UTF_8);
+    }
+
+    private static ByteArrayInputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,90 @@
+package com.regexsolver.api;
+
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class LiteralSetTest {
+    private MockWebServer server;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+
+        RegexSolver.initialize("TOKEN", server.url("/").toString());
+        RegexSolver.setLocalEvaluation(true);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        RegexSolver.setLocalEvaluation(false);
+        server.shutdown();
+    }
+
+    @Test
+    public void test_recognizer() {
+        assertEquals(Set.of("abc", "de"), LiteralSet.of(Term.regex("abc|de")).getStrings());
+        assertEquals(Set.of("abc", "de"), LiteralSet.of(Term.regex("(abc|de)")).getStrings());
+        assertEquals(Set.of("abc", "de"), LiteralSet.of(Term.regex("(?:abc|de)")).getStrings());
+        assertEquals(Set.of("a.b", "c+d", "e|f"), LiteralSet.of(Term.regex("a\\.b|c\\+d|e\\|f")).getStrings());
+        assertEquals(Set.of("abc", ""), LiteralSet.of(Term.regex("abc|")).getStrings());
+
+        assertNull(LiteralSet.of(Term.regex("abc.*")));
+        assertNull(LiteralSet.of(Term.regex("(abc|de){2}")));
+        assertNull(LiteralSet.of(Term.regex("(abc)|(de)")));
+        assertNull(LiteralSet.of(Term.regex("[a-z]")));
+        assertNull(LiteralSet.of(Term.regex("\\d")));
+        assertNull(LiteralSet.of(Term.fair("rgmsW[1g2LvP=Gr&V>sLc#w-!No&(opHq@B-9o[LS1`Ab1Y8M[yJ")));
+    }
+
+    @Test
+    public void test_localOperations() throws Exception {
+        Term abcDe = Term.regex("abc|de");
+        Term deFghi = Term.regex("(de|fghi)");
+
+        assertEquals(Term.regex("de"), abcDe.intersection(deFghi));
+        assertEquals(Term.regex("abc|de|fghi"), abcDe.union(deFghi));
+        assertEquals(Term.regex("abc"), abcDe.subtraction(deFghi));
+        assertEquals(Term.regex("a\\.b|c"), Term.regex("c").union(Term.regex("a\\.b")));
+        assertTrue(Term.regex("de").isSubsetOf(abcDe));
+        assertFalse(deFghi.isSubsetOf(abcDe));
+        assertTrue(Term.regex("de|abc").isEquivalentTo(abcDe));
+        assertFalse(deFghi.isEquivalentTo(abcDe));
+        assertEquals(Term.regex("de"), abcDe.intersectionAsync(deFghi).get(5, TimeUnit.SECONDS));
+
+        assertEquals(0, server.getRequestCount());
+    }
+
+    @Test
+    public void test_fallbackToApi() throws Exception {
+        server.enqueue(TestUtils.generateMockResponse(TestUtils.getResourceFileContent("response_intersection.json")));
+        server.enqueue(TestUtils.generateMockResponse(TestUtils.getResourceFileContent("response_subtraction.json")));
+
+        assertEquals(Term.regex("deabc"), Term.regex("abc|de").intersection(Term.regex("de.*")));
+        Term.regex("abc").subtraction(Term.regex("abc"));
+
+        assertEquals(2, server.getRequestCount());
+        assertEquals("/api/compute/intersection", server.takeRequest().getPath());
+        assertEquals("/api/compute/subtraction", server.takeRequest().getPath());
+    }
+
+    @Test
+    public void test_disabled() throws Exception {
+        RegexSolver.setLocalEvaluation(false);
+        server.enqueue(TestUtils.generateMockResponse(TestUtils.getResourceFileContent("response_union.json")));
+
+        Term.regex("abc").union(Term.regex("de"), Term.regex("fghi"));
+
+        assertEquals(List.of(Term.regex("abc"), Term.regex("de"), Term.regex("fghi")),
+                TestUtils.readBuffer(server.takeRequest().getBody(), Request.MultiTermsRequest.class).getTerms());
+    }
+}
@@ -0,0 +1,89 @@
+package com.regexsolver.api;
+
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class LocalStringsGeneratorTest {
+    private MockWebServer server;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+
+        RegexSolver.initialize("TOKEN", server.url("/").toString());
+        RegexSolver.setLocalEvaluation(true);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        RegexSolver.setLocalEvaluation(false);
+        server.shutdown();
+    }
+
+    @Test
+    public void test_finiteTerms() {
+        assertEquals(Set.of("abc", "de"), generate("(abc|de)", 10));
+        assertEquals(Set.of("", "a", "aa"), generate("a?a?", 10));
+        assertEquals(Set.of("a", "b", "c"), generate("[a-c]|[b-c]", 10));
+        assertEquals(Set.of("a.b"), generate("a\\.b", 10));
+        assertEquals(3, generate("[0-9]{2}", 3).size());
+        assertEquals(100, generate("[0-9]{2}", 1000).size());
+        assertEquals(26, generate("[aa-z]", 100).size());
+        assertEquals(26, generate("[a-ca-z]", 100).size());
+        assertEquals(26, generate("[a-zb]", 100).size());
+    }
+
+    @Test
+    public void test_matchesAndUniqueness() {
+        assertMatches("[A-Z]{2}-[0-9]{3,5}|none", 50_000);
+        assertMatches("a+", 500);
+        assertMatches("[ab]*c", 10_000);
+        assertMatches("x|[a-z]{2,}", 10_000);
+        assertMatches("é[😀-😂]?", 4);
+    }
+
+    @Test
+    public void test_unsupportedTerms() {
+        assertNull(LocalStringsGenerator.of(Term.regex(".*"), 10));
+        assertNull(LocalStringsGenerator.of(Term.regex("(ab)+"), 10));
+        assertNull(LocalStringsGenerator.of(Term.fair("rgmsW[1g2LvP=Gr&V>sLc#w-!No&(opHq@B-9o[LS1`Ab1Y8M[yJ"), 10));
+    }
+
+    @Test
+    public void test_generateStringsIsLocal() throws Exception {
+        assertEquals(List.of("abc", "de"), Term.regex("abc|de").generateStrings(10));
+        assertEquals(3, Term.regex("[a-z]+").generateStringsAsync(3).get().size());
+        try (Stream<String> strings = Term.regex("[a-z]{3}").streamStrings(100_000)) {
+            assertEquals(17_576, strings.count());
+        }
+        assertEquals(0, server.getRequestCount());
+    }
+
+    private static Set<String> generate(String regex, int count) {
+        return new HashSet<>(LocalStringsGenerator.of(Term.regex(regex), count).toList());
+    }
+
+    private static void assertMatches(String regex, int count) {
+        List<String> strings = LocalStringsGenerator.of(Term.regex(regex), count).toList();
+        assertEquals(count, strings.size());
+        assertEquals(count, new HashSet<>(strings).size());
+
+        Pattern pattern = Pattern.compile(regex);
+        List<String> mismatches = strings.stream().filter(string -> !pattern.matcher(string).matches())
+                .limit(5).collect(Collectors.toList());
+        assertEquals(List.of(), mismatches);
+    }
+}
@@ -0,0 +1,109 @@
+package com.regexsolver.api;
+
+import com.regexsolver.api.dto.EndpointMetrics;
+import com.regexsolver.api.dto.HistogramSnapshot;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class MetricsRecorderTest {
+    private MockWebServer server;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void test_histogramBuckets() {
+        for (long value : new long[]{0, 1, 127, 128, 255, 256, 257, 1000, 123_456_789, Long.MAX_VALUE}) {
+            int index = LatencyHistogram.index(value);
+            assertTrue(LatencyHistogram.upperBound(index) >= value);
+            assertTrue(index == 0 || LatencyHistogram.upperBound(index - 1) < value);
+        }
+    }
+
+    @Test
+    public void test_histogramPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100_000; i++) {
+            histogram.record(i);
+        }
+
+        HistogramSnapshot snapshot = histogram.snapshot();
+        assertEquals(100_000, snapshot.getCount());
+        assertEquals(1, snapshot.getMin());
+        assertEquals(100_000, snapshot.getMax());
+        assertEquals(50_000.5, snapshot.getMean(), 0.001);
+        assertEquals(50_000, snapshot.getValueAtPercentile(50), 500);
+        assertEquals(99_000, snapshot.getValueAtPercentile(99), 990);
+        assertEquals(100_000, snapshot.getValueAtPercentile(100));
+        assertEquals(1, snapshot.getValueAtPercentile(0));
+
+        assertEquals(0, new LatencyHistogram().snapshot().getValueAtPercentile(99));
+    }
+
+    @Test
+    public void test_recordRequestsAndRetries() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(503).setBody("{\"message\":\"Unavailable.\"}"));
+        server.enqueue(TestUtils.generateMockResponse(TestUtils.getResourceFileContent("response_union.json")));
+
+        HistogramMetricsRecorder recorder = new HistogramMetricsRecorder();
+        RegexSolverClient client = client(recorder)
+                .resiliencePolicy(ResiliencePolicy.builder().initialBackoff(Duration.ofMillis(1)).build())
+                .build();
+        assertEquals(Term.regex("(abc|de|fghi)"), client.union(Term.regex("abc.*"), Term.regex("de.*")));
+        client.close();
+
+        EndpointMetrics metrics = recorder.snapshot().get("api/compute/union");
+        assertEquals(Map.of(200, 1L, 503, 1L), metrics.getStatusCodes());
+        assertEquals(2, metrics.getRequestCount());
+        assertEquals(1, metrics.getErrorCount());
+        assertEquals(1, metrics.getRetryCount());
+        assertEquals(2, metrics.getLatency().getCount());
+        assertEquals(2 * server.takeRequest().getBodySize(), metrics.getRequestBytes());
+        assertTrue(metrics.getResponseBytes() > 0);
+    }
+
+    @Test
+    public void test_recordCacheHits() throws Exception {
+        server.enqueue(TestUtils.generateMockResponse(TestUtils.getResourceFileContent("response_union.json")));
+
+        HistogramMetricsRecorder recorder = new HistogramMetricsRecorder();
+        RegexSolverClient client = client(recorder)
+                .resultCache(new ResultCache(16, Duration.ofMinutes(1)))
+                .build();
+        Term result = client.unionAsync(Term.regex("abc.*"), Term.regex("de.*")).get(5, TimeUnit.SECONDS);
+        assertEquals(result, client.union(Term.regex("abc.*"), Term.regex("de.*")));
+        client.close();
+
+        EndpointMetrics metrics = recorder.snapshot().get("api/compute/union");
+        assertEquals(1, metrics.getRequestCount());
+        assertEquals(1, metrics.getCacheMissCount());
+        assertEquals(1, metrics.getCacheHitCount());
+        assertEquals(0, metrics.getRetryCount());
+    }
+
+    private RegexSolverClient.Builder client(MetricsRecorder recorder) {
+        return RegexSolverClient.builder()
+                .token("TOKEN")
+                .baseUrl(server.url("/").toString())
+                .localEvaluation(false)
+                .metricsRecorder(recorder);
+    }
+}
@@ -0,0 +1,85 @@
+package com.regexsolver.api;
+
+import com.regexsolver.api.dto.Details;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class RegexSolverClientTest {
+    private MockWebServer server1;
+    private MockWebServer server2;
+
+    @Before
+    public void setUp() throws Exception {
+        server1 = new MockWebServer();
+        server1.start();
+        server2 = new MockWebServer();
+        server2.start();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server1.shutdown();
+        server2.shutdown();
+    }
+
+    @Test
+    public void test_isolatedClients() throws Exception {
+        server1.enqueue(TestUtils.generateMockResponse(TestUtils.getResourceFileContent("response_isSubsetOf.json")));
+        server2.enqueue(TestUtils.generateMockResponse(TestUtils.getResourceFileContent("response_getDetails.json")));
+
+        try (RegexSolverClient client1 = RegexSolverClient.builder()
+                .token("TOKEN1")
+                .baseUrl(server1.url("/").toString())
+                .localEvaluation(false)
+                .build();
+             RegexSolverClient client2 = RegexSolverClient.builder()
+                     .token("TOKEN2")
+                     .baseUrl(server2.url("/").toString())
+                     .maxRequestsPerHost(32)
+                     .maxIdleConnections(32)
+                     .localEvaluation(false)
+                     .build()) {
+            assertTrue(client1.isSubsetOf(Term.regex("de"), Term.regex("(abc|de)")));
+
+            Term.Regex regex = Term.regex("(abc|de)");
+            Details details = client2.getDetailsAsync(regex).get(5, TimeUnit.SECONDS);
+            assertEquals(details, regex.getDetails());
+        }
+
+        RecordedRequest request1 = server1.takeRequest();
+        assertEquals("/api/analyze/subset", request1.getPath());
+        assertEquals("Bearer TOKEN1", request1.getHeader("Authorization"));
+
+        RecordedRequest request2 = server2.takeRequest();
+        assertEquals("/api/analyze/details", request2.getPath());
+        assertEquals("Bearer TOKEN2", request2.getHeader("Authorization"));
+    }
+
+    @Test
+    public void test_readTimeout() throws Exception {
+        server1.enqueue(TestUtils.generateMockResponse(TestUtils.getResourceFileContent("response_union.json"))
+                .setHeadersDelay(1, TimeUnit.SECONDS));
+
+        try (RegexSolverClient client = RegexSolverClient.builder()
+                .token("TOKEN")
+                .baseUrl(server1.url("/").toString())
+                .readTimeout(Duration.ofMillis(100))
+                .localEvaluation(false)
+                .build()) {
+            client.union(Term.regex("abc"), Term.regex("de"));
+            fail();
+        } catch (SocketTimeoutException e) {
+            // expected
+        }
+    }
+}
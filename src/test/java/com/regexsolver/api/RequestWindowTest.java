@@ -0,0 +1,45 @@
+package com.regexsolver.api;
+
+import org.junit.Test;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class RequestWindowTest {
+    @Test
+    public void test_boundedInFlight() throws Exception {
+        RequestWindow window = new RequestWindow(1);
+        CompletableFuture<String> first = new CompletableFuture<>();
+        CompletableFuture<String> second = new CompletableFuture<>();
+
+        CompletableFuture<String> firstResult = window.launch(() -> first);
+        CompletableFuture<String> secondResult = window.launch(() -> {
+            assertTrue(first.isDone());
+            return second;
+        });
+        assertFalse(secondResult.isDone());
+
+        first.complete("a");
+        second.complete("b");
+        assertEquals("a", firstResult.get(5, TimeUnit.SECONDS));
+        assertEquals("b", secondResult.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void test_cancel() {
+        RequestWindow window = new RequestWindow(1);
+        CompletableFuture<String> inFlight = new CompletableFuture<>();
+
+        CompletableFuture<String> inFlightResult = window.launch(() -> inFlight);
+        CompletableFuture<String> droppedResult = window.launch(() -> CompletableFuture.completedFuture("b"));
+        window.cancel();
+
+        assertTrue(inFlight.isCancelled());
+        assertThrows(CancellationException.class, () -> droppedResult.get(5, TimeUnit.SECONDS));
+        assertTrue(inFlightResult.isCompletedExceptionally());
+        assertTrue(window.launch(() -> CompletableFuture.completedFuture("c")).isCompletedExceptionally());
+    }
+}
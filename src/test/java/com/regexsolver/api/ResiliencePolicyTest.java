@@ -0,0 +1,175 @@
+package com.regexsolver.api;
+
+import com.regexsolver.api.exception.ApiError;
+import com.regexsolver.api.exception.CircuitOpenException;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class ResiliencePolicyTest {
+    private MockWebServer server;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+
+        RegexSolver.initialize("TOKEN", server.url("/").toString());
+        RegexSolver.setResiliencePolicy(ResiliencePolicy.builder()
+                .initialBackoff(Duration.ofMillis(1))
+                .maxBackoff(Duration.ofMillis(100))
+                .failureThreshold(2)
+                .openDuration(Duration.ofMillis(200))
+                .build());
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        RegexSolver.setResiliencePolicy(ResiliencePolicy.NONE);
+        server.shutdown();
+    }
+
+    @Test
+    public void test_retryTransientError() throws Exception {
+        server.enqueue(error(503).addHeader("Retry-After", "0"));
+        server.enqueue(TestUtils.generateMockResponse(TestUtils.getResourceFileContent("response_union.json")));
+
+        assertEquals(Term.regex("(abc|de|fghi)"), Term.regex("abc.*").union(Term.regex("de.*")));
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void test_retryTransientErrorAsync() throws Exception {
+        server.enqueue(error(429));
+        server.enqueue(TestUtils.generateMockResponse(TestUtils.getResourceFileContent("response_union.json")));
+
+        Term result = Term.regex("abc.*").unionAsync(Term.regex("de.*")).get(5, TimeUnit.SECONDS);
+        assertEquals(Term.regex("(abc|de|fghi)"), result);
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void test_notRetriedByDefault() throws Exception {
+        server.enqueue(error(503));
+        server.enqueue(TestUtils.generateMockResponse(TestUtils.getResourceFileContent("response_union.json")));
+
+        try (RegexSolverClient client = RegexSolverClient.builder()
+                .token("TOKEN")
+                .baseUrl(server.url("/").toString())
+                .build()) {
+            ApiError e = assertThrows(ApiError.class, () -> client.union(Term.regex("abc.*"), Term.regex("de.*")));
+            assertEquals(503, e.getStatusCode());
+        }
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void test_fatalErrorIsNotRetried() throws Exception {
+        server.enqueue(error(400));
+
+        try {
+            Term.regex("abc.*").union(Term.regex("de.*"));
+            fail();
+        } catch (ApiError e) {
+            assertEquals(400, e.getStatusCode());
+            assertFalse(e.isRetryable());
+            assertEquals("The API returned the following error: A random error.", e.getMessage());
+        }
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void test_retryAfterBeyondMaxBackoff() throws Exception {
+        server.enqueue(error(503).addHeader("Retry-After", "120"));
+
+        try {
+            Term.regex("abc.*").union(Term.regex("de.*"));
+            fail();
+        } catch (ApiError e) {
+            assertEquals(503, e.getStatusCode());
+            assertEquals(Duration.ofSeconds(120), e.getRetryAfter().orElseThrow());
+        }
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void test_attemptsAreBounded() throws Exception {
+        RegexSolver.setResiliencePolicy(ResiliencePolicy.builder()
+                .initialBackoff(Duration.ofMillis(1))
+                .failureThreshold(0)
+                .build());
+        server.enqueue(new MockResponse().setResponseCode(502).setBody("<html>Bad Gateway</html>"));
+        server.enqueue(new MockResponse().setResponseCode(502).setBody("<html>Bad Gateway</html>"));
+        server.enqueue(new MockResponse().setResponseCode(502).setBody("<html>Bad Gateway</html>"));
+
+        try {
+            Term.regex("abc.*").union(Term.regex("de.*"));
+            fail();
+        } catch (ApiError e) {
+            assertEquals(502, e.getStatusCode());
+            assertEquals("The API returned the following error: HTTP 502", e.getMessage());
+        }
+        assertEquals(3, server.getRequestCount());
+    }
+
+    @Test
+    public void test_circuitBreaker() throws Exception {
+        RegexSolver.setResiliencePolicy(ResiliencePolicy.builder()
+                .maxAttempts(1)
+                .failureThreshold(2)
+                .openDuration(Duration.ofMillis(200))
+                .build());
+        server.enqueue(error(500));
+        server.enqueue(error(500));
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                Term.regex("abc.*").union(Term.regex("de.*"));
+                fail();
+            } catch (ApiError e) {
+                assertEquals(500, e.getStatusCode());
+            }
+        }
+        try {
+            Term.regex("abc.*").union(Term.regex("de.*"));
+            fail();
+        } catch (CircuitOpenException e) {
+            // expected
+        }
+        assertEquals(2, server.getRequestCount());
+
+        // Other endpoints have their own circuit breaker.
+        server.enqueue(TestUtils.generateMockResponse(TestUtils.getResourceFileContent("response_intersection.json")));
+        assertEquals(Term.regex("deabc"), Term.regex("abc.*").intersection(Term.regex("de.*")));
+
+        Thread.sleep(250);
+        server.enqueue(TestUtils.generateMockResponse(TestUtils.getResourceFileContent("response_union.json")));
+        assertEquals(Term.regex("(abc|de|fghi)"), Term.regex("abc.*").union(Term.regex("de.*")));
+        assertEquals(4, server.getRequestCount());
+    }
+
+    @Test
+    public void test_parseRetryAfter() {
+        assertEquals(Duration.ofSeconds(3), RegexSolverApiWrapper.parseRetryAfter("3"));
+        assertNull(RegexSolverApiWrapper.parseRetryAfter("soon"));
+        assertNull(RegexSolverApiWrapper.parseRetryAfter(null));
+
+        String date = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now().plusSeconds(30));
+        Duration delay = RegexSolverApiWrapper.parseRetryAfter(date);
+        assertTrue(delay.getSeconds() > 25 && delay.getSeconds() <= 30);
+    }
+
+    private static MockResponse error(int code) throws IOException {
+        return TestUtils.generateErrorMockResponse(TestUtils.getResourceFileContent("response_error.json"), code);
+    }
+}
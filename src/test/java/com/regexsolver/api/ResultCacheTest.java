@@ -0,0 +1,118 @@
+package com.regexsolver.api;
+
+import com.regexsolver.api.dto.CacheStats;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class ResultCacheTest {
+    private MockWebServer server;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+
+        RegexSolver.initialize("TOKEN", server.url("/").toString());
+        RegexSolver.setLocalEvaluation(false);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        RegexSolver.setResultCache(null);
+        server.shutdown();
+    }
+
+    @Test
+    public void test_commutativeOperandsShareEntry() throws Exception {
+        ResultCache cache = new ResultCache(100, Duration.ofMinutes(1));
+        RegexSolver.setResultCache(cache);
+
+        server.enqueue(TestUtils.generateMockResponse(TestUtils.getResourceFileContent("response_union.json")));
+
+        Term.Regex term1 = Term.regex("abc");
+        Term.Regex term2 = Term.regex("de");
+        Term.Regex term3 = Term.regex("fghi");
+
+        Term result = term1.union(term2, term3);
+        assertEquals(result, term3.union(term1, term2));
+        assertEquals(result, term2.unionAsync(term3, term1).get());
+
+        assertEquals(1, server.getRequestCount());
+        assertEquals(new CacheStats(2, 1, 0), cache.getStats());
+    }
+
+    @Test
+    public void test_nonCommutativeOperandsAreOrdered() {
+        Term.Regex term1 = Term.regex("abc");
+        Term.Regex term2 = Term.regex("de");
+
+        assertEquals(OperationKey.commutative("union", List.of(term1, term2)),
+                OperationKey.commutative("union", List.of(term2, term1)));
+        assertNotEquals(OperationKey.of("subset", List.of(term1, term2)),
+                OperationKey.of("subset", List.of(term2, term1)));
+    }
+
+    @Test
+    public void test_leastRecentlyUsedEviction() {
+        ResultCache cache = new ResultCache(2, Duration.ofMinutes(1));
+        OperationKey key1 = OperationKey.of("details", List.of(Term.regex("a")));
+        OperationKey key2 = OperationKey.of("details", List.of(Term.regex("b")));
+        OperationKey key3 = OperationKey.of("details", List.of(Term.regex("c")));
+
+        cache.put(key1, true);
+        cache.put(key2, true);
+        assertNotNull(cache.get(key1));
+        cache.put(key3, true);
+
+        assertNotNull(cache.get(key1));
+        assertNull(cache.get(key2));
+        assertNotNull(cache.get(key3));
+        assertEquals(new CacheStats(3, 1, 1), cache.getStats());
+    }
+
+    @Test
+    public void test_expiration() {
+        AtomicLong now = new AtomicLong();
+        ResultCache cache = new ResultCache(10, Duration.ofSeconds(1), now::get);
+        OperationKey key = OperationKey.of("details", List.of(Term.regex("a")));
+
+        cache.put(key, true);
+        now.addAndGet(Duration.ofMillis(999).toNanos());
+        assertNotNull(cache.get(key));
+
+        now.addAndGet(Duration.ofMillis(1).toNanos());
+        assertNull(cache.get(key));
+        assertEquals(0, cache.size());
+        assertEquals(new CacheStats(1, 1, 1), cache.getStats());
+    }
+
+    @Test
+    public void test_overflowEvictsOnlyTheLeastRecentlyUsed() {
+        AtomicLong now = new AtomicLong();
+        ResultCache cache = new ResultCache(2, Duration.ofSeconds(1), now::get);
+        OperationKey key1 = OperationKey.of("details", List.of(Term.regex("a")));
+        OperationKey key2 = OperationKey.of("details", List.of(Term.regex("b")));
+        OperationKey key3 = OperationKey.of("details", List.of(Term.regex("c")));
+
+        cache.put(key1, true);
+        cache.put(key2, true);
+        assertNotNull(cache.get(key1));
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+        cache.put(key3, true);
+
+        assertEquals(2, cache.size());
+        assertEquals(new CacheStats(1, 0, 1), cache.getStats());
+        assertNull(cache.get(key1));
+        assertNotNull(cache.get(key3));
+        assertEquals(new CacheStats(2, 1, 2), cache.getStats());
+    }
+}
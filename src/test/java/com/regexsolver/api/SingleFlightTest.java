@@ -0,0 +1,97 @@
+package com.regexsolver.api;
+
+import com.regexsolver.api.dto.Details;
+import com.regexsolver.api.exception.ApiError;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class SingleFlightTest {
+    private static final int CALLERS = 20;
+
+    private MockWebServer server;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+
+        RegexSolver.initialize("TOKEN", server.url("/").toString());
+        RegexSolver.setLocalEvaluation(false);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void test_concurrentCallsShareOneRequest() throws Exception {
+        server.enqueue(TestUtils.generateMockResponse(TestUtils.getResourceFileContent("response_getDetails.json"))
+                .setHeadersDelay(500, TimeUnit.MILLISECONDS));
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<Details>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            Term.Regex regex = Term.regex("(abc|de)");
+            results.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    start.await();
+                    return regex.getDetails();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }, VirtualThreads.newExecutor()));
+        }
+        start.countDown();
+
+        Details details = results.get(0).get(5, TimeUnit.SECONDS);
+        for (CompletableFuture<Details> result : results) {
+            assertEquals(details, result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void test_errorIsShared() throws Exception {
+        server.enqueue(TestUtils.generateErrorMockResponse(TestUtils.getResourceFileContent("response_error.json"), 400)
+                .setHeadersDelay(500, TimeUnit.MILLISECONDS));
+
+        CompletableFuture<Boolean> first = Term.regex("a").isSubsetOfAsync(Term.regex("b"));
+        CompletableFuture<Boolean> second = Term.regex("a").isSubsetOfAsync(Term.regex("b"));
+
+        for (CompletableFuture<Boolean> future : List.of(first, second)) {
+            try {
+                future.get(5, TimeUnit.SECONDS);
+                fail();
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof ApiError);
+            }
+        }
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void test_cancellingOneSubscriberKeepsTheRequest() throws Exception {
+        server.enqueue(TestUtils.generateMockResponse(TestUtils.getResourceFileContent("response_isEquivalentTo.json"))
+                .setHeadersDelay(500, TimeUnit.MILLISECONDS));
+
+        CompletableFuture<Boolean> first = Term.regex("a").isEquivalentToAsync(Term.regex("b"));
+        CompletableFuture<Boolean> second = Term.regex("b").isEquivalentToAsync(Term.regex("a"));
+
+        assertTrue(first.cancel(true));
+        assertFalse(second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, server.getRequestCount());
+    }
+}
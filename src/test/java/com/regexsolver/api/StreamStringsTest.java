@@ -0,0 +1,132 @@
+package com.regexsolver.api;
+
+import com.regexsolver.api.exception.UncheckedApiError;
+import okhttp3.ResponseBody;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class StreamStringsTest {
+    private static final int UNIVERSE = 450;
+
+    private MockWebServer server;
+
+    private int offset = 0;
+    private final List<Integer> requestedCounts = new ArrayList<>();
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                try {
+                    Request.GenerateStringsRequest generateStringsRequest = TestUtils.readBuffer(request.getBody(), Request.GenerateStringsRequest.class);
+                    if (generateStringsRequest.getTerm().equals(Term.regex("error"))) {
+                        return TestUtils.generateErrorMockResponse(TestUtils.getResourceFileContent("response_error.json"), 400);
+                    }
+                    // Each chunk overlaps with the previous one, like independent random generations would.
+                    requestedCounts.add(generateStringsRequest.getCount());
+                    int count = Math.min(generateStringsRequest.getCount(), UNIVERSE);
+                    List<String> strings = new ArrayList<>();
+                    for (int i = 0; i < count; i++) {
+                        strings.add("\"s" + (offset + i) % UNIVERSE + "\"");
+                    }
+                    offset += count / 2;
+                    return TestUtils.generateMockResponse("{\"type\":\"strings\",\"value\":[" + String.join(",", strings) + "]}");
+                } catch (IOException e) {
+                    return new MockResponse().setResponseCode(500);
+                }
+            }
+        });
+        server.start();
+
+        RegexSolver.initialize("TOKEN", server.url("/").toString());
+        RegexSolver.setLocalEvaluation(false);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void test_singleChunk() {
+        try (Stream<String> strings = Term.regex("s[0-9]+").streamStrings(150)) {
+            assertEquals(150, strings.distinct().count());
+        }
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void test_chunksKeepUniqueness() {
+        List<String> strings;
+        try (Stream<String> stream = Term.regex("s[0-9]+").streamStrings(400)) {
+            strings = stream.collect(Collectors.toList());
+        }
+        assertEquals(400, strings.size());
+        assertEquals(400, new HashSet<>(strings).size());
+        assertTrue(server.getRequestCount() > 2);
+        assertTrue(requestedCounts.stream().allMatch(count -> count <= 200));
+    }
+
+    @Test
+    public void test_rememberedStringsAreBounded() throws Exception {
+        // Only the last 2 strings are remembered, out of 6 strings matched.
+        StringsIterator iterator = new StringsIterator(count -> {
+            List<String> strings = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                strings.add("\"s" + (offset + i) % 6 + "\"");
+            }
+            offset += count / 2;
+            return ResponseBody.create(null, "{\"type\":\"strings\",\"value\":[" + String.join(",", strings) + "]}");
+        }, 50, 4, 2);
+
+        List<String> strings = new ArrayList<>();
+        String string;
+        while ((string = iterator.nextString()) != null) {
+            strings.add(string);
+        }
+        assertEquals(50, strings.size());
+        assertEquals(6, new HashSet<>(strings).size());
+    }
+
+    @Test
+    public void test_stopWhenExhausted() throws Exception {
+        Set<String> strings = new HashSet<>();
+        Term.regex("s[0-9]+").generateStrings(10_000, string -> assertTrue(strings.add(string)));
+        assertEquals(UNIVERSE, strings.size());
+    }
+
+    @Test
+    public void test_partialConsumption() {
+        try (Stream<String> strings = Term.regex("s[0-9]+").streamStrings(1000)) {
+            assertEquals(List.of("s0", "s1", "s2"), strings.limit(3).collect(Collectors.toList()));
+        }
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void test_error() {
+        try (Stream<String> strings = Term.regex("error").streamStrings(10)) {
+            strings.count();
+            fail();
+        } catch (UncheckedApiError e) {
+            assertEquals("The API returned the following error: A random error.", e.getCause().getMessage());
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.regexsolver.api;
+
+import com.regexsolver.api.dto.SubsetMatrix;
+import com.regexsolver.api.exception.ApiError;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class SubsetAnalyzerTest {
+    private MockWebServer server;
+
+    private final AtomicInteger concurrent = new AtomicInteger();
+    private final AtomicInteger maxConcurrent = new AtomicInteger();
+    private final Set<List<Term>> requested = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger duplicates = new AtomicInteger();
+
+    @Before
+    public void setUp() throws Exception {
+        String error = TestUtils.getResourceFileContent("response_error.json");
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(5);
+                    List<Term> terms;
+                    try {
+                        terms = TestUtils.readBuffer(request.getBody(), Request.MultiTermsRequest.class).getTerms();
+                    } catch (IOException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    if (!requested.add(terms)) {
+                        duplicates.incrementAndGet();
+                    }
+                    if (terms.contains(Term.regex("error"))) {
+                        return TestUtils.generateErrorMockResponse(error, 400);
+                    }
+                    boolean subset = isSubset(terms.get(0), terms.get(1));
+                    return TestUtils.generateMockResponse("{\"type\":\"boolean\",\"value\":" + subset + "}");
+                } finally {
+                    concurrent.decrementAndGet();
+                }
+            }
+        });
+        server.start();
+
+        RegexSolver.initialize("TOKEN", server.url("/").toString());
+        RegexSolver.setLocalEvaluation(false);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    /**
+     * Each term stands for the set of bits of the number following the "m".
+     */
+    private static Term set(int bits) {
+        return Term.regex("m" + bits);
+    }
+
+    private static int bits(Term term) {
+        return Integer.parseInt(((Term.Regex) term).getPattern().substring(1));
+    }
+
+    private static boolean isSubset(Term left, Term right) {
+        return (bits(left) & ~bits(right)) == 0;
+    }
+
+    private static void assertMatrix(List<Term> terms, SubsetMatrix matrix) {
+        assertEquals(terms, matrix.getTerms());
+        for (int i = 0; i < terms.size(); i++) {
+            for (int j = 0; j < terms.size(); j++) {
+                assertEquals(terms.get(i) + " ⊆ " + terms.get(j),
+                        isSubset(terms.get(i), terms.get(j)), matrix.isSubset(i, j));
+            }
+        }
+    }
+
+    @Test
+    public void test_chainIsInferred() throws Exception {
+        List<Term> terms = new ArrayList<>();
+        for (int i = 1; i <= 8; i++) {
+            terms.add(set((1 << i) - 1));
+        }
+        Collections.shuffle(terms, new Random(7));
+
+        SubsetMatrix matrix = new SubsetAnalyzer(1).analyze(terms);
+
+        assertMatrix(terms, matrix);
+        assertEquals(server.getRequestCount(), matrix.getRequestCount());
+        assertTrue(matrix.getRequestCount() <= 28);
+        assertEquals(56 - matrix.getRequestCount(), matrix.getSavedRequestCount());
+        assertTrue(matrix.isEquivalent(3, 3));
+        assertFalse(matrix.isEquivalent(0, 1));
+    }
+
+    @Test
+    public void test_partialOrder() throws Exception {
+        Random random = new Random(42);
+        List<Term> terms = new ArrayList<>();
+        for (int i = 0; i < 24; i++) {
+            terms.add(set(random.nextInt(64)));
+        }
+
+        SubsetMatrix matrix = new SubsetAnalyzer(8).analyze(terms);
+
+        assertMatrix(terms, matrix);
+        assertEquals(server.getRequestCount(), matrix.getRequestCount());
+        assertEquals(0, duplicates.get());
+        assertTrue(matrix.getSavedRequestCount() > 0);
+        assertTrue(maxConcurrent.get() <= 8);
+
+        for (int j : matrix.getSupersets(0)) {
+            assertTrue(matrix.getSubsets(j).contains(0));
+        }
+    }
+
+    @Test
+    public void test_equalTermsAreNotRequested() throws Exception {
+        List<Term> terms = List.of(set(3), set(3), set(3));
+
+        SubsetMatrix matrix = new SubsetAnalyzer(4).analyze(terms);
+
+        assertEquals(0, server.getRequestCount());
+        assertEquals(6, matrix.getSavedRequestCount());
+        assertTrue(matrix.isEquivalent(0, 2));
+    }
+
+    @Test
+    public void test_emptyCollection() throws Exception {
+        SubsetMatrix matrix = new SubsetAnalyzer(4).analyze(List.of());
+
+        assertEquals(0, matrix.size());
+        assertEquals(0, matrix.getSavedRequestCount());
+    }
+
+    @Test
+    public void test_error() {
+        List<Term> terms = List.of(set(1), set(3), Term.regex("error"));
+
+        ApiError error = assertThrows(ApiError.class, () -> new SubsetAnalyzer(2).analyze(terms));
+        assertEquals("The API returned the following error: A random error.", error.getMessage());
+    }
+}
@@ -0,0 +1,118 @@
+package com.regexsolver.api;
+
+import com.regexsolver.api.dto.Cardinality;
+import com.regexsolver.api.dto.Details;
+import com.regexsolver.api.exception.ApiError;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okhttp3.mockwebserver.SocketPolicy;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class TermAsyncOperationTest {
+    private MockWebServer server;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+
+        RegexSolver.initialize("TOKEN", server.url("/").toString());
+        RegexSolver.setLocalEvaluation(false);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void test_intersectionAsync() throws Exception {
+        MockResponse response = TestUtils.generateMockResponse(TestUtils.getResourceFileContent("response_intersection.json"));
+        server.enqueue(response);
+
+        Term.Regex term1 = Term.regex("(abc|de){2}");
+        Term.Regex term2 = Term.regex("de.*");
+        Term.Regex term3 = Term.regex(".*abc");
+
+        Term result = term1.intersectionAsync(term2, term3).get(5, TimeUnit.SECONDS);
+        assertEquals(Term.regex("deabc"), result);
+
+        RecordedRequest request = server.takeRequest();
+        assertEquals("/api/compute/intersection", request.getPath());
+
+        Request.MultiTermsRequest multiTermsRequest = TestUtils.readBuffer(request.getBody(), Request.MultiTermsRequest.class);
+        assertEquals(List.of(term1, term2, term3), multiTermsRequest.getTerms());
+    }
+
+    @Test
+    public void test_getDetailsAsync() throws Exception {
+        int requestCount = server.getRequestCount();
+
+        MockResponse response = TestUtils.generateMockResponse(TestUtils.getResourceFileContent("response_getDetails.json"));
+        server.enqueue(response);
+
+        Term.Regex regex = Term.regex("(abc|de)");
+
+        Details details = regex.getDetailsAsync().get(5, TimeUnit.SECONDS);
+        assertEquals(2, ((Cardinality.Integer) details.getCardinality()).getCount());
+
+        assertEquals(details, regex.getDetailsAsync().get());
+        assertEquals(details, regex.getDetails());
+        assertEquals(1, server.getRequestCount() - requestCount);
+    }
+
+    @Test
+    public void test_isSubsetOfAsync() throws Exception {
+        MockResponse response = TestUtils.generateMockResponse(TestUtils.getResourceFileContent("response_isSubsetOf.json"));
+        server.enqueue(response);
+
+        assertTrue(Term.regex("de").isSubsetOfAsync(Term.regex("(abc|de)")).get(5, TimeUnit.SECONDS));
+        assertEquals("/api/analyze/subset", server.takeRequest().getPath());
+    }
+
+    @Test
+    public void test_errorResponseAsync() throws Exception {
+        MockResponse response = TestUtils.generateErrorMockResponse(TestUtils.getResourceFileContent("response_error.json"), 400);
+        server.enqueue(response);
+
+        CompletableFuture<Term> future = Term.regex("abc").unionAsync(Term.regex("de"));
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof ApiError);
+            assertEquals("The API returned the following error: A random error.", e.getCause().getMessage());
+        }
+    }
+
+    @Test
+    public void test_emptyResponseAsync() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(204));
+
+        CompletableFuture<Boolean> future = Term.regex("de").isSubsetOfAsync(Term.regex("(abc|de)"));
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof RuntimeException);
+    }
+
+    @Test
+    public void test_cancelAsync() throws Exception {
+        server.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.NO_RESPONSE));
+
+        CompletableFuture<Term> future = Term.regex("(abc|de)").subtractionAsync(Term.regex("de"));
+        assertNotNull(server.takeRequest(5, TimeUnit.SECONDS));
+
+        assertTrue(future.cancel(true));
+        assertTrue(future.isCancelled());
+    }
+}
@@ -0,0 +1,121 @@
+package com.regexsolver.api;
+
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class TermExpressionTest {
+    private MockWebServer server;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+
+        RegexSolver.initialize("TOKEN", server.url("/").toString());
+        RegexSolver.setLocalEvaluation(false);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void test_chainedIntersectionIsFused() throws Exception {
+        server.enqueue(TestUtils.generateMockResponse(TestUtils.getResourceFileContent("response_intersection.json")));
+
+        Term.Regex term1 = Term.regex("(abc|de){2}");
+        Term.Regex term2 = Term.regex("de.*");
+        Term.Regex term3 = Term.regex(".*abc");
+
+        TermExpression expression = Term.expr(term1).and(term2).and(term3);
+        assertEquals(1, expression.getRequestCount());
+        assertEquals(Term.regex("deabc"), expression.evaluate());
+
+        RecordedRequest request = server.takeRequest();
+        assertEquals("/api/compute/intersection", request.getPath());
+        Request.MultiTermsRequest multiTermsRequest = TestUtils.readBuffer(request.getBody(), Request.MultiTermsRequest.class);
+        assertEquals(List.of(term1, term2, term3), multiTermsRequest.getTerms());
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void test_mixedOperators() throws Exception {
+        server.enqueue(TestUtils.generateMockResponse(TestUtils.getResourceFileContent("response_intersection.json")));
+        server.enqueue(TestUtils.generateMockResponse(TestUtils.getResourceFileContent("response_union.json")));
+
+        Term.Regex term1 = Term.regex("(abc|de){2}");
+        Term.Regex term2 = Term.regex("de.*");
+        Term.Regex term3 = Term.regex(".*abc");
+        Term.Regex term4 = Term.regex("xyz");
+
+        TermExpression expression = Term.expr(term1).and(term2).and(term3).or(term4);
+        assertEquals(2, expression.getRequestCount());
+        expression.evaluateAsync().get(5, TimeUnit.SECONDS);
+
+        assertEquals("/api/compute/intersection", server.takeRequest().getPath());
+        RecordedRequest request = server.takeRequest();
+        assertEquals("/api/compute/union", request.getPath());
+        Request.MultiTermsRequest multiTermsRequest = TestUtils.readBuffer(request.getBody(), Request.MultiTermsRequest.class);
+        assertEquals(List.of(Term.regex("deabc"), term4), multiTermsRequest.getTerms());
+    }
+
+    @Test
+    public void test_localIdentities() throws Exception {
+        Term.Regex term = Term.regex("abc");
+
+        assertEquals(Term.expr(term), Term.expr(term).and(term));
+        assertEquals(Term.expr(term), Term.expr(term).or(term, term));
+        assertEquals(0, Term.expr(term).and(term).or(term).getRequestCount());
+        assertEquals(term, Term.expr(term).and(term).or(term).evaluate());
+
+        Term.Regex other = Term.regex("de");
+        assertEquals(Term.expr(term).and(other), Term.expr(other).and(term));
+        assertNotEquals(Term.expr(term).minus(other), Term.expr(other).minus(term));
+
+        assertEquals(0, server.getRequestCount());
+    }
+
+    @Test
+    public void test_structuralEquality() {
+        Term.Regex term1 = Term.regex("abc");
+        Term.Regex term2 = Term.regex("de");
+        Term.Regex term3 = Term.regex("fg");
+
+        TermExpression expression = Term.expr(term1).or(term2).minus(Term.expr(term3).and(term1));
+        TermExpression reordered = Term.expr(term2).or(term1).minus(Term.expr(term1).and(term3));
+        assertEquals(expression, reordered);
+        assertEquals(expression.hashCode(), reordered.hashCode());
+
+        assertNotEquals(Term.expr(term1).and(term2), Term.expr(term1).or(term2));
+        assertNotEquals(Term.expr(term1).or(term2), Term.expr(term1).or(term3));
+        assertNotEquals(Term.expr(term1).or(term2), Term.expr(term1).or(term2, term3));
+    }
+
+    @Test
+    public void test_largeOperandCountIsSplit() throws Exception {
+        List<Term> terms = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            terms.add(Term.regex("a{" + i + "}"));
+        }
+        TermExpression expression = Term.expr(terms.get(0)).or(terms.subList(1, terms.size()).toArray(new Term[0]));
+        assertEquals(2, expression.getRequestCount());
+
+        server.enqueue(TestUtils.generateMockResponse(TestUtils.getResourceFileContent("response_union.json")));
+        server.enqueue(TestUtils.generateMockResponse(TestUtils.getResourceFileContent("response_union.json")));
+        expression.evaluate();
+
+        assertEquals(10, TestUtils.readBuffer(server.takeRequest().getBody(), Request.MultiTermsRequest.class).getTerms().size());
+        assertEquals(3, TestUtils.readBuffer(server.takeRequest().getBody(), Request.MultiTermsRequest.class).getTerms().size());
+    }
+}
@@ -0,0 +1,85 @@
+package com.regexsolver.api;
+
+import org.junit.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class TermPoolTest {
+    @Test
+    public void test_canonicalInstances() {
+        TermPool pool = new TermPool();
+
+        Term.Regex regex = Term.regex("abc.*", pool);
+        assertSame(regex, pool.regex("abc.*"));
+        assertSame(regex, pool.intern(Term.regex("abc.*")));
+        assertSame(regex, pool.intern(regex));
+        assertNotSame(regex, pool.regex("abc"));
+
+        Term.Fair fair = Term.fair("abc.*", pool);
+        assertSame(fair, pool.fair("abc.*"));
+        assertNotEquals(regex, fair);
+        assertEquals(3, pool.size());
+
+        assertNotSame(regex, new TermPool().regex("abc.*"));
+    }
+
+    @Test
+    public void test_equalToNonInternedTerms() {
+        TermPool pool = new TermPool();
+        Term.Regex interned = pool.regex("(abc|de)");
+        Term.Regex plain = Term.regex("(abc|de)");
+
+        assertEquals(plain, interned);
+        assertEquals(interned, plain);
+        assertEquals(plain.hashCode(), interned.hashCode());
+        assertEquals(interned, new TermPool().regex("(abc|de)"));
+        assertNotEquals(interned, pool.regex("(abc|def)"));
+        assertEquals("regex=(abc|de)", interned.serialize());
+
+        Map<Term, Integer> map = new HashMap<>();
+        map.put(plain, 1);
+        assertEquals(Integer.valueOf(1), map.get(interned));
+    }
+
+    @Test
+    public void test_concurrentInterning() throws Exception {
+        TermPool pool = new TermPool();
+        Set<Term> canonical = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int thread = 0; thread < 8; thread++) {
+            executor.execute(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    canonical.add(pool.regex("abc" + (i % 100)));
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(100, canonical.size());
+        assertEquals(100, pool.size());
+    }
+
+    @Test
+    public void test_unusedInstancesAreCollected() throws Exception {
+        TermPool pool = new TermPool();
+        WeakReference<Term> reference = new WeakReference<>(pool.regex("abc.*"));
+
+        for (int i = 0; i < 100 && (reference.get() != null || pool.size() > 0); i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(reference.get());
+        assertEquals(0, pool.size());
+    }
+}
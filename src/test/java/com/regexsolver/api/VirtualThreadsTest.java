@@ -0,0 +1,139 @@
+package com.regexsolver.api;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeFalse;
+
+public class VirtualThreadsTest {
+    private static final int CONCURRENCY = 500;
+
+    private MockWebServer server;
+
+    @Before
+    public void setUp() throws Exception {
+        String content = TestUtils.getResourceFileContent("response_isSubsetOf.json");
+
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return TestUtils.generateMockResponse(content);
+            }
+        });
+        server.start();
+
+        RegexSolver.initialize("TOKEN", server.url("/").toString());
+        RegexSolver.useVirtualThreads(true);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        RegexSolver.useVirtualThreads(false);
+        server.shutdown();
+    }
+
+    @Test
+    public void test_invokeAll() throws Exception {
+        Term.Regex policy = Term.regex("[a-z]+");
+
+        List<TermOperation<Boolean>> operations = new ArrayList<>();
+        for (int i = 0; i < CONCURRENCY; i++) {
+            Term.Regex rule = Term.regex("rule" + i);
+            operations.add(() -> rule.isSubsetOf(policy));
+        }
+
+        List<Boolean> results = VirtualThreads.invokeAll(operations);
+        assertEquals(CONCURRENCY, results.size());
+        assertTrue(results.stream().allMatch(Boolean::booleanValue));
+        assertEquals(CONCURRENCY, server.getRequestCount());
+    }
+
+    @Test
+    public void test_restoreConcurrencyLimits() {
+        RegexSolverApiWrapper wrapper = new RegexSolverApiWrapper(RegexSolverClient.builder()
+                .token("TOKEN")
+                .baseUrl(server.url("/").toString())
+                .maxRequestsPerHost(32));
+        try {
+            // Platform threads keep the caps.
+            wrapper.useVirtualThreads(true, false);
+            assertEquals(32, wrapper.getDispatcher().getMaxRequestsPerHost());
+            wrapper.useVirtualThreads(false, false);
+            assertEquals(32, wrapper.getDispatcher().getMaxRequestsPerHost());
+
+            wrapper.useVirtualThreads(true, true);
+            assertEquals(Integer.MAX_VALUE, wrapper.getDispatcher().getMaxRequestsPerHost());
+            wrapper.useVirtualThreads(true, true);
+            wrapper.useVirtualThreads(false, true);
+            assertEquals(32, wrapper.getDispatcher().getMaxRequestsPerHost());
+        } finally {
+            wrapper.close();
+        }
+    }
+
+    @Test
+    public void test_invokeAll_propagatesFailure() {
+        List<TermOperation<Boolean>> operations = List.of(
+                () -> true,
+                () -> {
+                    throw new IOException("failure");
+                }
+        );
+
+        try {
+            VirtualThreads.invokeAll(operations);
+            fail();
+        } catch (Exception e) {
+            assertTrue(e instanceof IOException);
+            assertEquals("failure", e.getMessage());
+        }
+    }
+
+    @Test
+    public void test_invokeAll_failsOnFirstFailure() {
+        List<TermOperation<Boolean>> operations = List.of(
+                () -> {
+                    try {
+                        Thread.sleep(5000);
+                    } catch (InterruptedException e) {
+                        throw new InterruptedIOException();
+                    }
+                    return true;
+                },
+                () -> {
+                    throw new IOException("failure");
+                }
+        );
+
+        long start = System.nanoTime();
+        IOException e = assertThrows(IOException.class, () -> VirtualThreads.invokeAll(operations));
+        assertEquals("failure", e.getMessage());
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+    }
+
+    @Test
+    public void test_fallbackIsBounded() {
+        assumeFalse(VirtualThreads.isAvailable());
+        ExecutorService executor = VirtualThreads.newExecutor();
+        try {
+            assertEquals(VirtualThreads.FALLBACK_POOL_SIZE, ((ThreadPoolExecutor) executor).getMaximumPoolSize());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}